@@ -0,0 +1,132 @@
+/*
+ * LogfmtStyleBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+
+/*
+ * Compares the logfmt styles with the default and recursive styles, using reflection on a small graph of objects.
+ * "defaultStyle" and "logfmtStyle" format nested objects using their toString method; "recursiveStyle" and "logfmtRecursiveStyle" format
+ * them using reflection, and "logfmtRecursiveStyle" also flattens them to dotted keys.
+ * If "quoted" is true, all string values contain spaces, so the logfmt styles need to quote them. Otherwise no value needs to be quoted.
+ * If "obfuscated" is true, the password fields are obfuscated.
+ * Use -prof gc to compare allocations, e.g.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="LogfmtStyleBenchmark -prof gc"
+ */
+@SuppressWarnings({ "javadoc", "nls" })
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogfmtStyleBenchmark {
+
+    @Param({ "defaultStyle", "logfmtStyle", "recursiveStyle", "logfmtRecursiveStyle" })
+    public String style;
+
+    @Param({ "false", "true" })
+    public boolean quoted;
+
+    @Param({ "false", "true" })
+    public boolean obfuscated;
+
+    private ObfuscatingToStringStyle obfuscatingStyle;
+
+    private Request request;
+
+    @Setup
+    public void setup() {
+        ObfuscatingToStringStyle.Builder builder = obfuscatingStyleBuilder(style);
+        if (obfuscated) {
+            builder = builder.withField("password", Obfuscator.fixedLength(3));
+        }
+        obfuscatingStyle = builder.build();
+
+        String separator = quoted ? " " : "-";
+        request = new Request(
+                new User("John" + separator + "Doe", "secret" + separator + "password"),
+                new User("Jane" + separator + "Doe", "other" + separator + "password"),
+                "GET" + separator + "/api/v1/users");
+    }
+
+    private static ObfuscatingToStringStyle.Builder obfuscatingStyleBuilder(String style) {
+        switch (style) {
+            case "defaultStyle":
+                return ObfuscatingToStringStyle.defaultStyle();
+            case "logfmtStyle":
+                return ObfuscatingToStringStyle.logfmtStyle();
+            case "recursiveStyle":
+                return ObfuscatingToStringStyle.recursiveStyle();
+            case "logfmtRecursiveStyle":
+                return ObfuscatingToStringStyle.logfmtRecursiveStyle();
+            default:
+                throw new IllegalArgumentException(style);
+        }
+    }
+
+    @Benchmark
+    public String obfuscating() {
+        return obfuscatingStyle.reflectionToString(request);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Request {
+
+        private final User user;
+        private final User impersonator;
+        private final String path;
+        private final int status = 200;
+        private final long duration = 42;
+
+        private Request(User user, User impersonator, String path) {
+            this.user = user;
+            this.impersonator = impersonator;
+            this.path = path;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class User {
+
+        private final String name;
+        private final String password;
+
+        private User(String name, String password) {
+            this.name = name;
+            this.password = password;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MultiLineRecursiveStyleBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+
+/*
+ * Formats a deep graph of objects, collections, maps and arrays using the multi-line recursive style, which changes its indent for each of these.
+ * "obfuscatingFromSupplier" gets a new obfuscating style from a supplier for each graph, so it shows the cost of indents for new styles.
+ * Use -prof gc to compare allocations, e.g.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="MultiLineRecursiveStyleBenchmark -prof gc"
+ */
+@SuppressWarnings({ "javadoc", "nls" })
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiLineRecursiveStyleBenchmark {
+
+    @Param({ "4", "16" })
+    public int depth;
+
+    private ToStringStyle commonsLangStyle;
+    private ObfuscatingToStringStyle obfuscatingStyle;
+    private Supplier<ObfuscatingToStringStyle> obfuscatingStyleSupplier;
+
+    private Node node;
+
+    @Setup
+    public void setup() {
+        commonsLangStyle = new MultilineRecursiveToStringStyle();
+
+        ObfuscatingToStringStyle.Builder builder = ObfuscatingToStringStyle.multiLineRecursiveStyle()
+                .withField("password", Obfuscator.fixedLength(3));
+        obfuscatingStyle = builder.build();
+        obfuscatingStyleSupplier = builder.supplier();
+
+        for (int i = 0; i < depth; i++) {
+            node = new Node(i, node);
+        }
+    }
+
+    @Benchmark
+    public String commonsLang() {
+        return ToStringBuilder.reflectionToString(node, commonsLangStyle);
+    }
+
+    @Benchmark
+    public String obfuscating() {
+        return obfuscatingStyle.reflectionToString(node);
+    }
+
+    @Benchmark
+    public String obfuscatingFromSupplier() {
+        return obfuscatingStyleSupplier.get().reflectionToString(node);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Node {
+
+        private final int id;
+        private final String password;
+        private final String[] tags;
+        private final List<Object> children;
+        private final Map<String, Object> attributes;
+
+        private Node(int id, Node child) {
+            this.id = id;
+            this.password = "secret" + id;
+            this.tags = new String[] { "tag" + id, "other" + id };
+            this.children = new ArrayList<>();
+            this.attributes = new LinkedHashMap<>();
+            if (child != null) {
+                children.add(child);
+            }
+            attributes.put("id", id);
+            attributes.put("values", new int[] { id, id + 1 });
+        }
+    }
+}
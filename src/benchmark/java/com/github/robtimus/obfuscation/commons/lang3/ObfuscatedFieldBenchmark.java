@@ -0,0 +1,160 @@
+/*
+ * ObfuscatedFieldBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+
+/*
+ * Compares appending a single obfuscated field to a buffer that already contains some content, like a ToStringBuilder buffer for an object
+ * with several fields.
+ * The "appendThenDelete" benchmarks are how obfuscated fields used to be rendered: the value is appended to the buffer, its obfuscated form
+ * is appended after it, and the original value is deleted, which shifts (copies) everything that comes after it. The buffer also needs to
+ * grow to be able to hold the original value, which copies everything that was appended before it.
+ * The other benchmarks use the current implementation, which takes a different path depending on the obfuscator:
+ * - "fixedLength" doesn't render the value at all, as the obfuscated value does not depend on it.
+ * - "all" only counts the length of the value, as each character is replaced by the same mask character.
+ * - "portionKeepingAtMost" only retains the characters that the obfuscator keeps, and the length of the value.
+ * - "portion" renders the value in a separate reusable buffer and only appends the obfuscated value to the buffer. This is the path for all
+ *   other obfuscators.
+ * The difference should grow with the value length, and be visible in the allocation rate when run with -prof gc.
+ */
+@SuppressWarnings("javadoc")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObfuscatedFieldBenchmark {
+
+    private static final String FIELD_NAME = "payload"; //$NON-NLS-1$
+
+    // the same initial capacity that ToStringBuilder uses
+    private static final int INITIAL_CAPACITY = 512;
+
+    private static final Obfuscator FIXED_LENGTH = Obfuscator.fixedLength(3);
+    private static final Obfuscator ALL = Obfuscator.all();
+    private static final Obfuscator PORTION = Obfuscator.portion()
+            .keepAtStart(4)
+            .keepAtEnd(4)
+            .build();
+
+    @Param({ "1024", "65536" })
+    public int prefixLength;
+
+    @Param({ "16", "4096", "262144" })
+    public int valueLength;
+
+    private ObfuscatingToStringStyle fixedLengthStyle;
+    private ObfuscatingToStringStyle allStyle;
+    private ObfuscatingToStringStyle portionStyle;
+    private ObfuscatingToStringStyle portionKeepingAtMostStyle;
+
+    private String prefix;
+    private String value;
+
+    @Setup
+    public void setup() {
+        fixedLengthStyle = ObfuscatingToStringStyle.defaultStyle()
+                .withField(FIELD_NAME, FIXED_LENGTH)
+                .build();
+        allStyle = ObfuscatingToStringStyle.defaultStyle()
+                .withField(FIELD_NAME, ALL)
+                .build();
+        portionStyle = ObfuscatingToStringStyle.defaultStyle()
+                .withField(FIELD_NAME, PORTION)
+                .build();
+        portionKeepingAtMostStyle = ObfuscatingToStringStyle.defaultStyle()
+                .withField(FIELD_NAME, PORTION)
+                        .keepsAtMost(4, 4)
+                .build();
+
+        prefix = StringUtils.repeat('p', prefixLength);
+        value = StringUtils.repeat('v', valueLength);
+    }
+
+    @Benchmark
+    public int appendThenDeleteFixedLength() {
+        return appendThenDelete(FIXED_LENGTH);
+    }
+
+    @Benchmark
+    public int appendThenDeleteAll() {
+        return appendThenDelete(ALL);
+    }
+
+    @Benchmark
+    public int appendThenDeletePortion() {
+        return appendThenDelete(PORTION);
+    }
+
+    private int appendThenDelete(Obfuscator obfuscator) {
+        StringBuffer buffer = new StringBuffer(INITIAL_CAPACITY);
+        buffer.append(prefix);
+
+        int start = buffer.length();
+        buffer.append(value);
+        int end = buffer.length();
+        obfuscator.obfuscateText(buffer, start, end, buffer);
+        buffer.delete(start, end);
+
+        return buffer.length();
+    }
+
+    @Benchmark
+    public int fixedLength() {
+        return append(fixedLengthStyle);
+    }
+
+    @Benchmark
+    public int all() {
+        return append(allStyle);
+    }
+
+    @Benchmark
+    public int portion() {
+        return append(portionStyle);
+    }
+
+    @Benchmark
+    public int portionKeepingAtMost() {
+        return append(portionKeepingAtMostStyle);
+    }
+
+    private int append(ObfuscatingToStringStyle style) {
+        StringBuffer buffer = new StringBuffer(INITIAL_CAPACITY);
+        buffer.append(prefix);
+
+        style.append(buffer, FIELD_NAME, value, Boolean.TRUE);
+
+        return buffer.length();
+    }
+}
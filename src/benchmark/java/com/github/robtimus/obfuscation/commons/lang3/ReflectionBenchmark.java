@@ -0,0 +1,102 @@
+/*
+ * ReflectionBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+
+/*
+ * Compares formatting a graph of nested objects using ToStringBuilder.reflectionToString, which uses a ReflectionToStringBuilder for the
+ * outer object, with ObfuscatingToStringStyle.reflectionToString, which uses fields and getters that are cached per class.
+ * Nested objects are formatted using the cached fields and getters in both cases.
+ */
+@SuppressWarnings({ "javadoc", "nls" })
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionBenchmark {
+
+    @Param({ "1", "8" })
+    public int depth;
+
+    @Param({ "recursiveStyle", "multiLineRecursiveStyle" })
+    public String style;
+
+    private ObfuscatingToStringStyle toStringStyle;
+
+    private Node node;
+
+    @Setup
+    public void setup() {
+        ObfuscatingToStringStyle.Builder builder = "recursiveStyle".equals(style)
+                ? ObfuscatingToStringStyle.recursiveStyle()
+                : ObfuscatingToStringStyle.multiLineRecursiveStyle();
+        toStringStyle = builder
+                .withField("password", Obfuscator.fixedLength(3))
+                .build();
+
+        for (int i = 0; i < depth; i++) {
+            node = new Node(i, node);
+        }
+    }
+
+    @Benchmark
+    public String reflectionToStringBuilder() {
+        return ToStringBuilder.reflectionToString(node, toStringStyle);
+    }
+
+    @Benchmark
+    public String obfuscatingToStringStyle() {
+        return toStringStyle.reflectionToString(node);
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Node {
+
+        private final int id;
+        private final String name;
+        private final String password;
+        private final long created;
+        private final boolean active;
+        private final Node child;
+
+        private Node(int id, Node child) {
+            this.id = id;
+            this.name = "node" + id;
+            this.password = "secret" + id;
+            this.created = System.currentTimeMillis();
+            this.active = id % 2 == 0;
+            this.child = child;
+        }
+    }
+}
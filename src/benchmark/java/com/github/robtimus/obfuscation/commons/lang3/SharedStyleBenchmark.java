@@ -0,0 +1,125 @@
+/*
+ * SharedStyleBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+
+/*
+ * Measures how formatting objects with a shared style scales with the number of threads that use it at the same time.
+ * "shared" uses one shared style for all threads, and "threadLocal" uses one obfuscating style per thread, which involves no contention at all.
+ * Each is run with 1, 4 and 16 threads; the reported throughput is that of all threads together. The throughput of "shared" should grow with the
+ * number of threads the same way the throughput of "threadLocal" does, up to the number of available processors.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="SharedStyleBenchmark"
+ */
+@SuppressWarnings({ "javadoc", "nls" })
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedStyleBenchmark {
+
+    private static final int FIELD_COUNT = 16;
+
+    private ToStringStyle sharedStyle;
+    private ThreadLocal<ObfuscatingToStringStyle> threadLocalStyles;
+
+    private Object object;
+    private String[] fieldNames;
+    private String[] fieldValues;
+
+    @Setup
+    public void setup() {
+        fieldNames = new String[FIELD_COUNT];
+        fieldValues = new String[FIELD_COUNT];
+
+        Builder builder = ObfuscatingToStringStyle.defaultStyle();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fieldNames[i] = "field" + i;
+            fieldValues[i] = "value" + i;
+            if (i % 4 == 0) {
+                builder = builder.withField(fieldNames[i], Obfuscator.fixedLength(3));
+            }
+        }
+        sharedStyle = builder.buildShared();
+        threadLocalStyles = ThreadLocal.withInitial(builder.supplier());
+
+        object = new Object();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String shared1Thread() {
+        return toString(sharedStyle);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String shared4Threads() {
+        return toString(sharedStyle);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String shared16Threads() {
+        return toString(sharedStyle);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String threadLocal1Thread() {
+        return toString(threadLocalStyles.get());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String threadLocal4Threads() {
+        return toString(threadLocalStyles.get());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String threadLocal16Threads() {
+        return toString(threadLocalStyles.get());
+    }
+
+    private String toString(ToStringStyle toStringStyle) {
+        ToStringBuilder builder = new ToStringBuilder(object, toStringStyle);
+        for (int i = 0; i < fieldNames.length; i++) {
+            builder.append(fieldNames[i], fieldValues[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * ToStringStyleBenchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle;
+import org.apache.commons.lang3.builder.RecursiveToStringStyle;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.support.CaseSensitivity;
+
+/*
+ * Compares each of the obfuscating styles with the commons-lang style that it mimics.
+ * "commonsLang" uses the commons-lang style, "obfuscating" uses an obfuscating style that is reused by the thread, and "obfuscatingFromSupplier"
+ * gets a new obfuscating style from a supplier for each object, as recommended for shared styles.
+ * The other parameters only apply to the obfuscating styles:
+ * - fieldCount is the number of appended fields.
+ * - obfuscatedPercentage is the percentage of fields that are obfuscated.
+ * - valueLength is the length of each field value.
+ * - caseSensitivity determines how the obfuscated field names are configured. For CASE_INSENSITIVE, the configured names differ in case from the
+ *   appended names.
+ *
+ * The full matrix takes a long time; use -p to select parameter values, e.g.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="ToStringStyleBenchmark -p style=defaultStyle -p valueLength=8 -prof gc"
+ */
+@SuppressWarnings({ "javadoc", "nls" })
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToStringStyleBenchmark {
+
+    @Param({ "defaultStyle", "multiLineStyle", "noFieldNamesStyle", "shortPrefixStyle", "simpleStyle", "noClassNameStyle", "recursiveStyle",
+            "multiLineRecursiveStyle" })
+    public String style;
+
+    @Param({ "4", "32" })
+    public int fieldCount;
+
+    @Param({ "0", "50", "100" })
+    public int obfuscatedPercentage;
+
+    @Param({ "8", "512" })
+    public int valueLength;
+
+    @Param({ "CASE_SENSITIVE", "CASE_INSENSITIVE" })
+    public CaseSensitivity caseSensitivity;
+
+    private ToStringStyle commonsLangStyle;
+    private ObfuscatingToStringStyle obfuscatingStyle;
+    private Supplier<ObfuscatingToStringStyle> obfuscatingStyleSupplier;
+
+    private Object object;
+    private String[] fieldNames;
+    private String[] fieldValues;
+
+    @Setup
+    public void setup() {
+        commonsLangStyle = commonsLangStyle(style);
+
+        fieldNames = new String[fieldCount];
+        fieldValues = new String[fieldCount];
+
+        Builder builder = obfuscatingStyleBuilder(style);
+        for (int i = 0; i < fieldCount; i++) {
+            fieldNames[i] = "field" + i;
+            fieldValues[i] = StringUtils.repeat((char) ('a' + i % 26), valueLength);
+            // spreads the obfuscated fields evenly over all fields
+            if (i * obfuscatedPercentage / 100 != (i + 1) * obfuscatedPercentage / 100) {
+                String configuredName = caseSensitivity == CaseSensitivity.CASE_SENSITIVE ? fieldNames[i] : fieldNames[i].toUpperCase(Locale.ROOT);
+                builder = builder.withField(configuredName, Obfuscator.fixedLength(3), caseSensitivity);
+            }
+        }
+        obfuscatingStyle = builder.build();
+        obfuscatingStyleSupplier = builder.supplier();
+
+        object = new Object();
+    }
+
+    private static ToStringStyle commonsLangStyle(String style) {
+        switch (style) {
+            case "defaultStyle":
+                return ToStringStyle.DEFAULT_STYLE;
+            case "multiLineStyle":
+                return ToStringStyle.MULTI_LINE_STYLE;
+            case "noFieldNamesStyle":
+                return ToStringStyle.NO_FIELD_NAMES_STYLE;
+            case "shortPrefixStyle":
+                return ToStringStyle.SHORT_PREFIX_STYLE;
+            case "simpleStyle":
+                return ToStringStyle.SIMPLE_STYLE;
+            case "noClassNameStyle":
+                return ToStringStyle.NO_CLASS_NAME_STYLE;
+            case "recursiveStyle":
+                return new RecursiveToStringStyle();
+            case "multiLineRecursiveStyle":
+                return new MultilineRecursiveToStringStyle();
+            default:
+                throw new IllegalArgumentException(style);
+        }
+    }
+
+    private static Builder obfuscatingStyleBuilder(String style) {
+        switch (style) {
+            case "defaultStyle":
+                return ObfuscatingToStringStyle.defaultStyle();
+            case "multiLineStyle":
+                return ObfuscatingToStringStyle.multiLineStyle();
+            case "noFieldNamesStyle":
+                return ObfuscatingToStringStyle.noFieldNamesStyle();
+            case "shortPrefixStyle":
+                return ObfuscatingToStringStyle.shortPrefixStyle();
+            case "simpleStyle":
+                return ObfuscatingToStringStyle.simpleStyle();
+            case "noClassNameStyle":
+                return ObfuscatingToStringStyle.noClassNameStyle();
+            case "recursiveStyle":
+                return ObfuscatingToStringStyle.recursiveStyle();
+            case "multiLineRecursiveStyle":
+                return ObfuscatingToStringStyle.multiLineRecursiveStyle();
+            default:
+                throw new IllegalArgumentException(style);
+        }
+    }
+
+    @Benchmark
+    public String commonsLang() {
+        return toString(commonsLangStyle);
+    }
+
+    @Benchmark
+    public String obfuscating() {
+        return toString(obfuscatingStyle);
+    }
+
+    @Benchmark
+    public String obfuscatingFromSupplier() {
+        return toString(obfuscatingStyleSupplier.get());
+    }
+
+    private String toString(ToStringStyle toStringStyle) {
+        ToStringBuilder builder = new ToStringBuilder(object, toStringStyle);
+        for (int i = 0; i < fieldNames.length; i++) {
+            builder.append(fieldNames[i], fieldValues[i]);
+        }
+        return builder.toString();
+    }
+}
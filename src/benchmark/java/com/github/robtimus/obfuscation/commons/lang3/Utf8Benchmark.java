@@ -0,0 +1,128 @@
+/*
+ * Utf8Benchmark.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.github.robtimus.obfuscation.Obfuscator;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.ByteBufferFullHandler;
+
+/*
+ * Compares encoding the result of reflectionToString to UTF-8 with writing UTF-8 directly into a ByteBuffer.
+ * "stringGetBytes" creates a String and then a byte array, "utf8" writes into a buffer that is reused, and flushed whenever it is full.
+ * If "ascii" is false, about half of the characters of the string values are not ASCII characters.
+ * Use -prof gc to compare allocations, e.g.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="Utf8Benchmark -prof gc"
+ */
+@SuppressWarnings({ "javadoc", "nls" })
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Utf8Benchmark {
+
+    @Param({ "10", "1000" })
+    public int itemCount;
+
+    @Param({ "true", "false" })
+    public boolean ascii;
+
+    @Param({ "false", "true" })
+    public boolean direct;
+
+    private ObfuscatingToStringStyle obfuscatingStyle;
+
+    private ByteBuffer buffer;
+    private ByteBufferFullHandler flushHandler;
+    private long flushedBytes;
+
+    private Order order;
+
+    @Setup
+    public void setup() {
+        obfuscatingStyle = ObfuscatingToStringStyle.recursiveStyle()
+                .withField("cardNumber", Obfuscator.portion().keepAtEnd(4).build())
+                .build();
+
+        buffer = direct ? ByteBuffer.allocateDirect(4096) : ByteBuffer.allocate(4096);
+        // simulates handing off the content of the buffer
+        flushHandler = b -> {
+            flushedBytes += b.position();
+            b.clear();
+            return b;
+        };
+
+        order = new Order(itemCount, ascii ? "item" : "élémént");
+    }
+
+    @Benchmark
+    public byte[] stringGetBytes() {
+        return obfuscatingStyle.reflectionToString(order).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long utf8() throws IOException {
+        buffer.clear();
+        flushedBytes = 0;
+        ByteBuffer result = obfuscatingStyle.reflectionToUtf8(order, buffer, flushHandler);
+        return flushedBytes + result.position();
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Order {
+
+        private final String cardNumber = "1234567890123456";
+        private final List<Item> items;
+
+        private Order(int itemCount, String name) {
+            items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(new Item(name + i, i));
+            }
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Item {
+
+        private final String name;
+        private final int quantity;
+
+        private Item(String name, int quantity) {
+            this.name = name;
+            this.quantity = quantity;
+        }
+    }
+}
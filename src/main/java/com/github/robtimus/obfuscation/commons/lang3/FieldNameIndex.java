@@ -0,0 +1,276 @@
+/*
+ * FieldNameIndex.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Map;
+
+/**
+ * An immutable lookup structure for values by field name, compiled from a fixed set of case sensitive and case insensitive field names.
+ * <p>
+ * Case sensitive names are stored in an open-addressing hash table. When compiled, table sizes up to 8 times the number of names are tried
+ * until one is found in which no two names share a slot, which makes it a perfect hash table for those names.
+ * Case insensitive names are stored in a similar table, using a hash code of the case-folded name that is computed without creating new
+ * strings. Exact (case sensitive) matches take precedence over case insensitive matches.
+ * <p>
+ * Looking up values never creates any objects.
+ * <p>
+ * For each class, the slots of its {@link ReflectedFields reflected fields} are cached. Only the slots are cached, and not the values
+ * themselves, so the cache does not keep any values or their class loaders reachable from the class.
+ *
+ * @author Rob Spoor
+ * @param <V> The type of values.
+ */
+final class FieldNameIndex<V> {
+
+    private static final FieldNameIndex<?> EMPTY = new FieldNameIndex<>(Table.EMPTY, Table.EMPTY);
+
+    private static final int MIN_LOAD_FACTOR_DIVISOR = 2;
+    private static final int MAX_LOAD_FACTOR_DIVISOR = 8;
+
+    private final Table caseSensitive;
+    private final Table caseInsensitive;
+
+    private final ClassValue<int[]> reflectedFieldSlots;
+
+    private FieldNameIndex(Table caseSensitive, Table caseInsensitive) {
+        this.caseSensitive = caseSensitive;
+        this.caseInsensitive = caseInsensitive;
+
+        this.reflectedFieldSlots = new ClassValue<int[]>() {
+            @Override
+            protected int[] computeValue(Class<?> type) {
+                ReflectedFields reflectedFields = ReflectedFields.of(type);
+                int[] slots = new int[reflectedFields.size()];
+                for (int i = 0; i < slots.length; i++) {
+                    slots[i] = slotOf(reflectedFields.name(i));
+                }
+                return slots;
+            }
+        };
+    }
+
+    /**
+     * Compiles a new index.
+     *
+     * @param <V> The type of values.
+     * @param caseSensitiveValues The values for case sensitive field names.
+     * @param caseInsensitiveValues The values for case insensitive field names. These must already be unique when compared case insensitively.
+     * @return The compiled index.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> FieldNameIndex<V> compile(Map<String, ? extends V> caseSensitiveValues, Map<String, ? extends V> caseInsensitiveValues) {
+        if (caseSensitiveValues.isEmpty() && caseInsensitiveValues.isEmpty()) {
+            return (FieldNameIndex<V>) EMPTY;
+        }
+        return new FieldNameIndex<>(Table.compile(caseSensitiveValues, true), Table.compile(caseInsensitiveValues, false));
+    }
+
+    /**
+     * Returns the value for a field name.
+     *
+     * @param fieldName The name of the field; may be {@code null}.
+     * @return The value for the given field name, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    V get(String fieldName) {
+        if (fieldName == null) {
+            return null;
+        }
+        Object value = caseSensitive.get(fieldName, fieldName.hashCode(), true);
+        if (value == null && caseInsensitive.size != 0) {
+            value = caseInsensitive.get(fieldName, caseInsensitiveHashCode(fieldName), false);
+        }
+        return (V) value;
+    }
+
+    /**
+     * Returns the slot of a field name. This can be used to cache lookups without having to retain the looked up values.
+     *
+     * @param fieldName The name of the field; may be {@code null}.
+     * @return The slot of the given field name, or {@code -1} if there is no value for the field name.
+     * @see #valueAt(int)
+     */
+    int slotOf(String fieldName) {
+        if (fieldName == null) {
+            return -1;
+        }
+        int slot = caseSensitive.slotOf(fieldName, fieldName.hashCode(), true);
+        if (slot == -1 && caseInsensitive.size != 0) {
+            slot = caseInsensitive.slotOf(fieldName, caseInsensitiveHashCode(fieldName), false);
+            if (slot != -1) {
+                slot += caseSensitive.keys.length;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the value for a slot.
+     *
+     * @param slot The slot, as returned by {@link #slotOf(String)}.
+     * @return The value for the given slot, or {@code null} if the slot is {@code -1}.
+     */
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        if (slot == -1) {
+            return null;
+        }
+        int caseSensitiveLength = caseSensitive.keys.length;
+        return (V) (slot < caseSensitiveLength ? caseSensitive.values[slot] : caseInsensitive.values[slot - caseSensitiveLength]);
+    }
+
+    /**
+     * Returns the slots of the {@link ReflectedFields reflected fields} of a class.
+     *
+     * @param type The class to return the slots of the reflected fields of.
+     * @return An array with for each of the {@link ReflectedFields reflected fields} of the given class its slot, or {@code -1} if there is no
+     *         value for the field. The array must not be modified.
+     * @see #slotOf(String)
+     */
+    int[] slotsOfReflectedFields(Class<?> type) {
+        return reflectedFieldSlots.get(type);
+    }
+
+    /**
+     * Returns whether or not this index is empty.
+     *
+     * @return {@code true} if this index contains no field names, or {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return caseSensitive.size == 0 && caseInsensitive.size == 0;
+    }
+
+    static int caseInsensitiveHashCode(String s) {
+        // String.equalsIgnoreCase considers code points equal if their upper case or lower case representations are equal.
+        // Converting to upper case first, and then to lower case, folds all such code points to the same value.
+        int hash = 0;
+        for (int i = 0, length = s.length(); i < length; ) {
+            int codePoint = s.codePointAt(i);
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(codePoint));
+            i += Character.charCount(codePoint);
+        }
+        return hash;
+    }
+
+    private static final class Table {
+
+        private static final Table EMPTY = new Table(new String[2], new int[2], new Object[2], 0);
+
+        private final String[] keys;
+        private final int[] hashes;
+        private final Object[] values;
+        private final int shift;
+        private final int mask;
+        private final int size;
+
+        private Table(String[] keys, int[] hashes, Object[] values, int size) {
+            this.keys = keys;
+            this.hashes = hashes;
+            this.values = values;
+            this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(keys.length);
+            this.mask = keys.length - 1;
+            this.size = size;
+        }
+
+        private static Table compile(Map<String, ?> values, boolean caseSensitive) {
+            if (values.isEmpty()) {
+                return EMPTY;
+            }
+
+            int size = values.size();
+            String[] names = values.keySet().toArray(new String[size]);
+            int[] hashes = new int[size];
+            for (int i = 0; i < size; i++) {
+                hashes[i] = caseSensitive ? names[i].hashCode() : caseInsensitiveHashCode(names[i]);
+            }
+
+            int minCapacity = tableCapacity(size * MIN_LOAD_FACTOR_DIVISOR);
+            int maxCapacity = tableCapacity(size * MAX_LOAD_FACTOR_DIVISOR);
+            for (int capacity = minCapacity; capacity <= maxCapacity; capacity <<= 1) {
+                if (isCollisionFree(hashes, capacity)) {
+                    return fill(names, hashes, values, capacity);
+                }
+            }
+            // no perfect hash table within the allowed sizes; use the smallest one with linear probing
+            return fill(names, hashes, values, minCapacity);
+        }
+
+        private static int tableCapacity(int minCapacity) {
+            // at least 2, so shift is never 32
+            return Math.max(2, Integer.highestOneBit(minCapacity - 1) << 1);
+        }
+
+        private static boolean isCollisionFree(int[] hashes, int capacity) {
+            int shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+            boolean[] used = new boolean[capacity];
+            for (int hash : hashes) {
+                int index = index(hash, shift);
+                if (used[index]) {
+                    return false;
+                }
+                used[index] = true;
+            }
+            return true;
+        }
+
+        private static Table fill(String[] names, int[] hashes, Map<String, ?> values, int capacity) {
+            String[] tableKeys = new String[capacity];
+            int[] tableHashes = new int[capacity];
+            Object[] tableValues = new Object[capacity];
+            int shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < names.length; i++) {
+                int index = index(hashes[i], shift);
+                while (tableKeys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                tableKeys[index] = names[i];
+                tableHashes[index] = hashes[i];
+                tableValues[index] = values.get(names[i]);
+            }
+            return new Table(tableKeys, tableHashes, tableValues, names.length);
+        }
+
+        private static int index(int hash, int shift) {
+            // Fibonacci hashing; uses the high bits of the product, which depend on all bits of the hash
+            return (hash * 0x9E3779B9) >>> shift;
+        }
+
+        private Object get(String name, int hash, boolean caseSensitive) {
+            int slot = slotOf(name, hash, caseSensitive);
+            return slot == -1 ? null : values[slot];
+        }
+
+        private int slotOf(String name, int hash, boolean caseSensitive) {
+            int index = index(hash, shift);
+            String key;
+            while ((key = keys[index]) != null) {
+                if (hashes[index] == hash && matches(key, name, caseSensitive)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static boolean matches(String key, String name, boolean caseSensitive) {
+            // field names are often the same (interned) instances that were used to configure the index
+            return key == name || (caseSensitive ? key.equals(name) : key.equalsIgnoreCase(name));
+        }
+    }
+}
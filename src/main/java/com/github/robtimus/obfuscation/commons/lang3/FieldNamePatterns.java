@@ -0,0 +1,417 @@
+/*
+ * FieldNamePatterns.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable lookup structure for values by field name, compiled from glob patterns. In these patterns, {@code *} matches any number of
+ * characters, {@code ?} matches exactly one character, and {@code \} escapes the next character. Patterns must match entire field names.
+ * <p>
+ * All patterns are compiled into one deterministic finite automaton, so matching a field name takes one table lookup per character, regardless
+ * of the number of patterns. If multiple patterns match a field name, the value of the pattern that was added first is returned.
+ * Results are cached per field name, up to a maximum number of field names.
+ *
+ * @author Rob Spoor
+ * @param <V> The type of values.
+ */
+final class FieldNamePatterns<V> {
+
+    private static final FieldNamePatterns<?> EMPTY = new FieldNamePatterns<>();
+
+    private static final int STAR = -1;
+    private static final int ANY = -2;
+
+    private static final int DEAD_STATE = -1;
+    private static final int NO_RULE = -1;
+
+    // symbol 0 is used for all characters that do not occur in any of the patterns
+    private static final int OTHER_SYMBOL = 0;
+    private static final int ASCII_SIZE = 128;
+
+    // field names are usually constants, but they can be anything; don't let the cache grow without limit
+    private static final int MAX_CACHED_FIELD_NAMES = 1024;
+
+    private static final Object NO_VALUE = new Object();
+
+    private final int[] asciiSymbols;
+    private final char[] nonAsciiChars;
+    private final int[] nonAsciiSymbols;
+    private final int symbolCount;
+
+    private final int[] transitions;
+    private final int[] acceptingRules;
+    private final Object[] values;
+
+    private final Map<String, Object> cache;
+
+    private FieldNamePatterns() {
+        asciiSymbols = new int[ASCII_SIZE];
+        nonAsciiChars = new char[0];
+        nonAsciiSymbols = new int[0];
+        symbolCount = 1;
+
+        transitions = new int[] { DEAD_STATE };
+        acceptingRules = new int[] { NO_RULE };
+        values = new Object[0];
+
+        cache = Collections.emptyMap();
+    }
+
+    private FieldNamePatterns(List<? extends Rule<? extends V>> rules) {
+        int ruleCount = rules.size();
+        int[][] tokens = new int[ruleCount][];
+        boolean[] caseSensitive = new boolean[ruleCount];
+        values = new Object[ruleCount];
+        for (int r = 0; r < ruleCount; r++) {
+            Rule<? extends V> rule = rules.get(r);
+            tokens[r] = tokenize(rule.pattern);
+            caseSensitive[r] = rule.caseSensitive;
+            values[r] = rule.value;
+        }
+
+        char[] symbolChars = symbolChars(tokens, caseSensitive);
+        symbolCount = symbolChars.length + 1;
+
+        asciiSymbols = new int[ASCII_SIZE];
+        int nonAsciiCount = 0;
+        for (char c : symbolChars) {
+            if (c >= ASCII_SIZE) {
+                nonAsciiCount++;
+            }
+        }
+        nonAsciiChars = new char[nonAsciiCount];
+        nonAsciiSymbols = new int[nonAsciiCount];
+        for (int i = 0, n = 0; i < symbolChars.length; i++) {
+            char c = symbolChars[i];
+            if (c < ASCII_SIZE) {
+                asciiSymbols[c] = i + 1;
+            } else {
+                // symbolChars is sorted, so nonAsciiChars is sorted as well
+                nonAsciiChars[n] = c;
+                nonAsciiSymbols[n] = i + 1;
+                n++;
+            }
+        }
+
+        Automaton automaton = new Automaton(tokens, caseSensitive, symbolChars);
+        transitions = automaton.transitions();
+        acceptingRules = automaton.acceptingRules();
+
+        cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Compiles new patterns.
+     *
+     * @param <V> The type of values.
+     * @param rules The rules to compile, in order of precedence.
+     * @return The compiled patterns.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> FieldNamePatterns<V> compile(List<? extends Rule<? extends V>> rules) {
+        if (rules.isEmpty()) {
+            return (FieldNamePatterns<V>) EMPTY;
+        }
+        return new FieldNamePatterns<>(rules);
+    }
+
+    /**
+     * Returns the value for a field name.
+     *
+     * @param fieldName The name of the field; may be {@code null}.
+     * @return The value of the first pattern that matches the given field name, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    V get(String fieldName) {
+        if (fieldName == null || values.length == 0) {
+            return null;
+        }
+        Object value = cache.get(fieldName);
+        if (value == null) {
+            value = match(fieldName);
+            if (cache.size() < MAX_CACHED_FIELD_NAMES) {
+                cache.put(fieldName, value);
+            }
+        }
+        return value == NO_VALUE ? null : (V) value;
+    }
+
+    private Object match(String fieldName) {
+        int state = 0;
+        for (int i = 0, length = fieldName.length(); i < length && state != DEAD_STATE; i++) {
+            state = transitions[state * symbolCount + symbolOf(fieldName.charAt(i))];
+        }
+        if (state == DEAD_STATE) {
+            return NO_VALUE;
+        }
+        int rule = acceptingRules[state];
+        return rule == NO_RULE ? NO_VALUE : values[rule];
+    }
+
+    private int symbolOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiSymbols[c];
+        }
+        int index = Arrays.binarySearch(nonAsciiChars, c);
+        return index >= 0 ? nonAsciiSymbols[index] : OTHER_SYMBOL;
+    }
+
+    /**
+     * Returns whether or not these patterns are empty.
+     *
+     * @return {@code true} if there are no patterns, or {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Validates a pattern.
+     *
+     * @param pattern The pattern to validate.
+     * @throws NullPointerException If the given pattern is {@code null}.
+     * @throws IllegalArgumentException If the given pattern ends with an escape character.
+     */
+    static void validate(String pattern) {
+        tokenize(pattern);
+    }
+
+    // literal characters are stored as themselves; STAR and ANY are negative so they can never clash with characters
+    private static int[] tokenize(String pattern) {
+        int[] tokens = new int[pattern.length()];
+        int count = 0;
+        for (int i = 0, length = pattern.length(); i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                if (++i == length) {
+                    throw new IllegalArgumentException("Invalid field name pattern: " + pattern); //$NON-NLS-1$
+                }
+                tokens[count++] = pattern.charAt(i);
+            } else if (c == '*') {
+                // consecutive stars are the same as one
+                if (count == 0 || tokens[count - 1] != STAR) {
+                    tokens[count++] = STAR;
+                }
+            } else if (c == '?') {
+                tokens[count++] = ANY;
+            } else {
+                tokens[count++] = c;
+            }
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    /*
+     * Returns all characters that can be matched by literal characters in the patterns, sorted.
+     * For case insensitive patterns, these include all characters that are equal to the literal characters when case is ignored.
+     */
+    private static char[] symbolChars(int[][] tokens, boolean[] caseSensitive) {
+        TreeSet<Character> chars = new TreeSet<>();
+        BitSet foldedChars = new BitSet();
+        for (int r = 0; r < tokens.length; r++) {
+            for (int token : tokens[r]) {
+                if (token >= 0) {
+                    chars.add((char) token);
+                    if (!caseSensitive[r]) {
+                        foldedChars.set(fold((char) token));
+                    }
+                }
+            }
+        }
+        if (!foldedChars.isEmpty()) {
+            for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+                if (foldedChars.get(fold((char) c))) {
+                    chars.add((char) c);
+                }
+            }
+        }
+        char[] result = new char[chars.size()];
+        int i = 0;
+        for (Character c : chars) {
+            result[i++] = c;
+        }
+        return result;
+    }
+
+    private static char fold(char c) {
+        // the same as String.regionMatches with ignoreCase set to true
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * A pattern with its value.
+     *
+     * @author Rob Spoor
+     * @param <V> The type of value.
+     */
+    static final class Rule<V> {
+
+        private final String pattern;
+        private final boolean caseSensitive;
+        private final V value;
+
+        Rule(String pattern, boolean caseSensitive, V value) {
+            this.pattern = Objects.requireNonNull(pattern);
+            this.caseSensitive = caseSensitive;
+            this.value = Objects.requireNonNull(value);
+        }
+
+        boolean hasPattern(String otherPattern, boolean otherCaseSensitive) {
+            return pattern.equals(otherPattern) && caseSensitive == otherCaseSensitive;
+        }
+    }
+
+    /*
+     * Creates a deterministic finite automaton from the patterns using subset construction.
+     * Each state of the non-deterministic automaton is a position in one of the patterns; a position at the end of a pattern is accepting.
+     */
+    private static final class Automaton {
+
+        private final int[][] tokens;
+        private final boolean[] caseSensitive;
+        private final char[] symbolChars;
+
+        // the index of the first non-deterministic state of each pattern
+        private final int[] offsets;
+
+        private final Map<BitSet, Integer> stateIndexes = new HashMap<>();
+        private final List<BitSet> states = new ArrayList<>();
+
+        private Automaton(int[][] tokens, boolean[] caseSensitive, char[] symbolChars) {
+            this.tokens = tokens;
+            this.caseSensitive = caseSensitive;
+            this.symbolChars = symbolChars;
+
+            offsets = new int[tokens.length];
+            for (int r = 1; r < tokens.length; r++) {
+                offsets[r] = offsets[r - 1] + tokens[r - 1].length + 1;
+            }
+        }
+
+        private int[] transitions() {
+            int symbolCount = symbolChars.length + 1;
+
+            BitSet initial = new BitSet();
+            for (int r = 0; r < tokens.length; r++) {
+                addWithClosure(initial, r, 0);
+            }
+            stateIndex(initial);
+
+            List<int[]> rows = new ArrayList<>();
+            Deque<Integer> pending = new ArrayDeque<>();
+            pending.add(0);
+            while (!pending.isEmpty()) {
+                int index = pending.remove();
+                int[] row = new int[symbolCount];
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    BitSet next = next(states.get(index), symbol);
+                    if (next.isEmpty()) {
+                        row[symbol] = DEAD_STATE;
+                    } else {
+                        int size = states.size();
+                        row[symbol] = stateIndex(next);
+                        if (states.size() > size) {
+                            pending.add(row[symbol]);
+                        }
+                    }
+                }
+                while (rows.size() <= index) {
+                    rows.add(null);
+                }
+                rows.set(index, row);
+            }
+
+            int[] result = new int[states.size() * symbolCount];
+            for (int i = 0; i < rows.size(); i++) {
+                System.arraycopy(rows.get(i), 0, result, i * symbolCount, symbolCount);
+            }
+            return result;
+        }
+
+        private int[] acceptingRules() {
+            int[] result = new int[states.size()];
+            for (int i = 0; i < result.length; i++) {
+                BitSet state = states.get(i);
+                result[i] = NO_RULE;
+                for (int r = 0; r < tokens.length; r++) {
+                    if (state.get(offsets[r] + tokens[r].length)) {
+                        result[i] = r;
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private int stateIndex(BitSet state) {
+            return stateIndexes.computeIfAbsent(state, s -> {
+                states.add(s);
+                return states.size() - 1;
+            });
+        }
+
+        private BitSet next(BitSet state, int symbol) {
+            BitSet next = new BitSet();
+            for (int r = 0; r < tokens.length; r++) {
+                int[] ruleTokens = tokens[r];
+                for (int position = 0; position < ruleTokens.length; position++) {
+                    if (state.get(offsets[r] + position)) {
+                        int token = ruleTokens[position];
+                        if (token == STAR) {
+                            addWithClosure(next, r, position);
+                        } else if (token == ANY || matches(token, symbol, caseSensitive[r])) {
+                            addWithClosure(next, r, position + 1);
+                        }
+                    }
+                }
+            }
+            return next;
+        }
+
+        private boolean matches(int token, int symbol, boolean ruleCaseSensitive) {
+            if (symbol == OTHER_SYMBOL) {
+                return false;
+            }
+            char c = symbolChars[symbol - 1];
+            return ruleCaseSensitive ? c == token : fold(c) == fold((char) token);
+        }
+
+        private void addWithClosure(BitSet state, int rule, int position) {
+            int[] ruleTokens = tokens[rule];
+            int current = position;
+            state.set(offsets[rule] + current);
+            // a star can also match no characters at all
+            while (current < ruleTokens.length && ruleTokens[current] == STAR) {
+                current++;
+                state.set(offsets[rule] + current);
+            }
+        }
+    }
+}
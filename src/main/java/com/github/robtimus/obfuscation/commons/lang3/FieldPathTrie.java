@@ -0,0 +1,129 @@
+/*
+ * FieldPathTrie.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable trie of values by dotted field path, e.g. {@code customer.address.street}. Each node of the trie represents a field path;
+ * the root represents the empty path.
+ * <p>
+ * Field paths are matched one field name at a time, while descending into nested objects. The children of each node are stored in a
+ * {@link FieldNameIndex}, so finding the node for the next field name never creates any objects, regardless of the length of the path.
+ * Field names are matched case sensitively.
+ *
+ * @author Rob Spoor
+ * @param <V> The type of values.
+ */
+final class FieldPathTrie<V> {
+
+    private static final FieldPathTrie<?> EMPTY = new FieldPathTrie<>(FieldNameIndex.compile(Collections.emptyMap(), Collections.emptyMap()), null);
+
+    private final FieldNameIndex<FieldPathTrie<V>> children;
+    private final V value;
+
+    private FieldPathTrie(FieldNameIndex<FieldPathTrie<V>> children, V value) {
+        this.children = children;
+        this.value = value;
+    }
+
+    /**
+     * Compiles a new trie.
+     *
+     * @param <V> The type of values.
+     * @param values The values for field paths. Each path must consist of one or more non-empty field names, separated by dots.
+     * @return The root of the compiled trie.
+     * @throws IllegalArgumentException If any of the field paths is invalid.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> FieldPathTrie<V> compile(Map<String, ? extends V> values) {
+        if (values.isEmpty()) {
+            return (FieldPathTrie<V>) EMPTY;
+        }
+        Node<V> root = new Node<>();
+        for (Map.Entry<String, ? extends V> entry : values.entrySet()) {
+            Node<V> node = root;
+            for (String fieldName : split(entry.getKey())) {
+                node = node.children.computeIfAbsent(fieldName, k -> new Node<>());
+            }
+            node.value = entry.getValue();
+        }
+        return root.compile();
+    }
+
+    /**
+     * Splits a field path into its field names.
+     *
+     * @param path The field path to split.
+     * @return The field names of the given field path.
+     * @throws IllegalArgumentException If the given field path is invalid.
+     */
+    static String[] split(String path) {
+        String[] fieldNames = path.split("\\.", -1); //$NON-NLS-1$
+        for (String fieldName : fieldNames) {
+            if (fieldName.isEmpty()) {
+                throw new IllegalArgumentException("Invalid field path: " + path); //$NON-NLS-1$
+            }
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Returns the node for the field path of this node followed by a field name.
+     *
+     * @param fieldName The field name to append to the field path of this node.
+     * @return The node for the resulting field path, or {@code null} if no field path starts with the resulting field path.
+     */
+    FieldPathTrie<V> child(String fieldName) {
+        return children.get(fieldName);
+    }
+
+    /**
+     * Returns the value for the field path of this node.
+     *
+     * @return The value for the field path of this node, or {@code null} if there is none.
+     */
+    V value() {
+        return value;
+    }
+
+    /**
+     * Returns whether or not this node has any children.
+     *
+     * @return {@code true} if this node has no children, or {@code false} otherwise.
+     */
+    boolean isLeaf() {
+        return children.isEmpty();
+    }
+
+    private static final class Node<V> {
+
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private V value;
+
+        private FieldPathTrie<V> compile() {
+            Map<String, FieldPathTrie<V>> compiledChildren = new HashMap<>();
+            for (Map.Entry<String, Node<V>> entry : children.entrySet()) {
+                compiledChildren.put(entry.getKey(), entry.getValue().compile());
+            }
+            return new FieldPathTrie<>(FieldNameIndex.compile(compiledChildren, Collections.emptyMap()), value);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * IdentityRegistry.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A registry of objects that are being formatted, used to detect cycles. Objects are compared by identity.
+ * <p>
+ * This is a replacement for the registry of {@link org.apache.commons.lang3.builder.ToStringStyle ToStringStyle}, which is stored in a
+ * {@link ThreadLocal}, and which creates a new {@link java.util.WeakHashMap WeakHashMap} every time an object is formatted.
+ * Instances of this class are owned by a single style and can be reused, because all objects are removed again when formatting ends.
+ * Objects are stored in an open addressing hash table with linear probing, so no objects are created when objects are added or removed.
+ * <p>
+ * Instances of this class are not thread safe.
+ *
+ * @author Rob Spoor
+ */
+final class IdentityRegistry {
+
+    // must be a power of 2
+    private static final int INITIAL_CAPACITY = 16;
+    // the maximum capacity that is kept when the registry is cleared; larger tables are discarded, so a single deep object graph doesn't keep one
+    private static final int MAX_RETAINED_CAPACITY = 256;
+
+    private Object[] table;
+    private int size;
+
+    IdentityRegistry() {
+        table = new Object[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Returns whether or not an object is registered.
+     *
+     * @param object The object to check.
+     * @return {@code true} if the given object is registered, or {@code false} otherwise.
+     */
+    boolean contains(Object object) {
+        if (object == null || size == 0) {
+            return false;
+        }
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        for (int i = indexOf(object, mask); tab[i] != null; i = (i + 1) & mask) {
+            if (tab[i] == object) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers an object. This method does nothing if the object is {@code null} or is already registered.
+     *
+     * @param object The object to register.
+     */
+    void add(Object object) {
+        if (object == null) {
+            return;
+        }
+        // keep the load factor at most 0.5, so probe sequences remain short
+        if ((size + 1) * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        int i = indexOf(object, mask);
+        while (tab[i] != null) {
+            if (tab[i] == object) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[i] = object;
+        size++;
+    }
+
+    /**
+     * Unregisters an object. This method does nothing if the object is {@code null} or is not registered.
+     *
+     * @param object The object to unregister.
+     */
+    void remove(Object object) {
+        if (object == null || size == 0) {
+            return;
+        }
+        Object[] tab = table;
+        int mask = tab.length - 1;
+        int i = indexOf(object, mask);
+        while (tab[i] != object) {
+            if (tab[i] == null) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        tab[i] = null;
+        size--;
+
+        // move back objects that come later in the same probe sequence, so lookups don't stop at the now empty slot
+        for (int j = (i + 1) & mask; tab[j] != null; j = (j + 1) & mask) {
+            int k = indexOf(tab[j], mask);
+            // the object at j can be moved to i if its preferred index k is not cyclically in (i, j]
+            if (i <= j ? i >= k || k > j : i >= k && k > j) {
+                tab[i] = tab[j];
+                tab[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    /**
+     * Unregisters all objects. If the registry had grown beyond a certain capacity, it shrinks back to its initial capacity.
+     */
+    void clear() {
+        if (table.length > MAX_RETAINED_CAPACITY) {
+            table = new Object[INITIAL_CAPACITY];
+        } else if (size > 0) {
+            Arrays.fill(table, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Performs an action for each registered object.
+     *
+     * @param action The action to perform.
+     */
+    void forEach(Consumer<Object> action) {
+        if (size == 0) {
+            return;
+        }
+        for (Object object : table) {
+            if (object != null) {
+                action.accept(object);
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not any objects are registered.
+     *
+     * @return {@code true} if no objects are registered, or {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldTable = table;
+        Object[] newTable = new Object[newCapacity];
+        int mask = newCapacity - 1;
+        for (Object object : oldTable) {
+            if (object != null) {
+                int i = indexOf(object, mask);
+                while (newTable[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                newTable[i] = object;
+            }
+        }
+        table = newTable;
+    }
+
+    private static int indexOf(Object object, int mask) {
+        // identity hash codes are not guaranteed to be spread evenly over the lower bits
+        int h = System.identityHashCode(object) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * JsonEscaper.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+/**
+ * Utility methods for appending JSON strings.
+ * <p>
+ * Only the characters that must be escaped in JSON strings are escaped: quotes, backslashes and control characters. Values are scanned for
+ * these characters once, and the runs of characters between them are appended in bulk. Values without any such characters, which are by far
+ * the most common, are appended as-is.
+ *
+ * @author Rob Spoor
+ */
+final class JsonEscaper {
+
+    // the escape sequence for each character that needs to be escaped, or null for characters that don't
+    private static final String[] ESCAPES = new String[128];
+
+    // the number of characters that are scanned at once when escaping content that is already appended
+    private static final int SCAN_CHUNK_SIZE = 256;
+
+    static {
+        for (char c = 0; c < 0x20; c++) {
+            ESCAPES[c] = String.format("\\u%04x", (int) c); //$NON-NLS-1$
+        }
+        ESCAPES['\b'] = "\\b"; //$NON-NLS-1$
+        ESCAPES['\t'] = "\\t"; //$NON-NLS-1$
+        ESCAPES['\n'] = "\\n"; //$NON-NLS-1$
+        ESCAPES['\f'] = "\\f"; //$NON-NLS-1$
+        ESCAPES['\r'] = "\\r"; //$NON-NLS-1$
+        ESCAPES['"'] = "\\\""; //$NON-NLS-1$
+        ESCAPES['\\'] = "\\\\"; //$NON-NLS-1$
+    }
+
+    private JsonEscaper() {
+    }
+
+    /**
+     * Appends a value as a quoted JSON string.
+     *
+     * @param value The value to append.
+     * @param buffer The buffer to append to.
+     */
+    static void appendQuoted(CharSequence value, StringBuffer buffer) {
+        buffer.append('"');
+        escape(value, buffer);
+        buffer.append('"');
+    }
+
+    /**
+     * Appends a value as a quoted JSON string.
+     *
+     * @param value The value to append.
+     * @param buffer The buffer to append to.
+     */
+    static void appendQuoted(char value, StringBuffer buffer) {
+        buffer.append('"');
+        if (needsEscaping(value)) {
+            buffer.append(ESCAPES[value]);
+        } else {
+            buffer.append(value);
+        }
+        buffer.append('"');
+    }
+
+    /**
+     * Appends a value as the content of a JSON string, without quotes.
+     *
+     * @param value The value to append.
+     * @param buffer The buffer to append to.
+     */
+    static void escape(CharSequence value, StringBuffer buffer) {
+        int length = value.length();
+        int index = indexOfEscape(value, 0, length);
+        if (index == -1) {
+            buffer.append(value);
+        } else {
+            escape(value, index, length, buffer);
+        }
+    }
+
+    /**
+     * Escapes the content of a buffer after a specific index. This allows content to be appended as-is first, and escaped afterwards.
+     * The content is not modified if no characters need to be escaped.
+     *
+     * @param buffer The buffer with the content to escape.
+     * @param start The index of the first character to escape.
+     * @param chunk An array that is used for scanning the content of the buffer, as returned by {@link #newScanChunk()}.
+     */
+    static void escapeFrom(StringBuffer buffer, int start, char[] chunk) {
+        // scan in chunks to prevent locking the buffer for each character
+        int end = buffer.length();
+        for (int chunkStart = start; chunkStart < end; chunkStart += chunk.length) {
+            int chunkEnd = Math.min(end, chunkStart + chunk.length);
+            buffer.getChars(chunkStart, chunkEnd, chunk, 0);
+            for (int i = 0, length = chunkEnd - chunkStart; i < length; i++) {
+                if (needsEscaping(chunk[i])) {
+                    // only content with characters that need to be escaped is copied
+                    String content = buffer.substring(chunkStart + i);
+                    buffer.setLength(chunkStart + i);
+                    escape(content, 0, content.length(), buffer);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an array that can be used for {@link #escapeFrom(StringBuffer, int, char[])}.
+     *
+     * @return An array that can be used for {@link #escapeFrom(StringBuffer, int, char[])}.
+     */
+    static char[] newScanChunk() {
+        return new char[SCAN_CHUNK_SIZE];
+    }
+
+    private static int indexOfEscape(CharSequence value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (needsEscaping(value.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // start is the index of the first character that needs to be escaped
+    private static void escape(CharSequence value, int start, int end, StringBuffer buffer) {
+        int runStart = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (needsEscaping(c)) {
+                buffer.append(value, runStart, i);
+                buffer.append(ESCAPES[c]);
+                runStart = i + 1;
+            }
+        }
+        buffer.append(value, runStart, end);
+    }
+
+    private static boolean needsEscaping(char c) {
+        return c < ESCAPES.length && ESCAPES[c] != null;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * JsonObfuscatingToStringStyle.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+
+/**
+ * An obfuscating {@link ToStringStyle} that produces output similar to {@link ToStringStyle#JSON_STYLE}.
+ *
+ * @author Rob Spoor
+ */
+final class JsonObfuscatingToStringStyle extends ObfuscatingToStringStyle {
+
+    private static final long serialVersionUID = 1L;
+
+    // used to scan obfuscated values for characters that need to be escaped
+    private char[] scanChunk;
+
+    JsonObfuscatingToStringStyle(Builder builder) {
+        super(builder);
+        configure();
+    }
+
+    JsonObfuscatingToStringStyle(Snapshot snapshot) {
+        super(snapshot);
+        configure();
+    }
+
+    private void configure() {
+        setUseClassName(false);
+        setUseIdentityHashCode(false);
+
+        setContentStart("{"); //$NON-NLS-1$
+        setContentEnd("}"); //$NON-NLS-1$
+
+        setArrayStart("["); //$NON-NLS-1$
+        setArrayEnd("]"); //$NON-NLS-1$
+
+        setFieldSeparator(","); //$NON-NLS-1$
+        setFieldNameValueSeparator(":"); //$NON-NLS-1$
+
+        setNullText("null"); //$NON-NLS-1$
+
+        setSummaryObjectStartText("\"<"); //$NON-NLS-1$
+        setSummaryObjectEndText(">\""); //$NON-NLS-1$
+
+        setSizeStartText("\"<size="); //$NON-NLS-1$
+        setSizeEndText(">\""); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void appendFieldStart(StringBuffer buffer, String fieldName) {
+        if (fieldName == null) {
+            throw new UnsupportedOperationException("Field names are mandatory when using jsonStyle()"); //$NON-NLS-1$
+        }
+        JsonEscaper.appendQuoted(fieldName, buffer);
+        buffer.append(getFieldNameValueSeparator());
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, Object value) {
+        if (fieldConfigToObfuscate(fieldName, value) != null) {
+            // obfuscated values are appended as strings by obfuscate
+            super.appendDetail(buffer, fieldName, value);
+        } else if (value instanceof String) {
+            JsonEscaper.appendQuoted((String) value, buffer);
+        } else if (value instanceof Character) {
+            JsonEscaper.appendQuoted((Character) value, buffer);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            buffer.append(value);
+        } else {
+            String valueAsString = value.toString();
+            if (isJsonObject(valueAsString) || isJsonArray(valueAsString)) {
+                buffer.append(valueAsString);
+            } else {
+                JsonEscaper.appendQuoted(valueAsString, buffer);
+            }
+        }
+    }
+
+    private boolean isJsonObject(String valueAsString) {
+        return valueAsString.startsWith(getContentStart()) && valueAsString.endsWith(getContentEnd());
+    }
+
+    private boolean isJsonArray(String valueAsString) {
+        return valueAsString.startsWith(getArrayStart()) && valueAsString.endsWith(getArrayEnd());
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, char value) {
+        if (fieldConfigToObfuscate(fieldName) != null) {
+            super.appendDetail(buffer, fieldName, value);
+        } else {
+            JsonEscaper.appendQuoted(value, buffer);
+        }
+    }
+
+    @Override
+    protected void appendCyclicObject(StringBuffer buffer, String fieldName, Object value) {
+        buffer.append('"');
+        super.appendCyclicObject(buffer, fieldName, value);
+        buffer.append('"');
+    }
+
+    @Override
+    int startObfuscatedValue(StringBuffer buffer) {
+        buffer.append('"');
+        return buffer.length();
+    }
+
+    @Override
+    void endObfuscatedValue(StringBuffer buffer, int start) {
+        // the obfuscated value can contain any character, including the quotes and escape sequences of the original value
+        if (scanChunk == null) {
+            scanChunk = JsonEscaper.newScanChunk();
+        }
+        JsonEscaper.escapeFrom(buffer, start, scanChunk);
+        buffer.append('"');
+    }
+
+    @Override
+    String getMapStart() {
+        return getContentStart();
+    }
+
+    @Override
+    String getMapEnd() {
+        return getContentEnd();
+    }
+
+    @Override
+    void appendMapKey(StringBuffer buffer, String fieldName, Object key) {
+        // JSON only allows strings as keys
+        JsonEscaper.appendQuoted(key == null ? getNullText() : key.toString(), buffer);
+        buffer.append(getFieldNameValueSeparator());
+    }
+
+    @Override
+    void appendMoreElements(StringBuffer buffer, int count) {
+        buffer.append("\"...(").append(count).append(" more)\""); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Override
+    void appendMoreEntries(StringBuffer buffer, int count) {
+        buffer.append("\"...\":\"(").append(count).append(" more)\""); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Override
+    void appendTruncationMarker(StringBuffer buffer, String marker) {
+        // the marker replaces the remaining fields or entries as a field without value, so the result is still valid JSON
+        if (!StringUtils.endsWith(buffer, getContentStart()) && !StringUtils.endsWith(buffer, getFieldSeparator())) {
+            buffer.append(getFieldSeparator());
+        }
+        JsonEscaper.appendQuoted(marker, buffer);
+        buffer.append(getFieldNameValueSeparator()).append(getNullText());
+    }
+
+    @Override
+    void appendElementsTruncationMarker(StringBuffer buffer, String marker) {
+        // elements of collections are followed by a separator, elements of arrays are preceded by one
+        if (!StringUtils.endsWith(buffer, getArrayStart()) && !StringUtils.endsWith(buffer, getArraySeparator())) {
+            buffer.append(getArraySeparator());
+        }
+        JsonEscaper.appendQuoted(marker, buffer);
+    }
+}
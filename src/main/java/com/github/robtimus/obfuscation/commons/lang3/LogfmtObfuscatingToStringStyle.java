@@ -0,0 +1,195 @@
+/*
+ * LogfmtObfuscatingToStringStyle.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+
+/**
+ * An obfuscating {@link ToStringStyle} that produces output in the <a href="https://brandur.org/logfmt">logfmt</a> format.
+ *
+ * @author Rob Spoor
+ */
+final class LogfmtObfuscatingToStringStyle extends RecursiveObfuscatingToStringStyle {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_FIELD_LEVELS = 8;
+
+    // the value start of fields that are replaced by the fields of their values
+    private static final int FLATTENED = -1;
+
+    // The fields that are being appended, one for each level of nesting: the buffer they are appended to, the index where they start,
+    // the index where their values start or FLATTENED, and the length of the key prefix before they were appended.
+    // Fields of values of obfuscated fields are not included; these values are quoted as a whole.
+    private StringBuffer[] fieldBuffers;
+    private int[] fieldStarts;
+    private int[] valueStarts;
+    private int[] keyPrefixLengths;
+    private int fieldLevel;
+
+    // the prefix for the names of fields of flattened objects, e.g. "customer.address."
+    private final StringBuilder keyPrefix = new StringBuilder();
+
+    // used to scan values for characters that need to be quoted
+    private final char[] scanChunk = JsonEscaper.newScanChunk();
+
+    LogfmtObfuscatingToStringStyle(Builder builder, Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        super(builder, recurseIntoPredicate, maxDepth);
+        configure();
+    }
+
+    LogfmtObfuscatingToStringStyle(Snapshot snapshot, Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        super(snapshot, recurseIntoPredicate, maxDepth);
+        configure();
+    }
+
+    private void configure() {
+        setUseClassName(false);
+        setUseIdentityHashCode(false);
+        setContentStart(""); //$NON-NLS-1$
+        setContentEnd(""); //$NON-NLS-1$
+        setFieldSeparator(" "); //$NON-NLS-1$
+        setArrayStart("["); //$NON-NLS-1$
+        setArrayEnd("]"); //$NON-NLS-1$
+        setNullText("null"); //$NON-NLS-1$
+
+        fieldBuffers = new StringBuffer[INITIAL_FIELD_LEVELS];
+        fieldStarts = new int[INITIAL_FIELD_LEVELS];
+        valueStarts = new int[INITIAL_FIELD_LEVELS];
+        keyPrefixLengths = new int[INITIAL_FIELD_LEVELS];
+    }
+
+    @Override
+    void reset() {
+        super.reset();
+        resetFields();
+    }
+
+    private void resetFields() {
+        Arrays.fill(fieldBuffers, 0, fieldLevel, null);
+        fieldLevel = 0;
+        keyPrefix.setLength(0);
+    }
+
+    @Override
+    public void appendStart(StringBuffer buffer, Object object) {
+        if (fieldLevel > 0 && !isAppendingValue()) {
+            // Fields of nested objects are only started while a value is being appended. Fields that are still being appended otherwise
+            // were left behind by formatting that failed, e.g. because a toString() method threw an exception.
+            resetFields();
+        }
+        super.appendStart(buffer, object);
+    }
+
+    @Override
+    protected void appendFieldStart(StringBuffer buffer, String fieldName) {
+        if (isObfuscating()) {
+            super.appendFieldStart(buffer, fieldName);
+            return;
+        }
+        if (fieldLevel == fieldBuffers.length) {
+            int newLength = fieldLevel * 2;
+            fieldBuffers = Arrays.copyOf(fieldBuffers, newLength);
+            fieldStarts = Arrays.copyOf(fieldStarts, newLength);
+            valueStarts = Arrays.copyOf(valueStarts, newLength);
+            keyPrefixLengths = Arrays.copyOf(keyPrefixLengths, newLength);
+        }
+        fieldBuffers[fieldLevel] = buffer;
+        fieldStarts[fieldLevel] = buffer.length();
+        keyPrefixLengths[fieldLevel] = keyPrefix.length();
+        // fields of objects that are appended as values, e.g. as elements of collections, are not prefixed
+        if (fieldName != null && isUseFieldNames() && (fieldLevel == 0 || valueStarts[fieldLevel - 1] == FLATTENED)) {
+            buffer.append(keyPrefix);
+        }
+        super.appendFieldStart(buffer, fieldName);
+        valueStarts[fieldLevel] = buffer.length();
+        fieldLevel++;
+    }
+
+    @Override
+    protected void appendFieldEnd(StringBuffer buffer, String fieldName) {
+        if (isObfuscating()) {
+            super.appendFieldEnd(buffer, fieldName);
+            return;
+        }
+        fieldLevel--;
+        fieldBuffers[fieldLevel] = null;
+        if (valueStarts[fieldLevel] == FLATTENED) {
+            keyPrefix.setLength(keyPrefixLengths[fieldLevel]);
+            // if the flattened object has no fields, nothing replaces the field, and the field separator before it may have been removed
+            if (buffer.length() != fieldStarts[fieldLevel]) {
+                super.appendFieldEnd(buffer, fieldName);
+            }
+        } else {
+            // once truncated, the value is followed by the truncation marker
+            if (!truncateIfNeeded(buffer)) {
+                LogfmtQuoter.quoteFrom(buffer, valueStarts[fieldLevel], scanChunk);
+            }
+            super.appendFieldEnd(buffer, fieldName);
+        }
+    }
+
+    @Override
+    void appendNestedObject(StringBuffer buffer, String fieldName, Object value) {
+        int level = fieldLevel - 1;
+        if (fieldName == null || isObfuscating() || level < 0 || fieldBuffers[level] != buffer || valueStarts[level] != buffer.length()) {
+            // not the entire value of a field, e.g. an element of a collection
+            super.appendNestedObject(buffer, fieldName, value);
+            return;
+        }
+        // replace the field with the fields of the value
+        buffer.setLength(fieldStarts[level]);
+        valueStarts[level] = FLATTENED;
+        keyPrefix.append(fieldName).append('.');
+        super.appendNestedObject(buffer, fieldName, value);
+    }
+
+    @Override
+    String getMapStart() {
+        return "{"; //$NON-NLS-1$
+    }
+
+    @Override
+    String getMapEnd() {
+        return "}"; //$NON-NLS-1$
+    }
+
+    @Override
+    boolean canDrain(StringBuffer buffer) {
+        // values that may still need to be quoted must not be written yet
+        for (int i = 0; i < fieldLevel; i++) {
+            if (fieldBuffers[i] == buffer && valueStarts[i] != FLATTENED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    void drained(StringBuffer buffer, int count) {
+        for (int i = 0; i < fieldLevel; i++) {
+            if (fieldBuffers[i] == buffer) {
+                fieldStarts[i] -= count;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * LogfmtQuoter.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+/**
+ * Utility methods for quoting logfmt values.
+ * <p>
+ * Values only need to be quoted if they contain spaces, equals signs, quotes or control characters. Quoted values are escaped the same way as
+ * JSON strings. Values are appended as-is first, and are then scanned once. Values that don't need to be quoted, which are by far the most
+ * common, are not modified or copied.
+ *
+ * @author Rob Spoor
+ */
+final class LogfmtQuoter {
+
+    private LogfmtQuoter() {
+    }
+
+    /**
+     * Quotes the content of a buffer after a specific index if needed.
+     *
+     * @param buffer The buffer with the value to quote.
+     * @param start The index of the first character of the value.
+     * @param chunk An array that is used for scanning the content of the buffer, as returned by {@link JsonEscaper#newScanChunk()}.
+     */
+    static void quoteFrom(StringBuffer buffer, int start, char[] chunk) {
+        // scan in chunks to prevent locking the buffer for each character
+        int end = buffer.length();
+        for (int chunkStart = start; chunkStart < end; chunkStart += chunk.length) {
+            int chunkEnd = Math.min(end, chunkStart + chunk.length);
+            buffer.getChars(chunkStart, chunkEnd, chunk, 0);
+            for (int i = 0, length = chunkEnd - chunkStart; i < length; i++) {
+                if (needsQuoting(chunk[i])) {
+                    // the value is only copied if it contains characters that need to be escaped
+                    buffer.insert(start, '"');
+                    JsonEscaper.escapeFrom(buffer, start + 1, chunk);
+                    buffer.append('"');
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean needsQuoting(char c) {
+        return c <= ' ' || c == '=' || c == '"';
+    }
+}
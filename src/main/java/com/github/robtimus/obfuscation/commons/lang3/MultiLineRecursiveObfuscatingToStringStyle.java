@@ -0,0 +1,296 @@
+/*
+ * MultiLineRecursiveObfuscatingToStringStyle.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+
+/**
+ * An obfuscating {@link ToStringStyle} that produces output similar to
+ * {@link org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle MultilineRecursiveToStringStyle}.
+ *
+ * @author Rob Spoor
+ */
+final class MultiLineRecursiveObfuscatingToStringStyle extends RecursiveObfuscatingToStringStyle {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INDENT = 2;
+
+    private static final int INITIAL_INDENT_LEVELS = 8;
+
+    // The separators per indent level, shared by all instances, and created when first needed so changing the indent only replaces references.
+    // Separators are immutable and only have final fields, so they can be read from the table without locking.
+    private static volatile Separators[] separatorsPerIndent = new Separators[INITIAL_INDENT_LEVELS];
+
+    private int currentIndent;
+
+    MultiLineRecursiveObfuscatingToStringStyle(Builder builder, Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        super(builder, recurseIntoPredicate, maxDepth);
+        setIndent(1);
+    }
+
+    MultiLineRecursiveObfuscatingToStringStyle(Snapshot snapshot, Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        super(snapshot, recurseIntoPredicate, maxDepth);
+        setIndent(1);
+    }
+
+    private void setIndent(int newIndent) {
+        currentIndent = newIndent;
+
+        Separators separators = separators(currentIndent);
+
+        setArrayStart(separators.arrayStart);
+        setArraySeparator(separators.arraySeparator);
+        setArrayEnd(separators.arrayEnd);
+
+        setContentStart(separators.contentStart);
+        setFieldSeparator(separators.fieldSeparator);
+        setContentEnd(separators.contentEnd);
+    }
+
+    private static Separators separators(int indentLevel) {
+        Separators[] table = separatorsPerIndent;
+        Separators separators = indentLevel < table.length ? table[indentLevel] : null;
+        return separators != null ? separators : addSeparators(indentLevel);
+    }
+
+    private static synchronized Separators addSeparators(int indentLevel) {
+        Separators[] table = separatorsPerIndent;
+        if (indentLevel >= table.length) {
+            table = Arrays.copyOf(table, Math.max(indentLevel + 1, table.length * 2));
+            separatorsPerIndent = table;
+        }
+        Separators separators = table[indentLevel];
+        if (separators == null) {
+            separators = new Separators(indentLevel);
+            table[indentLevel] = separators;
+        }
+        return separators;
+    }
+
+    private void increaseIndent() {
+        setIndent(currentIndent + 1);
+    }
+
+    private void decreaseIndent() {
+        setIndent(currentIndent - 1);
+    }
+
+    /**
+     * @return prefix + line separator + indent
+     */
+    private static String indented(char prefix, String lineSeparator, int indentLevel) {
+        StringBuilder sb = new StringBuilder(1 + lineSeparator.length() + indentLevel * INDENT);
+        sb.append(prefix);
+        sb.append(lineSeparator);
+        indent(sb, indentLevel);
+        return sb.toString();
+    }
+
+    /**
+     * @return line separator + indent + postfix
+     */
+    private static String indented(String lineSeparator, int indentLevel, char postfix) {
+        StringBuilder sb = new StringBuilder(lineSeparator.length() + indentLevel * INDENT + 1);
+        sb.append(lineSeparator);
+        indent(sb, indentLevel);
+        sb.append(postfix);
+        return sb.toString();
+    }
+
+    private static void indent(StringBuilder sb, int indentLevel) {
+        for (int i = 0, count = indentLevel * INDENT; i < count; i++) {
+            sb.append(' ');
+        }
+    }
+
+    private static final class Separators {
+
+        private final String arrayStart;
+        private final String arraySeparator;
+        private final String arrayEnd;
+        private final String contentStart;
+        private final String fieldSeparator;
+        private final String contentEnd;
+        private final String collectionStart;
+        private final String collectionEnd;
+
+        private Separators(int indentLevel) {
+            final String lineSeparator = System.lineSeparator();
+
+            arrayStart = indented('{', lineSeparator, indentLevel);
+            arraySeparator = indented(',', lineSeparator, indentLevel);
+            arrayEnd = indented(lineSeparator, indentLevel - 1, '}');
+            contentStart = indented('[', lineSeparator, indentLevel);
+            fieldSeparator = indented(',', lineSeparator, indentLevel);
+            contentEnd = indented(lineSeparator, indentLevel - 1, ']');
+            collectionStart = arrayStart.replace('{', '[');
+            collectionEnd = arrayEnd.replace('}', ']');
+        }
+    }
+
+    @Override
+    String getCollectionStart() {
+        return separators(currentIndent).collectionStart;
+    }
+
+    @Override
+    String getCollectionEnd() {
+        return separators(currentIndent).collectionEnd;
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, Object value) {
+        if (shouldRecurseInto(value)) {
+            increaseIndent();
+            try {
+                appendRecursively(buffer, fieldName, value);
+            } finally {
+                decreaseIndent();
+            }
+        } else {
+            super.appendDetail(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, Collection<?> coll) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, coll);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, Map<?, ?> map) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, map);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, Object[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void reflectionAppendArrayDetail(StringBuffer buffer, String fieldName, Object array) {
+        increaseIndent();
+        try {
+            super.reflectionAppendArrayDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, long[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, int[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, short[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, byte[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, char[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, double[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, float[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, boolean[] array) {
+        increaseIndent();
+        try {
+            super.appendDetail(buffer, fieldName, array);
+        } finally {
+            decreaseIndent();
+        }
+    }
+}
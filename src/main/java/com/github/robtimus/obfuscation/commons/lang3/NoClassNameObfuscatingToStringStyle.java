@@ -0,0 +1,47 @@
+/*
+ * NoClassNameObfuscatingToStringStyle.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+
+/**
+ * An obfuscating {@link ToStringStyle} that produces output similar to {@link ToStringStyle#NO_CLASS_NAME_STYLE}.
+ *
+ * @author Rob Spoor
+ */
+final class NoClassNameObfuscatingToStringStyle extends ObfuscatingToStringStyle {
+
+    private static final long serialVersionUID = 1L;
+
+    NoClassNameObfuscatingToStringStyle(Builder builder) {
+        super(builder);
+        configure();
+    }
+
+    NoClassNameObfuscatingToStringStyle(Snapshot snapshot) {
+        super(snapshot);
+        configure();
+    }
+
+    private void configure() {
+        setUseClassName(false);
+        setUseIdentityHashCode(false);
+    }
+}
@@ -17,16 +17,28 @@
 
 package com.github.robtimus.obfuscation.commons.lang3;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import com.github.robtimus.obfuscation.Obfuscator;
 import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
@@ -51,6 +63,24 @@ import com.github.robtimus.obfuscation.support.MapBuilder;
  *     return ToStringBuilder.reflectionToString(this, TO_STRING_STYLE.get());
  * }
  * </code></pre>
+ * Alternatively, a {@link Builder} can build a {@link ToStringStyle} that is thread safe itself, using {@link Builder#buildShared()}.
+ * Such a {@link ToStringStyle} can be stored in a constant and used directly:
+ * <pre><code>
+ * private static final ToStringStyle TO_STRING_STYLE = ObfuscatingToStringStyle.defaultStyle()
+ *         ...
+ *         .buildShared();
+ *
+ * ...
+ *
+ * public String toString() {
+ *     return ToStringBuilder.reflectionToString(this, TO_STRING_STYLE);
+ * }
+ * </code></pre>
+ * <p>
+ * Cycles are detected using the objects that an {@code ObfuscatingToStringStyle} is formatting, not using the registry of {@link ToStringStyle}.
+ * A cycle that passes through a {@code toString()} method that uses another {@link ToStringStyle}, for instance {@link ToStringStyle#DEFAULT_STYLE},
+ * is detected when it comes back to the {@code ObfuscatingToStringStyle}. Until then, the other {@link ToStringStyle} does not know the objects
+ * that the {@code ObfuscatingToStringStyle} is formatting, so it formats these objects one more level deep.
  * <p>
  * Note: instances of {@code ObfuscatingToStringStyle} are <b>not</b> serializable.
  *
@@ -60,10 +90,103 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
 
     private static final long serialVersionUID = 1L;
 
-    private final Map<String, FieldConfig> fields;
+    private static final int NO_MAX_LENGTH = Integer.MAX_VALUE;
+
+    private static final int NO_MAX_DEPTH = Integer.MAX_VALUE;
+
+    // the predicate used by logfmtStyle(), which does not recursively format objects
+    private static final Predicate<Class<?>> NO_RECURSION = pure(c -> false);
+
+    private static final int NO_MAX_ELEMENTS = Integer.MAX_VALUE;
+    // the maximum number of elements of obfuscated fields for which the maximum number of elements of the style applies
+    private static final int STYLE_MAX_ELEMENTS = -1;
+
+    private static final String DEFAULT_TRUNCATION_MARKER = "..."; //$NON-NLS-1$
+
+    private static final char NO_MASK_CHAR = '\0';
+
+    // the same initial capacity that ToStringBuilder uses
+    private static final int INITIAL_REFLECTION_CAPACITY = 512;
+
+    // the number of characters after which content is written to the target of reflectionToString(Object, Appendable)
+    private static final int STREAM_CHUNK_SIZE = 8192;
+
+    private static final int INITIAL_SCRATCH_CAPACITY = 256;
+    // the number of characters after which content is removed from a buffer of which not all content is needed
+    private static final int SKIP_CHUNK_SIZE = INITIAL_SCRATCH_CAPACITY;
+    private static final int MASK_CHUNK_SIZE = 256;
+
+    private static final int NOT_BOUNDED = -1;
+    // the maximum capacity of the scratch buffer that is kept between obfuscated fields; larger buffers are discarded after use
+    private static final int MAX_RETAINED_SCRATCH_CAPACITY = 1 << 20;
+
+    // ClassUtils.getShortClassName creates a new string every time
+    private static final ClassValue<String> SHORT_CLASS_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return ClassUtils.getShortClassName(type);
+        }
+    };
+
+    private final FieldNameIndex<FieldConfig> fields;
+    private final FieldPathTrie<FieldConfig> fieldPaths;
+    private final FieldNamePatterns<FieldConfig> fieldPatterns;
+    private final TypeIndex<FieldConfig> types;
+
+    private final int maxLength;
+    private final String truncationMarker;
+
+    private final int maxElements;
 
     private boolean isObfuscating;
 
+    // the maximum number of elements of collections, maps and arrays that are currently being appended
+    private int elementLimit;
+
+    // the buffer that the maximum length applies to, the length at which to truncate it, and the number of objects that are being appended to it
+    private StringBuffer limitBuffer;
+    private long limitEnd;
+    private int limitDepth;
+    private boolean truncated;
+    private int truncatedLength;
+    // whether or not the limit buffer was removed by suspend
+    private boolean limitSuspended;
+
+    // the node of the field path trie for the fields of the object that is being appended, or null if no field path can match these fields
+    private FieldPathTrie<FieldConfig> fieldPath;
+
+    // the last resolved field; consecutive lookups are often for the same field name instance, e.g. for array elements
+    private String resolvedFieldName;
+    private FieldConfig resolvedFieldConfig;
+
+    // the buffer that is written to the target of reflectionToString(Object, Appendable), and that target
+    private StringBuffer streamBuffer;
+    private Appendable streamTarget;
+    private char[] streamChunk;
+
+    // the buffer that values of obfuscated fields are rendered into, so only the obfuscated value needs to be appended to the actual buffer
+    private StringBuffer scratch;
+
+    // the buffer of which only the first and last characters and the length are needed, the number of first and last characters that are needed,
+    // and the number of characters that have already been removed from it after the first characters
+    private StringBuffer captureBuffer;
+    private int captureAtStart;
+    private int captureAtEnd;
+    private long skippedLength;
+
+    // the start and end of collections, and the array start and end they were created from, so they are only created again if these change
+    private String collectionStartSource;
+    private String collectionStart;
+    private String collectionEndSource;
+    private String collectionEnd;
+
+    // the objects that are being formatted; used instead of the registry of ToStringStyle
+    private IdentityRegistry registry;
+    // the style that was formatting an object when this style started formatting, e.g. from a toString() method; its registry is checked as well
+    private ObfuscatingToStringStyle enclosingStyle;
+    // the number of values that are being appended using appendInternal
+    private int appendDepth;
+
     /**
      * Creates a new obfuscating {@link ToStringStyle}.
      *
@@ -72,8 +195,20 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
      */
     protected ObfuscatingToStringStyle(Builder builder) {
         fields = builder.fields();
+        fieldPaths = builder.fieldPaths();
+        fieldPatterns = builder.fieldPatterns();
+        types = builder.types();
+
+        maxLength = builder.maxLength();
+        truncationMarker = builder.truncationMarker();
+
+        maxElements = builder.maxElements();
 
         isObfuscating = false;
+
+        elementLimit = maxElements;
+
+        fieldPath = fieldPaths.isLeaf() ? null : fieldPaths;
     }
 
     /**
@@ -84,42 +219,718 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
      */
     protected ObfuscatingToStringStyle(Snapshot snapshot) {
         fields = snapshot.fields();
+        fieldPaths = snapshot.fieldPaths();
+        fieldPatterns = snapshot.fieldPatterns();
+        types = snapshot.types();
+
+        maxLength = snapshot.maxLength();
+        truncationMarker = snapshot.truncationMarker();
+
+        maxElements = snapshot.maxElements();
 
         isObfuscating = false;
+
+        elementLimit = maxElements;
+
+        fieldPath = fieldPaths.isLeaf() ? null : fieldPaths;
     }
 
-    final void doAppend(StringBuffer buffer, String fieldName, Consumer<StringBuffer> append) {
-        if (!isObfuscating) {
-            FieldConfig fieldConfig = fields.get(fieldName);
-            if (fieldConfig != null) {
-                isObfuscating = true;
-                int start = buffer.length();
-                int end = start;
-                try {
-                    append.accept(buffer);
-                    end = buffer.length();
-                    fieldConfig.obfuscator.obfuscateText(buffer, start, end, buffer);
-                } finally {
-                    buffer.delete(start, end);
-                    isObfuscating = false;
-                }
-                return;
+    /*
+     * Returns the configuration of the given field if the field needs to be obfuscated, or null otherwise.
+     * Fields never need to be obfuscated while already obfuscating, as their values will be obfuscated as part of the enclosing field.
+     *
+     * The appendXXX methods only use a lambda to call obfuscate if the result is not null, so no lambdas are created for fields that do not
+     * need to be obfuscated.
+     */
+    final FieldConfig fieldConfigToObfuscate(String fieldName) {
+        if (isObfuscating) {
+            return null;
+        }
+        FieldConfig fieldConfig = fieldConfig(fieldName);
+        // fields without an obfuscator are not obfuscated, but only have other settings
+        return fieldConfig != null && fieldConfig.obfuscator != null ? fieldConfig : null;
+    }
+
+    private FieldConfig fieldConfig(String fieldName) {
+        if (fieldName != resolvedFieldName) {
+            FieldConfig fieldConfig = fieldPathConfig(fieldName);
+            if (fieldConfig == null) {
+                fieldConfig = fields.get(fieldName);
+            }
+            resolvedFieldConfig = fieldConfig != null ? fieldConfig : fieldPatterns.get(fieldName);
+            resolvedFieldName = fieldName;
+        }
+        return resolvedFieldConfig;
+    }
+
+    /*
+     * Returns the maximum number of elements of collections, maps and arrays of the given field. While obfuscating, that's the maximum number of
+     * elements of the obfuscated field. Otherwise, fields can have their own maximum number of elements without being obfuscated. That also
+     * applies to collections, maps and arrays that are elements of their values, as these are appended with the same field name.
+     */
+    private int elementLimit(String fieldName) {
+        if (isObfuscating) {
+            return elementLimit;
+        }
+        FieldConfig fieldConfig = fieldConfig(fieldName);
+        return fieldConfig != null && fieldConfig.maxElements != STYLE_MAX_ELEMENTS ? fieldConfig.maxElements : elementLimit;
+    }
+
+    /*
+     * Returns the configuration of the given field if the field needs to be obfuscated, or otherwise the configuration of the type of the given
+     * value if values of that type need to be obfuscated, or null otherwise. Field rules take precedence over type rules.
+     */
+    final FieldConfig fieldConfigToObfuscate(String fieldName, Object value) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        return fieldConfig != null || isObfuscating ? fieldConfig : types.get(value.getClass());
+    }
+
+    // field paths take precedence over field names
+    private FieldConfig fieldPathConfig(String fieldName) {
+        if (fieldPath == null) {
+            return null;
+        }
+        FieldPathTrie<FieldConfig> node = fieldPath.child(fieldName);
+        return node != null ? node.value() : null;
+    }
+
+    /*
+     * Makes the fields of the value of the given field the fields that field paths are matched against, and returns the previous node.
+     * The result must be passed to exitFieldPath once the value has been appended.
+     */
+    final FieldPathTrie<FieldConfig> enterFieldPath(String fieldName) {
+        FieldPathTrie<FieldConfig> parent = fieldPath;
+        if (parent != null) {
+            FieldPathTrie<FieldConfig> node = parent.child(fieldName);
+            // if no field path continues with the fields of the value, these don't need to be matched at all
+            fieldPath = node != null && !node.isLeaf() ? node : null;
+            resolvedFieldName = null;
+        }
+        return parent;
+    }
+
+    final void exitFieldPath(FieldPathTrie<FieldConfig> parent) {
+        if (parent != null) {
+            fieldPath = parent;
+            resolvedFieldName = null;
+        }
+    }
+
+    final String nullText() {
+        return getNullText();
+    }
+
+    final boolean isObfuscating() {
+        return isObfuscating;
+    }
+
+    // whether or not a value is being appended using appendInternal; nested objects are only started while that's the case
+    final boolean isAppendingValue() {
+        return appendDepth > 0;
+    }
+
+    private void resolveField(String fieldName, int slot) {
+        FieldConfig fieldConfig = fieldPathConfig(fieldName);
+        if (fieldConfig == null) {
+            fieldConfig = fields.valueAt(slot);
+        }
+        resolvedFieldName = fieldName;
+        resolvedFieldConfig = fieldConfig != null ? fieldConfig : fieldPatterns.get(fieldName);
+    }
+
+    final void obfuscate(StringBuffer buffer, FieldConfig fieldConfig, Consumer<StringBuffer> append) {
+        int start = startObfuscatedValue(buffer);
+        if (fieldConfig.fixedOutput != null) {
+            // the value does not affect the result, so don't format it at all
+            buffer.append(fieldConfig.fixedOutput);
+        } else {
+            obfuscateValue(buffer, fieldConfig, append);
+        }
+        endObfuscatedValue(buffer, start);
+    }
+
+    /*
+     * Called before an obfuscated value is appended. Returns the index in the given buffer where the obfuscated value will start.
+     */
+    int startObfuscatedValue(StringBuffer buffer) {
+        return buffer.length();
+    }
+
+    /*
+     * Called after an obfuscated value has been appended, starting at the given index. By default obfuscated values are appended as-is.
+     */
+    void endObfuscatedValue(StringBuffer buffer, int start) {
+        // no modifications
+    }
+
+    private void obfuscateValue(StringBuffer buffer, FieldConfig fieldConfig, Consumer<StringBuffer> append) {
+        if (fieldConfig.maxElements != STYLE_MAX_ELEMENTS) {
+            // the field's maximum number of elements applies to the value that is obfuscated, so only the limited value is obfuscated
+            elementLimit = fieldConfig.maxElements;
+        }
+        try {
+            if (fieldConfig.maskChar != NO_MASK_CHAR) {
+                obfuscateLength(buffer, fieldConfig.maskChar, append);
+            } else if (fieldConfig.keepAtStart != NOT_BOUNDED) {
+                obfuscateBounded(buffer, fieldConfig, append);
+            } else {
+                obfuscateFully(buffer, fieldConfig, append);
+            }
+        } finally {
+            elementLimit = maxElements;
+        }
+    }
+
+    private void obfuscateFully(StringBuffer buffer, FieldConfig fieldConfig, Consumer<StringBuffer> append) {
+        isObfuscating = true;
+        StringBuffer renderBuffer = scratchBuffer();
+        try {
+            append.accept(renderBuffer);
+            fieldConfig.obfuscator.obfuscateText(renderBuffer, 0, renderBuffer.length(), buffer);
+        } finally {
+            releaseScratchBuffer(renderBuffer);
+            isObfuscating = false;
+        }
+    }
+
+    /*
+     * Obfuscates a value by replacing each of its characters with the same mask character. Only the length of the formatted value is needed,
+     * so content is regularly removed from the scratch buffer while the value is formatted.
+     */
+    private void obfuscateLength(StringBuffer buffer, char maskChar, Consumer<StringBuffer> append) {
+        isObfuscating = true;
+        StringBuffer renderBuffer = startCapture(0, 0);
+        try {
+            append.accept(renderBuffer);
+            appendMask(buffer, maskChar, skippedLength + renderBuffer.length());
+        } finally {
+            endCapture(renderBuffer);
+        }
+    }
+
+    /*
+     * Obfuscates a value using an obfuscator that only keeps characters at the start and end of the value. Only these characters and the length
+     * of the formatted value are needed, so other content is regularly removed from the scratch buffer while the value is formatted.
+     * The obfuscator is given a view of the formatted value that has the full length but only the needed characters.
+     */
+    private void obfuscateBounded(StringBuffer buffer, FieldConfig fieldConfig, Consumer<StringBuffer> append) {
+        isObfuscating = true;
+        StringBuffer renderBuffer = startCapture(fieldConfig.keepAtStart, fieldConfig.keepAtEnd);
+        try {
+            append.accept(renderBuffer);
+            CharSequence value = skippedLength == 0 ? renderBuffer : new CapturedValue(renderBuffer, captureAtStart, skippedLength);
+            fieldConfig.obfuscator.obfuscateText(value, 0, value.length(), buffer);
+        } finally {
+            endCapture(renderBuffer);
+        }
+    }
+
+    private StringBuffer startCapture(int atStart, int atEnd) {
+        StringBuffer renderBuffer = scratchBuffer();
+        captureBuffer = renderBuffer;
+        captureAtStart = atStart;
+        captureAtEnd = atEnd;
+        skippedLength = 0;
+        return renderBuffer;
+    }
+
+    private void endCapture(StringBuffer renderBuffer) {
+        captureBuffer = null;
+        releaseScratchBuffer(renderBuffer);
+        isObfuscating = false;
+    }
+
+    private static void appendMask(StringBuffer buffer, char maskChar, long length) {
+        char[] mask = new char[(int) Math.min(length, MASK_CHUNK_SIZE)];
+        Arrays.fill(mask, maskChar);
+        for (long remaining = length; remaining > 0; remaining -= mask.length) {
+            buffer.append(mask, 0, (int) Math.min(remaining, mask.length));
+        }
+    }
+
+    private StringBuffer scratchBuffer() {
+        if (scratch == null) {
+            scratch = new StringBuffer(INITIAL_SCRATCH_CAPACITY);
+        }
+        return scratch;
+    }
+
+    private void releaseScratchBuffer(StringBuffer renderBuffer) {
+        if (renderBuffer.capacity() > MAX_RETAINED_SCRATCH_CAPACITY) {
+            // don't keep large buffers around just because one value was large
+            scratch = null;
+        } else {
+            renderBuffer.setLength(0);
+        }
+    }
+
+    @Override
+    public void appendStart(StringBuffer buffer, Object object) {
+        if (appendDepth == 0 && registry != null && !registry.isEmpty()) {
+            // Nested objects are only started while a value is being appended. Objects that are still registered otherwise were left behind by
+            // formatting that failed, e.g. because a toString() method threw an exception.
+            registry.clear();
+        }
+        if (maxLength != NO_MAX_LENGTH && !isObfuscating) {
+            startLimit(buffer);
+        }
+        super.appendStart(buffer, object);
+    }
+
+    @Override
+    public void appendEnd(StringBuffer buffer, Object object) {
+        if (buffer != limitBuffer) {
+            super.appendEnd(buffer, object);
+            unregister(object);
+            return;
+        }
+        if (truncated) {
+            // discard anything that was appended after the truncation marker, e.g. field separators, but keep the content end
+            buffer.setLength(truncatedLength);
+            super.appendEnd(buffer, object);
+            truncatedLength = buffer.length();
+        } else {
+            super.appendEnd(buffer, object);
+        }
+        unregister(object);
+        endLimit();
+    }
+
+    private void endLimit() {
+        if (--limitDepth == 0) {
+            limitBuffer = null;
+            truncated = false;
+        }
+    }
+
+    /*
+     * Called after each call for a buffer that an object is still being formatted into, to no longer reference the buffer. That way, this style
+     * doesn't prevent the buffer from being garbage collected if formatting is never finished. Before this style is used again for the same
+     * object, resume must be called with the same buffer.
+     */
+    final void suspend(StringBuffer buffer) {
+        if (limitBuffer == buffer && buffer != null) {
+            limitBuffer = null;
+            limitSuspended = true;
+        }
+    }
+
+    final void resume(StringBuffer buffer) {
+        if (limitSuspended) {
+            limitBuffer = buffer;
+            limitSuspended = false;
+        }
+    }
+
+    /*
+     * Sets the style from which formatting an object with this style started, e.g. from a toString() method. Cycles are detected using the
+     * registry of that style as well. The enclosing style is cleared when this style is reset.
+     */
+    final void setEnclosingStyle(ObfuscatingToStringStyle style) {
+        enclosingStyle = style;
+    }
+
+    final boolean isEnclosedBy(ObfuscatingToStringStyle style) {
+        return enclosingStyle == style;
+    }
+
+    final boolean isBuiltFrom(Snapshot snapshot) {
+        return fields == snapshot.fields();
+    }
+
+    /*
+     * Resets the state that is only needed while objects are being formatted. Formatting that failed, e.g. because a toString() method threw an
+     * exception, can leave this state behind. Styles that have such state of their own should override this method and call super.reset().
+     */
+    void reset() {
+        isObfuscating = false;
+        elementLimit = maxElements;
+        limitBuffer = null;
+        limitDepth = 0;
+        truncated = false;
+        limitSuspended = false;
+        fieldPath = fieldPaths.isLeaf() ? null : fieldPaths;
+        resolvedFieldName = null;
+        resolvedFieldConfig = null;
+        streamBuffer = null;
+        streamTarget = null;
+        captureBuffer = null;
+        if (scratch != null) {
+            releaseScratchBuffer(scratch);
+        }
+        if (registry != null && !registry.isEmpty()) {
+            registry.clear();
+        }
+        enclosingStyle = null;
+        appendDepth = 0;
+    }
+
+    private void startLimit(StringBuffer buffer) {
+        if (buffer == limitBuffer) {
+            // a nested object
+            limitDepth++;
+        } else {
+            limitBuffer = buffer;
+            limitEnd = (long) buffer.length() + maxLength;
+            limitDepth = 1;
+            truncated = false;
+        }
+    }
+
+    /*
+     * Returns whether or not the given buffer has been truncated. If it has reached the maximum length, it is truncated first, with the truncation
+     * marker replacing the remaining fields or map entries.
+     * Only the buffer that is limited can be truncated. That never includes the scratch buffer of obfuscated fields, so values of obfuscated
+     * fields are always appended in full, and obfuscated as a whole.
+     */
+    final boolean truncateIfNeeded(StringBuffer buffer) {
+        if (buffer != limitBuffer) {
+            return false;
+        }
+        if (!truncated && buffer.length() >= limitEnd) {
+            appendTruncationMarker(buffer, truncationMarker);
+            truncated = true;
+            truncatedLength = buffer.length();
+        }
+        return truncated;
+    }
+
+    /*
+     * The same as truncateIfNeeded, but with the truncation marker replacing the remaining elements of a collection or array.
+     */
+    private boolean truncateElementsIfNeeded(StringBuffer buffer) {
+        if (buffer != limitBuffer) {
+            return false;
+        }
+        if (!truncated && buffer.length() >= limitEnd) {
+            appendElementsTruncationMarker(buffer, truncationMarker);
+            truncated = true;
+            truncatedLength = buffer.length();
+        }
+        return truncated;
+    }
+
+    /*
+     * Appends the end of a collection, map or array. Once the buffer has been truncated, anything that was appended after the truncation marker,
+     * e.g. separators, is discarded first. That way collections, maps and arrays that contain the truncation marker are still properly closed.
+     */
+    private void appendContainerEnd(StringBuffer buffer, String end) {
+        if (truncated && buffer == limitBuffer) {
+            buffer.setLength(truncatedLength);
+            buffer.append(end);
+            truncatedLength = buffer.length();
+        } else {
+            buffer.append(end);
+        }
+    }
+
+    // The following methods are used for truncating; styles can override them to append the truncation marker differently
+
+    void appendTruncationMarker(StringBuffer buffer, String marker) {
+        // the marker replaces the remaining fields, including the separator before the first of these
+        removeLastFieldSeparator(buffer);
+        buffer.append(marker);
+    }
+
+    void appendElementsTruncationMarker(StringBuffer buffer, String marker) {
+        appendTruncationMarker(buffer, marker);
+    }
+
+    // The following methods check the maximum length before appending a field, so fields are no longer appended once the buffer is truncated
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, Object value, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, long value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, int value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, short value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, byte value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, char value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, double value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, float value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, boolean value) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, Object[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, long[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, int[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, short[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, byte[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, char[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, double[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, float[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, boolean[] array, Boolean fullDetail) {
+        if (!truncateIfNeeded(buffer)) {
+            super.append(buffer, fieldName, array, fullDetail);
+        }
+    }
+
+    @Override
+    public void appendSuper(StringBuffer buffer, String superToString) {
+        if (!truncateIfNeeded(buffer)) {
+            super.appendSuper(buffer, superToString);
+        }
+    }
+
+    @Override
+    public void appendToString(StringBuffer buffer, String toString) {
+        if (!truncateIfNeeded(buffer)) {
+            super.appendToString(buffer, toString);
+        }
+    }
+
+    @Override
+    protected String getShortClassName(Class<?> cls) {
+        return SHORT_CLASS_NAMES.get(cls);
+    }
+
+    // The following methods are the same as in ToStringStyle, except they use this style's registry
+
+    @Override
+    protected void appendClassName(StringBuffer buffer, Object object) {
+        if (isUseClassName() && object != null) {
+            register(object);
+            buffer.append(isUseShortClassName() ? getShortClassName(object.getClass()) : object.getClass().getName());
+        }
+    }
+
+    @Override
+    protected void appendIdentityHashCode(StringBuffer buffer, Object object) {
+        if (isUseIdentityHashCode() && object != null) {
+            register(object);
+            buffer.append('@');
+            buffer.append(Integer.toHexString(System.identityHashCode(object)));
+        }
+    }
+
+    @Override
+    protected void appendInternal(StringBuffer buffer, String fieldName, Object value, boolean detail) {
+        if (isRegistered(value) && !(value instanceof Number || value instanceof Boolean || value instanceof Character)) {
+            appendCyclicObject(buffer, fieldName, value);
+            return;
+        }
+
+        register(value);
+        appendDepth++;
+        try {
+            appendValue(buffer, fieldName, value, detail);
+        } finally {
+            appendDepth--;
+            unregister(value);
+        }
+    }
+
+    private void appendValue(StringBuffer buffer, String fieldName, Object value, boolean detail) {
+        if (value instanceof Collection<?>) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (Collection<?>) value);
+            } else {
+                appendSummarySize(buffer, fieldName, ((Collection<?>) value).size());
+            }
+        } else if (value instanceof Map<?, ?>) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (Map<?, ?>) value);
+            } else {
+                appendSummarySize(buffer, fieldName, ((Map<?, ?>) value).size());
+            }
+        } else if (value instanceof long[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (long[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (long[]) value);
+            }
+        } else if (value instanceof int[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (int[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (int[]) value);
+            }
+        } else if (value instanceof short[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (short[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (short[]) value);
+            }
+        } else if (value instanceof byte[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (byte[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (byte[]) value);
+            }
+        } else if (value instanceof char[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (char[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (char[]) value);
+            }
+        } else if (value instanceof double[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (double[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (double[]) value);
+            }
+        } else if (value instanceof float[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (float[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (float[]) value);
             }
+        } else if (value instanceof boolean[]) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (boolean[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (boolean[]) value);
+            }
+        } else if (value.getClass().isArray()) {
+            if (detail) {
+                appendDetail(buffer, fieldName, (Object[]) value);
+            } else {
+                appendSummary(buffer, fieldName, (Object[]) value);
+            }
+        } else if (detail) {
+            appendDetail(buffer, fieldName, value);
+        } else {
+            appendSummary(buffer, fieldName, value);
+        }
+    }
+
+    private boolean isRegistered(Object value) {
+        return registry != null && registry.contains(value)
+                || enclosingStyle != null && enclosingStyle.isRegistered(value);
+    }
+
+    private void register(Object object) {
+        if (registry == null) {
+            registry = new IdentityRegistry();
+        }
+        registry.add(object);
+    }
+
+    private void unregister(Object object) {
+        if (registry == null) {
+            return;
+        }
+        registry.remove(object);
+        if (registry.isEmpty()) {
+            // formatting ends
+            registry.clear();
         }
-        // already obfuscating, or no need to obfuscate this field
-        append.accept(buffer);
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, Object value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, value);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendSummary(StringBuffer buffer, String fieldName, Object value) {
-        FieldConfig fieldConfig = fields.get(fieldName);
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, value);
         if (fieldConfig != null && fieldConfig.obfuscateSummaries) {
-            doAppend(buffer, fieldName, b -> super.appendSummary(b, fieldName, value));
+            obfuscate(buffer, fieldConfig, b -> super.appendSummary(b, fieldName, value));
         } else {
             super.appendSummary(buffer, fieldName, value);
         }
@@ -127,159 +938,683 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, Collection<?> coll) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, coll);
+        if (fieldConfig == null) {
+            appendCollection(buffer, fieldName, coll);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendCollection(b, fieldName, coll));
+        }
+    }
+
+    private void appendCollection(StringBuffer buffer, String fieldName, Collection<?> coll) {
         // treat collections the same way as arrays; don't simply append to the StringBuffer
-        doAppend(buffer, fieldName, b -> {
-            b.append(getArrayStart().replace('{', '['));
-            for (Iterator<?> i = coll.iterator(); i.hasNext(); ) {
-                final Object item = i.next();
-                if (item == null) {
-                    appendNullText(b, fieldName);
-                } else {
-                    appendInternal(b, fieldName, item, isArrayContentDetail());
-                }
-                if (i.hasNext()) {
-                    b.append(getArraySeparator());
-                }
+        buffer.append(getCollectionStart());
+        int limit = elementLimit(fieldName);
+        int count = 0;
+        for (Iterator<?> i = coll.iterator(); i.hasNext(); count++) {
+            if (truncateElementsIfNeeded(buffer)) {
+                break;
+            }
+            if (count == limit) {
+                appendMoreElements(buffer, coll.size() - count);
+                break;
             }
-            b.append(getArrayEnd().replace('}', ']'));
-        });
+            final Object item = i.next();
+            if (item == null) {
+                appendNullText(buffer, fieldName);
+            } else {
+                appendInternal(buffer, fieldName, item, isArrayContentDetail());
+            }
+            if (i.hasNext()) {
+                buffer.append(getArraySeparator());
+            }
+            drainIfNeeded(buffer);
+        }
+        appendContainerEnd(buffer, getCollectionEnd());
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, Map<?, ?> map) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, map);
+        if (fieldConfig == null) {
+            appendMap(buffer, fieldName, map);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendMap(b, fieldName, map));
+        }
+    }
+
+    private void appendMap(StringBuffer buffer, String fieldName, Map<?, ?> map) {
         // treat maps the same way as arrays; don't simply append to the StringBuffer
-        doAppend(buffer, fieldName, b -> {
-            b.append(getArrayStart());
-            for (Iterator<?> i = map.entrySet().iterator(); i.hasNext(); ) {
-                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) i.next();
-
-                // append the key as null or default; complex keys would make reading very hard
-                final Object key = entry.getKey();
-                if (key == null) {
-                    appendNullText(b, fieldName);
-                } else {
-                    b.append(key);
-                }
+        buffer.append(getMapStart());
+        int limit = elementLimit(fieldName);
+        int count = 0;
+        for (Iterator<?> i = map.entrySet().iterator(); i.hasNext(); count++) {
+            if (truncateIfNeeded(buffer)) {
+                break;
+            }
+            if (count == limit) {
+                appendMoreEntries(buffer, map.size() - count);
+                break;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) i.next();
 
-                b.append('=');
+            appendMapKey(buffer, fieldName, entry.getKey());
 
-                final Object value = entry.getValue();
-                if (value == null) {
-                    appendNullText(b, fieldName);
-                } else {
-                    appendInternal(b, fieldName, value, isArrayContentDetail());
-                }
+            final Object value = entry.getValue();
+            if (value == null) {
+                appendNullText(buffer, fieldName);
+            } else {
+                appendInternal(buffer, fieldName, value, isArrayContentDetail());
+            }
 
-                if (i.hasNext()) {
-                    b.append(getArraySeparator());
-                }
+            if (i.hasNext()) {
+                buffer.append(getArraySeparator());
             }
-            b.append(getArrayEnd());
-        });
+            drainIfNeeded(buffer);
+        }
+        appendContainerEnd(buffer, getMapEnd());
+    }
+
+    // The following methods are used for appending collections, maps and element limits; styles can override them to append these differently
+
+    String getCollectionStart() {
+        String arrayStart = getArrayStart();
+        if (arrayStart != collectionStartSource) {
+            // the array start is replaced with an equal string only if it contains no '{'
+            collectionStart = arrayStart.replace('{', '[');
+            collectionStartSource = arrayStart;
+        }
+        return collectionStart;
+    }
+
+    String getCollectionEnd() {
+        String arrayEnd = getArrayEnd();
+        if (arrayEnd != collectionEndSource) {
+            collectionEnd = arrayEnd.replace('}', ']');
+            collectionEndSource = arrayEnd;
+        }
+        return collectionEnd;
+    }
+
+    String getMapStart() {
+        return getArrayStart();
+    }
+
+    String getMapEnd() {
+        return getArrayEnd();
+    }
+
+    void appendMapKey(StringBuffer buffer, String fieldName, Object key) {
+        // append the key as null or default; complex keys would make reading very hard
+        if (key == null) {
+            appendNullText(buffer, fieldName);
+        } else {
+            buffer.append(key);
+        }
+
+        buffer.append('=');
+    }
+
+    void appendMoreElements(StringBuffer buffer, int count) {
+        buffer.append("...(").append(count).append(" more)"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    void appendMoreEntries(StringBuffer buffer, int count) {
+        appendMoreElements(buffer, count);
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, long value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, int value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, short value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, byte value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, char value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, double value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, float value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, boolean value) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, value));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendDetail(buffer, fieldName, value);
+            // primitive arrays are appended by ToStringStyle, one element at a time
+            skipIfNeeded(buffer);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendDetail(b, fieldName, value));
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, Object[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, Object[] array) {
+        // the same as ToStringStyle, but with support for truncation
+        buffer.append(getArrayStart());
+        int limit = elementLimit(fieldName);
+        for (int i = 0; i < array.length; i++) {
+            if (truncateElementsIfNeeded(buffer)) {
+                break;
+            }
+            if (i == limit) {
+                appendMoreArrayItems(buffer, i, array.length);
+                break;
+            }
+            appendArrayItem(buffer, fieldName, i, array[i]);
+        }
+        appendContainerEnd(buffer, getArrayEnd());
     }
 
     @Override
     protected void reflectionAppendArrayDetail(StringBuffer buffer, String fieldName, Object array) {
-        doAppend(buffer, fieldName, b -> super.reflectionAppendArrayDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            reflectionAppendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> reflectionAppendArray(b, fieldName, array));
+        }
+    }
+
+    private void reflectionAppendArray(StringBuffer buffer, String fieldName, Object array) {
+        // the same as ToStringStyle, but with support for truncation
+        buffer.append(getArrayStart());
+        int limit = elementLimit(fieldName);
+        for (int i = 0, length = Array.getLength(array); i < length; i++) {
+            if (truncateElementsIfNeeded(buffer)) {
+                break;
+            }
+            if (i == limit) {
+                appendMoreArrayItems(buffer, i, length);
+                break;
+            }
+            appendArrayItem(buffer, fieldName, i, Array.get(array, i));
+        }
+        appendContainerEnd(buffer, getArrayEnd());
+    }
+
+    private void appendArrayItem(StringBuffer buffer, String fieldName, int index, Object item) {
+        if (index > 0) {
+            buffer.append(getArraySeparator());
+        }
+        if (item == null) {
+            appendNullText(buffer, fieldName);
+        } else {
+            appendInternal(buffer, fieldName, item, isArrayContentDetail());
+        }
+        drainIfNeeded(buffer);
+    }
+
+    private void appendMoreArrayItems(StringBuffer buffer, int index, int length) {
+        if (index > 0) {
+            buffer.append(getArraySeparator());
+        }
+        appendMoreElements(buffer, length - index);
+    }
+
+    /*
+     * Appends a primitive array of which not all elements are appended. Arrays of which all elements are appended are appended by ToStringStyle.
+     */
+    private void appendLimitedArray(StringBuffer buffer, int limit, int length, IntConsumer appendItem) {
+        buffer.append(getArrayStart());
+        for (int i = 0; i < limit; i++) {
+            if (i > 0) {
+                buffer.append(getArraySeparator());
+            }
+            appendItem.accept(i);
+        }
+        appendMoreArrayItems(buffer, limit, length);
+        buffer.append(getArrayEnd());
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, long[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, long[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, int[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, int[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, short[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, short[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, byte[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, byte[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, char[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, char[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
     }
 
     @Override
     protected void appendDetail(StringBuffer buffer, String fieldName, double[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, double[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, float[] array) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, float[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, boolean[] array) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, array);
+        if (fieldConfig == null) {
+            appendArray(buffer, fieldName, array);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> appendArray(b, fieldName, array));
+        }
+    }
+
+    private void appendArray(StringBuffer buffer, String fieldName, boolean[] array) {
+        int limit = elementLimit(fieldName);
+        if (array.length > limit) {
+            appendLimitedArray(buffer, limit, array.length, i -> appendDetail(buffer, fieldName, array[i]));
+        } else {
+            super.appendDetail(buffer, fieldName, array);
+        }
+    }
+
+    @Override
+    protected void appendNullText(StringBuffer buffer, String fieldName) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig == null) {
+            super.appendNullText(buffer, fieldName);
+        } else {
+            obfuscate(buffer, fieldConfig, b -> super.appendNullText(b, fieldName));
+        }
+    }
+
+    @Override
+    protected void appendSummarySize(StringBuffer buffer, String fieldName, int size) {
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName);
+        if (fieldConfig != null && fieldConfig.obfuscateSummaries) {
+            obfuscate(buffer, fieldConfig, b -> super.appendSummarySize(b, fieldName, size));
+        } else {
+            super.appendSummarySize(buffer, fieldName, size);
+        }
+    }
+
+    /**
+     * Uses reflection to create a string representation of an object using this style.
+     * <p>
+     * This method is similar to calling {@link org.apache.commons.lang3.builder.ToStringBuilder#reflectionToString(Object, ToStringStyle)}
+     * with this style, and produces the same output. However, the fields of each class, how to read them, and which of them need to be
+     * obfuscated are determined only once, instead of every time an object of the class is formatted.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @return The string representation of the given object.
+     */
+    public String reflectionToString(Object object) {
+        if (object == null) {
+            return getNullText();
+        }
+        StringBuffer buffer = new StringBuffer(INITIAL_REFLECTION_CAPACITY);
+        reflect(buffer, object);
+        return buffer.toString();
+    }
+
+    /**
+     * Uses reflection to create a string representation of an object using this style, and appends it to an {@link Appendable}.
+     * <p>
+     * This method produces the same output as {@link #reflectionToString(Object)}. However, instead of creating the entire string representation
+     * in memory, content is written to the given {@link Appendable} in chunks as the object is formatted. Only values of obfuscated fields are
+     * formatted completely before they are obfuscated and written.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @param appendable The {@link Appendable} to append the string representation to. This is often a {@link Writer}.
+     * @throws NullPointerException If the given {@link Appendable} is {@code null}.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void reflectionToString(Object object, Appendable appendable) throws IOException {
+        Objects.requireNonNull(appendable);
+        if (object == null) {
+            appendable.append(getNullText());
+            return;
+        }
+
+        // this method may be called while already streaming, e.g. from the toString() method of a value that is being formatted
+        StringBuffer previousBuffer = streamBuffer;
+        Appendable previousTarget = streamTarget;
+
+        StringBuffer buffer = new StringBuffer(INITIAL_REFLECTION_CAPACITY);
+        streamBuffer = buffer;
+        streamTarget = appendable;
+        try {
+            reflect(buffer, object);
+            writeStreamBuffer(buffer.length());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            streamBuffer = previousBuffer;
+            streamTarget = previousTarget;
+        }
+    }
+
+    /**
+     * Uses reflection to create a string representation of an object using this style, and writes it as UTF-8 to a {@link ByteBuffer}.
+     * <p>
+     * This method produces the same bytes as encoding the result of {@link #reflectionToString(Object)} using UTF-8. However, like
+     * {@link #reflectionToString(Object, Appendable)}, content is encoded in chunks as the object is formatted, directly into the given buffer.
+     * No intermediate {@link String} is created for the string representation. Values of obfuscated fields are obfuscated before they are
+     * encoded.
+     * <p>
+     * Bytes are written starting at the position of the given buffer. Whenever the buffer is full, the given {@link ByteBufferFullHandler} is
+     * called to return a buffer to continue writing to. This can be the same buffer after its content has been written elsewhere, or a larger
+     * buffer that contains all content so far.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @param buffer The buffer to write the string representation to. This can be a heap buffer or a direct buffer.
+     * @param fullHandler The handler to call whenever the buffer is full.
+     * @return The buffer that was written to last. Its position is directly after the last written byte.
+     * @throws NullPointerException If the given buffer or buffer full handler is {@code null}.
+     * @throws IOException If the given buffer full handler throws an {@link IOException}.
+     * @throws BufferOverflowException If a buffer returned by the given buffer full handler has no remaining space.
+     * @see ByteBufferFullHandler#growing()
+     */
+    public ByteBuffer reflectionToUtf8(Object object, ByteBuffer buffer, ByteBufferFullHandler fullHandler) throws IOException {
+        Objects.requireNonNull(buffer);
+        Objects.requireNonNull(fullHandler);
+
+        Utf8ByteBufferWriter writer = new Utf8ByteBufferWriter(buffer, fullHandler);
+        reflectionToString(object, writer);
+        return writer.finish();
+    }
+
+    /*
+     * Writes the content of the given buffer if it is being streamed and it has reached the chunk size, or removes it if only its length is needed.
+     * The last field separator is retained, as appendEnd may remove it.
+     */
+    final void drainIfNeeded(StringBuffer buffer) {
+        if (buffer == captureBuffer) {
+            skipIfNeeded(buffer);
+            return;
+        }
+        // once truncated, content is only appended to be discarded again
+        if (buffer == streamBuffer && buffer.length() >= STREAM_CHUNK_SIZE && !(truncated && buffer == limitBuffer) && canDrain(buffer)) {
+            try {
+                writeStreamBuffer(buffer.length() - getFieldSeparator().length());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /*
+     * Removes content of the given buffer if not all of its content is needed, and enough content can be removed.
+     * The first characters are never removed, and neither are the last characters; the last field separator is retained as well.
+     */
+    private void skipIfNeeded(StringBuffer buffer) {
+        if (buffer == captureBuffer) {
+            int end = buffer.length() - Math.max(captureAtEnd, getFieldSeparator().length());
+            if (end - captureAtStart >= SKIP_CHUNK_SIZE) {
+                skippedLength += end - captureAtStart;
+                buffer.delete(captureAtStart, end);
+            }
+        }
+    }
+
+    private void writeStreamBuffer(int end) throws IOException {
+        if (end <= 0) {
+            return;
+        }
+        if (streamTarget instanceof Writer) {
+            // Writer.append(CharSequence, int, int) would create a String for the sub sequence
+            if (streamChunk == null) {
+                streamChunk = new char[STREAM_CHUNK_SIZE];
+            }
+            Writer writer = (Writer) streamTarget;
+            for (int start = 0; start < end; start += streamChunk.length) {
+                int chunkEnd = Math.min(end, start + streamChunk.length);
+                streamBuffer.getChars(start, chunkEnd, streamChunk, 0);
+                writer.write(streamChunk, 0, chunkEnd - start);
+            }
+        } else {
+            streamTarget.append(streamBuffer, 0, end);
+        }
+        streamBuffer.delete(0, end);
+        if (streamBuffer == limitBuffer) {
+            limitEnd -= end;
+        }
+        drained(streamBuffer, end);
     }
 
-    @Override
-    protected void appendDetail(StringBuffer buffer, String fieldName, float[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+    /*
+     * Returns whether or not content of the given buffer can be written to the target of reflectionToString(Object, Appendable).
+     * Styles that still need to modify content after it has been appended can prevent that content from being written too early.
+     */
+    boolean canDrain(StringBuffer buffer) {
+        return true;
     }
 
-    @Override
-    protected void appendDetail(StringBuffer buffer, String fieldName, boolean[] array) {
-        doAppend(buffer, fieldName, b -> super.appendDetail(b, fieldName, array));
+    /*
+     * Called after the given number of characters have been written and removed from the start of the given buffer.
+     */
+    void drained(StringBuffer buffer, int count) {
+        // no modifications
     }
 
-    @Override
-    protected void appendNullText(StringBuffer buffer, String fieldName) {
-        doAppend(buffer, fieldName, b -> super.appendNullText(b, fieldName));
+    /*
+     * Appends the same as a ReflectionToStringBuilder with default settings, but without the need to look up fields, or field configurations,
+     * every time.
+     */
+    final void reflect(StringBuffer buffer, Object object) {
+        appendStart(buffer, object);
+        boolean ended = false;
+        try {
+            for (Class<?> type = object.getClass(); type != null && !truncateIfNeeded(buffer); type = type.getSuperclass()) {
+                if (type.isArray()) {
+                    reflectionAppendArrayDetail(buffer, null, object);
+                } else {
+                    appendFields(buffer, object, type);
+                }
+            }
+            appendEnd(buffer, object);
+            ended = true;
+        } finally {
+            if (!ended) {
+                // reading a field or formatting a value failed; undo what appendStart did, so this style can still be reused
+                unregister(object);
+                if (buffer == limitBuffer) {
+                    endLimit();
+                }
+            }
+        }
     }
 
-    @Override
-    protected void appendSummarySize(StringBuffer buffer, String fieldName, int size) {
-        FieldConfig fieldConfig = fields.get(fieldName);
-        if (fieldConfig != null && fieldConfig.obfuscateSummaries) {
-            doAppend(buffer, fieldName, b -> super.appendSummarySize(b, fieldName, size));
-        } else {
-            super.appendSummarySize(buffer, fieldName, size);
+    private void appendFields(StringBuffer buffer, Object object, Class<?> type) {
+        ReflectedFields reflectedFields = ReflectedFields.of(type);
+        int[] slots = fields.slotsOfReflectedFields(type);
+        for (int i = 0, size = reflectedFields.size(); i < size && !truncateIfNeeded(buffer); i++) {
+            String fieldName = reflectedFields.name(i);
+            Object value = reflectedFields.value(i, object);
+            resolveField(fieldName, slots[i]);
+            append(buffer, fieldName, value, reflectedFields.fullDetail(i));
+            drainIfNeeded(buffer);
         }
     }
 
@@ -343,6 +1678,23 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
         return Builder.create(NoClassNameObfuscatingToStringStyle::new, NoClassNameObfuscatingToStringStyle::new);
     }
 
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to {@link ToStringStyle#JSON_STYLE}.
+     * <p>
+     * The values of obfuscated fields are always appended as JSON strings, even if they would otherwise be appended as JSON numbers, booleans,
+     * arrays or objects. This keeps the output valid JSON, regardless of which characters the obfuscated values contain. Unlike
+     * {@link ToStringStyle#JSON_STYLE}, only quotes, backslashes and control characters are escaped.
+     * <p>
+     * Like {@link ToStringStyle#JSON_STYLE}, field names are mandatory. Output that is {@link Builder#limitTo(int) truncated} is still valid JSON.
+     * The truncation marker is added as a JSON string element to truncated arrays and collections, and as a field with a {@code null} value
+     * to truncated objects and maps. All objects, arrays, collections and maps that contain the truncation marker are closed as usual.
+     *
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to {@link ToStringStyle#JSON_STYLE}.
+     */
+    public static Builder jsonStyle() {
+        return Builder.create(JsonObfuscatingToStringStyle::new, JsonObfuscatingToStringStyle::new);
+    }
+
     /**
      * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
      * {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}.
@@ -365,18 +1717,36 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
      *         {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}.
      */
     public static Builder recursiveStyle(Predicate<? super Class<?>> recurseIntoPredicate) {
+        return recursiveStyle(recurseIntoPredicate, NO_MAX_DEPTH);
+    }
+
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
+     * {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}, but that only recursively format objects up to a
+     * maximum depth. Objects that are nested deeper are formatted as summaries, e.g. {@code <ClassName>}. If these objects are the values of
+     * obfuscated fields, these summaries are obfuscated.
+     *
+     * @param recurseIntoPredicate A predicate that determines which classes are recursively formatted.
+     *                                 Note that primitive types, primitive wrappers and {@link String} are never recursively formatted.
+     * @param maxDepth The maximum depth of recursively formatted objects. Use {@code 0} to not recursively format any object.
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
+     *         {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}.
+     * @throws IllegalArgumentException If the maximum depth is negative.
+     */
+    public static Builder recursiveStyle(Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
         Objects.requireNonNull(recurseIntoPredicate);
-        return Builder.create(builder -> new RecursiveObfuscatingToStringStyle(builder, recurseIntoPredicate),
-                snapshot -> new RecursiveObfuscatingToStringStyle(snapshot, recurseIntoPredicate));
+        validateMaxDepth(maxDepth);
+        return Builder.create(builder -> new RecursiveObfuscatingToStringStyle(builder, recurseIntoPredicate, maxDepth),
+                snapshot -> new RecursiveObfuscatingToStringStyle(snapshot, recurseIntoPredicate, maxDepth));
     }
 
     /**
      * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
      * {@link org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle MultilineRecursiveToStringStyle}.
-     * This method is similar to calling {@link #recursiveStyle(Predicate)} with a predicate that always returns {@code true}.
+     * This method is similar to calling {@link #multiLineRecursiveStyle(Predicate)} with a predicate that always returns {@code true}.
      *
      * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
-     *         {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}.
+     *         {@link org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle MultilineRecursiveToStringStyle}.
      */
     public static Builder multiLineRecursiveStyle() {
         return multiLineRecursiveStyle(c -> true);
@@ -389,12 +1759,146 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
      * @param recurseIntoPredicate A predicate that determines which classes are recursively formatted.
      *                                 Note that primitive types, primitive wrappers and {@link String} are never recursively formatted.
      * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
-     *         {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}.
+     *         {@link org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle MultilineRecursiveToStringStyle}.
      */
     public static Builder multiLineRecursiveStyle(Predicate<? super Class<?>> recurseIntoPredicate) {
+        return multiLineRecursiveStyle(recurseIntoPredicate, NO_MAX_DEPTH);
+    }
+
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
+     * {@link org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle MultilineRecursiveToStringStyle}, but that only recursively format
+     * objects up to a maximum depth. Objects that are nested deeper are formatted as summaries, e.g. {@code <ClassName>}. If these objects are
+     * the values of obfuscated fields, these summaries are obfuscated.
+     *
+     * @param recurseIntoPredicate A predicate that determines which classes are recursively formatted.
+     *                                 Note that primitive types, primitive wrappers and {@link String} are never recursively formatted.
+     * @param maxDepth The maximum depth of recursively formatted objects. Use {@code 0} to not recursively format any object.
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output similar to
+     *         {@link org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle MultilineRecursiveToStringStyle}.
+     * @throws IllegalArgumentException If the maximum depth is negative.
+     */
+    public static Builder multiLineRecursiveStyle(Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        Objects.requireNonNull(recurseIntoPredicate);
+        validateMaxDepth(maxDepth);
+        return Builder.create(builder -> new MultiLineRecursiveObfuscatingToStringStyle(builder, recurseIntoPredicate, maxDepth),
+                snapshot -> new MultiLineRecursiveObfuscatingToStringStyle(snapshot, recurseIntoPredicate, maxDepth));
+    }
+
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output in the
+     * <a href="https://brandur.org/logfmt">logfmt</a> format, e.g. {@code name=John description="some text"}.
+     * There is no class name, fields are separated by spaces, and values are only quoted if they contain spaces, equals signs, quotes or
+     * control characters. The same applies to the values of obfuscated fields.
+     *
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output in the logfmt format.
+     */
+    public static Builder logfmtStyle() {
+        return Builder.create(builder -> new LogfmtObfuscatingToStringStyle(builder, NO_RECURSION, NO_MAX_DEPTH),
+                snapshot -> new LogfmtObfuscatingToStringStyle(snapshot, NO_RECURSION, NO_MAX_DEPTH));
+    }
+
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output in the
+     * <a href="https://brandur.org/logfmt">logfmt</a> format like {@link #logfmtStyle()}, but that recursively format objects.
+     * This method is similar to calling {@link #logfmtRecursiveStyle(Predicate)} with a predicate that always returns {@code true}.
+     *
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output in the logfmt format.
+     */
+    public static Builder logfmtRecursiveStyle() {
+        return logfmtRecursiveStyle(c -> true);
+    }
+
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output in the
+     * <a href="https://brandur.org/logfmt">logfmt</a> format like {@link #logfmtStyle()}, but that recursively format objects.
+     * <p>
+     * Recursively formatted objects that are the values of fields are flattened: instead of the field itself, the fields of the object are
+     * appended, prefixed with the field name and a dot, e.g. {@code customer.name=John customer.address.city=Amsterdam}. Objects that are
+     * elements of collections, maps or arrays, and objects that are the values of obfuscated fields, are not flattened.
+     *
+     * @param recurseIntoPredicate A predicate that determines which classes are recursively formatted.
+     *                                 Note that primitive types, primitive wrappers and {@link String} are never recursively formatted.
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output in the logfmt format.
+     */
+    public static Builder logfmtRecursiveStyle(Predicate<? super Class<?>> recurseIntoPredicate) {
+        return logfmtRecursiveStyle(recurseIntoPredicate, NO_MAX_DEPTH);
+    }
+
+    /**
+     * Returns a builder that creates obfuscating {@link ToStringStyle} objects that produce output in the
+     * <a href="https://brandur.org/logfmt">logfmt</a> format like {@link #logfmtRecursiveStyle(Predicate)}, but that only recursively format
+     * objects up to a maximum depth. Objects that are nested deeper are formatted as summaries, e.g. {@code <ClassName>}. If these objects are
+     * the values of obfuscated fields, these summaries are obfuscated.
+     *
+     * @param recurseIntoPredicate A predicate that determines which classes are recursively formatted.
+     *                                 Note that primitive types, primitive wrappers and {@link String} are never recursively formatted.
+     * @param maxDepth The maximum depth of recursively formatted objects. Use {@code 0} to not recursively format any object.
+     * @return A builder that creates obfuscating {@link ToStringStyle} objects that produce output in the logfmt format.
+     * @throws IllegalArgumentException If the maximum depth is negative.
+     */
+    public static Builder logfmtRecursiveStyle(Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        Objects.requireNonNull(recurseIntoPredicate);
+        validateMaxDepth(maxDepth);
+        return Builder.create(builder -> new LogfmtObfuscatingToStringStyle(builder, recurseIntoPredicate, maxDepth),
+                snapshot -> new LogfmtObfuscatingToStringStyle(snapshot, recurseIntoPredicate, maxDepth));
+    }
+
+    private static void validateMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException(maxDepth + " < 0"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns a predicate that declares another predicate to be pure. This can be used for the {@code recurseIntoPredicate} arguments of
+     * {@link #recursiveStyle(Predicate)}, {@link #recursiveStyle(Predicate, int)}, {@link #multiLineRecursiveStyle(Predicate)},
+     * {@link #multiLineRecursiveStyle(Predicate, int)}, {@link #logfmtRecursiveStyle(Predicate)} and {@link #logfmtRecursiveStyle(Predicate, int)}.
+     * <p>
+     * A pure predicate always returns the same result for the same class, and has no side effects. The obfuscating {@link ToStringStyle} objects
+     * created by the returned builder will then determine whether or not to recursively format objects of a class only once, and remember the
+     * result for that class. This is useful for predicates that are expensive to evaluate, like predicates that check the package name of
+     * classes. The result is shared by all {@link ToStringStyle} objects created by the same builder or its suppliers.
+     *
+     * @param recurseIntoPredicate The predicate that is pure.
+     * @return A predicate that returns the same results as the given predicate, and that is recognized as being pure.
+     * @throws NullPointerException If the given predicate is {@code null}.
+     */
+    public static Predicate<Class<?>> pure(Predicate<? super Class<?>> recurseIntoPredicate) {
         Objects.requireNonNull(recurseIntoPredicate);
-        return Builder.create(builder -> new MultiLineRecursiveObfuscatingToStringStyle(builder, recurseIntoPredicate),
-                snapshot -> new MultiLineRecursiveObfuscatingToStringStyle(snapshot, recurseIntoPredicate));
+        return recurseIntoPredicate instanceof PureRecurseIntoPredicate
+                ? (PureRecurseIntoPredicate) recurseIntoPredicate
+                : new PureRecurseIntoPredicate(recurseIntoPredicate);
+    }
+
+    static boolean shouldRecurseInto(Class<?> type, Predicate<? super Class<?>> recurseIntoPredicate) {
+        return !ClassUtils.isPrimitiveWrapper(type) && !String.class.equals(type) && recurseIntoPredicate.test(type);
+    }
+
+    static final class PureRecurseIntoPredicate implements Predicate<Class<?>> {
+
+        private final Predicate<? super Class<?>> recurseIntoPredicate;
+
+        // Only Booleans are cached, so caching them does not prevent any class loader from being garbage collected
+        private final ClassValue<Boolean> decisions = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                return ObfuscatingToStringStyle.shouldRecurseInto(type, recurseIntoPredicate);
+            }
+        };
+
+        private PureRecurseIntoPredicate(Predicate<? super Class<?>> recurseIntoPredicate) {
+            this.recurseIntoPredicate = recurseIntoPredicate;
+        }
+
+        @Override
+        public boolean test(Class<?> type) {
+            return recurseIntoPredicate.test(type);
+        }
+
+        boolean shouldRecurseInto(Class<?> type) {
+            return decisions.get(type);
+        }
     }
 
     /**
@@ -482,6 +1986,112 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
          */
         public abstract FieldConfigurer withField(String fieldName, Obfuscator obfuscator, CaseSensitivity caseSensitivity);
 
+        /**
+         * Adds a field that is not obfuscated, but that has other settings, like {@link FieldConfigurer#limitElementsTo(int) the maximum number
+         * of elements}. Settings that only apply to obfuscated fields, like {@link FieldConfigurer#includeSummaries()}, are ignored.
+         * This method is an alias for {@link #withField(String, CaseSensitivity)} with the last specified default case sensitivity using
+         * {@link #caseSensitiveByDefault()} or {@link #caseInsensitiveByDefault()}. The default is {@link CaseSensitivity#CASE_SENSITIVE}.
+         *
+         * @param fieldName The name of the field.
+         * @return An object that can be used to configure the field, or continue building obfuscating {@link ToStringStyle} objects.
+         * @throws NullPointerException If the given field name is {@code null}.
+         * @throws IllegalArgumentException If a field with the same name and the same case sensitivity was already added.
+         */
+        public abstract FieldConfigurer withField(String fieldName);
+
+        /**
+         * Adds a field that is not obfuscated, but that has other settings, like {@link FieldConfigurer#limitElementsTo(int) the maximum number
+         * of elements}. Settings that only apply to obfuscated fields, like {@link FieldConfigurer#includeSummaries()}, are ignored.
+         *
+         * @param fieldName The name of the field.
+         * @param caseSensitivity The case sensitivity for the key.
+         * @return An object that can be used to configure the field, or continue building obfuscating {@link ToStringStyle} objects.
+         * @throws NullPointerException If the given field name or case sensitivity is {@code null}.
+         * @throws IllegalArgumentException If a field with the same name and the same case sensitivity was already added.
+         */
+        public abstract FieldConfigurer withField(String fieldName, CaseSensitivity caseSensitivity);
+
+        /**
+         * Adds a field path to obfuscate. A field path consists of field names separated by dots, e.g. {@code customer.address.street}.
+         * It matches a field only if that field is reached through the fields with the preceding names, starting at the object that is formatted.
+         * This allows fields to be obfuscated in some places but not in others, e.g. {@code customer.address.street} but not
+         * {@code warehouse.address.street}.
+         * <p>
+         * Elements of collections, maps and arrays are reached through the field that contains the collection, map or array. For instance, if
+         * field {@code customer} contains a list of addresses in field {@code addresses}, field path {@code customer.addresses.street} matches the
+         * street of each of these addresses.
+         * <p>
+         * Field paths with more than one field name can only match for styles that recursively format objects, like those created by
+         * {@link ObfuscatingToStringStyle#recursiveStyle()}. Field paths take precedence over field names added using
+         * {@link #withField(String, Obfuscator)}. Field names in field paths are always treated case sensitively.
+         *
+         * @param fieldPath The field path.
+         * @param obfuscator The obfuscator to use for obfuscating the field.
+         * @return An object that can be used to configure the field, or continue building obfuscating {@link ToStringStyle} objects.
+         * @throws NullPointerException If the given field path or obfuscator is {@code null}.
+         * @throws IllegalArgumentException If the given field path contains an empty field name, or if the same field path was already added.
+         */
+        public abstract FieldConfigurer withFieldPath(String fieldPath, Obfuscator obfuscator);
+
+        /**
+         * Adds a field name pattern to obfuscate.
+         * This method is an alias for {@link #withFieldPattern(String, Obfuscator, CaseSensitivity)} with the last specified default case
+         * sensitivity using {@link #caseSensitiveByDefault()} or {@link #caseInsensitiveByDefault()}. The default is
+         * {@link CaseSensitivity#CASE_SENSITIVE}.
+         *
+         * @param pattern The field name pattern.
+         * @param obfuscator The obfuscator to use for obfuscating fields with names that match the pattern.
+         * @return An object that can be used to configure the fields, or continue building obfuscating {@link ToStringStyle} objects.
+         * @throws NullPointerException If the given pattern or obfuscator is {@code null}.
+         * @throws IllegalArgumentException If the given pattern is invalid, or if the same pattern with the same case sensitivity was already
+         *                                      added.
+         * @see #withFieldPattern(String, Obfuscator, CaseSensitivity)
+         */
+        public abstract FieldConfigurer withFieldPattern(String pattern, Obfuscator obfuscator);
+
+        /**
+         * Adds a field name pattern to obfuscate. Field name patterns are glob patterns that must match entire field names. In these patterns,
+         * {@code *} matches any number of characters, {@code ?} matches exactly one character, and {@code \} escapes the next character.
+         * For instance, {@code *Key} matches {@code apiKey} and {@code secretKey}, and {@code *token} matches {@code x_api_token} and, if the
+         * pattern is case insensitive, {@code refreshToken}.
+         * <p>
+         * Field names that are added using {@link #withField(String, Obfuscator)} or field paths that are added using
+         * {@link #withFieldPath(String, Obfuscator)} take precedence over field name patterns. If multiple field name patterns match a field
+         * name, the pattern that was added first is used.
+         * <p>
+         * All field name patterns are compiled into one automaton when an obfuscating {@link ToStringStyle} or {@link #snapshot() snapshot} is
+         * created. Matching a field name therefore does not depend on the number of patterns, and the result is cached per field name.
+         *
+         * @param pattern The field name pattern.
+         * @param obfuscator The obfuscator to use for obfuscating fields with names that match the pattern.
+         * @param caseSensitivity The case sensitivity for the pattern.
+         * @return An object that can be used to configure the fields, or continue building obfuscating {@link ToStringStyle} objects.
+         * @throws NullPointerException If the given pattern, obfuscator or case sensitivity is {@code null}.
+         * @throws IllegalArgumentException If the given pattern is invalid, or if the same pattern with the same case sensitivity was already
+         *                                      added.
+         */
+        public abstract FieldConfigurer withFieldPattern(String pattern, Obfuscator obfuscator, CaseSensitivity caseSensitivity);
+
+        /**
+         * Adds a type to obfuscate. All values of the type and its sub types will be obfuscated, regardless of the fields that contain them.
+         * This includes elements of collections and arrays, and values of maps.
+         * <p>
+         * Fields that are added using {@link #withField(String, Obfuscator)}, {@link #withFieldPath(String, Obfuscator)} or
+         * {@link #withFieldPattern(String, Obfuscator)} take precedence over types. If multiple types match a value, the most specific type is
+         * used; super classes take precedence over interfaces. For instance, for a value of type {@link java.util.ArrayList ArrayList},
+         * {@link java.util.AbstractList AbstractList} takes precedence over {@link java.util.List List}, which takes precedence over
+         * {@link Collection}.
+         * <p>
+         * Which type to use for a value is determined only once for each class.
+         *
+         * @param type The type to obfuscate.
+         * @param obfuscator The obfuscator to use for obfuscating values of the type.
+         * @return An object that can be used to configure the type, or continue building obfuscating {@link ToStringStyle} objects.
+         * @throws NullPointerException If the given type or obfuscator is {@code null}.
+         * @throws IllegalArgumentException If the given type is a primitive type, or if the same type was already added.
+         */
+        public abstract FieldConfigurer withType(Class<?> type, Obfuscator obfuscator);
+
         /**
          * Sets the default case sensitivity for new fields to {@link CaseSensitivity#CASE_SENSITIVE}. This is the default setting.
          * <p>
@@ -518,6 +2128,48 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
          */
         public abstract Builder excludeSummariesByDefault();
 
+        /**
+         * Sets the maximum length of the string representations of objects. If an object's string representation reaches this length, no more
+         * fields, collection elements, map entries or array elements are appended. Instead, a {@link #withTruncationMarker(String) truncation
+         * marker} is appended.
+         * <p>
+         * The length is checked before each of these are appended. Fields, elements and entries that are being appended are never cut off, so
+         * the string representation may exceed the maximum length by the length of the last one of these plus the length of the truncation
+         * marker and the ends of the objects, collections, maps and arrays that contain it. This ensures that obfuscated values are never partly
+         * revealed, and that the string representation remains well-formed. The maximum length applies to objects that are formatted using
+         * reflection or using a {@link org.apache.commons.lang3.builder.ToStringBuilder ToStringBuilder}, and to collections, maps and arrays.
+         * <p>
+         * By default there is no maximum length.
+         *
+         * @param maxLength The maximum length.
+         * @return This object.
+         * @throws IllegalArgumentException If the given maximum length is negative.
+         */
+        public abstract Builder limitTo(int maxLength);
+
+        /**
+         * Sets the marker to append if the {@link #limitTo(int) maximum length} is reached. The default is {@code ...}.
+         *
+         * @param truncationMarker The truncation marker.
+         * @return This object.
+         * @throws NullPointerException If the given truncation marker is {@code null}.
+         */
+        public abstract Builder withTruncationMarker(String truncationMarker);
+
+        /**
+         * Sets the maximum number of elements of collections, maps and arrays that are appended. If a collection, map or array has more
+         * elements, the remaining elements are replaced by a marker with the number of remaining elements, e.g. {@code [1,2,3,...(97 more)]}.
+         * <p>
+         * This can be overridden for specific fields using {@link FieldConfigurer#limitElementsTo(int)}.
+         * <p>
+         * By default there is no maximum number of elements.
+         *
+         * @param maxElements The maximum number of elements.
+         * @return This object.
+         * @throws IllegalArgumentException If the given maximum number of elements is negative.
+         */
+        public abstract Builder limitElementsToByDefault(int maxElements);
+
         /**
          * This method allows the application of a function to this builder.
          * <p>
@@ -531,7 +2183,19 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
             return f.apply(this);
         }
 
-        abstract Map<String, FieldConfig> fields();
+        abstract FieldNameIndex<FieldConfig> fields();
+
+        abstract FieldPathTrie<FieldConfig> fieldPaths();
+
+        abstract FieldNamePatterns<FieldConfig> fieldPatterns();
+
+        abstract TypeIndex<FieldConfig> types();
+
+        abstract int maxLength();
+
+        abstract String truncationMarker();
+
+        abstract int maxElements();
 
         /**
          * Creates a new snapshot of this builder.
@@ -562,6 +2226,18 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
             return snapshot::build;
         }
 
+        /**
+         * Creates a new {@link ToStringStyle} with the fields and obfuscators added to this builder that is immutable and thread safe.
+         * <p>
+         * Unlike obfuscating {@link ToStringStyle} objects created using {@link #build()}, the returned {@link ToStringStyle} can be shared by
+         * multiple threads. This is similar to calling {@link #snapshot()} followed by {@link Snapshot#buildShared()}.
+         *
+         * @return The created {@link ToStringStyle}.
+         */
+        public ToStringStyle buildShared() {
+            return snapshot().buildShared();
+        }
+
         /**
          * A snapshot of the settings of a {@link Builder}. This can be used to create multiple obfuscating {@link ToStringStyle} objects with the
          * same settings.
@@ -572,18 +2248,62 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
 
             private final Function<? super Snapshot, ? extends ObfuscatingToStringStyle> fromSnapshotConstructor;
 
-            private final Map<String, FieldConfig> fields;
+            private final FieldNameIndex<FieldConfig> fields;
+            private final FieldPathTrie<FieldConfig> fieldPaths;
+            private final FieldNamePatterns<FieldConfig> fieldPatterns;
+            private final TypeIndex<FieldConfig> types;
+
+            private final int maxLength;
+            private final String truncationMarker;
+
+            private final int maxElements;
+
+            private final Function<Object, String> lazyRenderer;
 
             private Snapshot(ToStringStyleBuilder builder) {
                 fromSnapshotConstructor = builder.fromSnapshotConstructor;
 
                 fields = builder.fields();
+                fieldPaths = builder.fieldPaths();
+                fieldPatterns = builder.fieldPatterns();
+                types = builder.types();
+
+                maxLength = builder.maxLength();
+                truncationMarker = builder.truncationMarker();
+
+                maxElements = builder.maxElements();
+
+                lazyRenderer = object -> build().reflectionToString(object);
             }
 
-            private Map<String, FieldConfig> fields() {
+            FieldNameIndex<FieldConfig> fields() {
                 return fields;
             }
 
+            private FieldPathTrie<FieldConfig> fieldPaths() {
+                return fieldPaths;
+            }
+
+            private FieldNamePatterns<FieldConfig> fieldPatterns() {
+                return fieldPatterns;
+            }
+
+            private TypeIndex<FieldConfig> types() {
+                return types;
+            }
+
+            private int maxLength() {
+                return maxLength;
+            }
+
+            private String truncationMarker() {
+                return truncationMarker;
+            }
+
+            private int maxElements() {
+                return maxElements;
+            }
+
             /**
              * Creates a new obfuscating {@link ToStringStyle} with the fields and obfuscators in this {@link Builder} snapshot.
              *
@@ -592,11 +2312,101 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
             public ObfuscatingToStringStyle build() {
                 return fromSnapshotConstructor.apply(this);
             }
+
+            /**
+             * Creates a new {@link ToStringStyle} with the fields and obfuscators in this {@link Builder} snapshot that is immutable and thread
+             * safe.
+             * <p>
+             * The returned {@link ToStringStyle} does not have any state of its own. Instead, each object is formatted by an obfuscating
+             * {@link ToStringStyle} {@link #build() built} from this snapshot that is borrowed from a {@link #pool(int) pool} until formatting
+             * the object has finished. This allows it to be used concurrently, as well as for formatting multiple objects at the same time in
+             * the same thread, for instance from within the {@link Object#toString()} method of a value that is being formatted.
+             *
+             * @return The created {@link ToStringStyle}.
+             */
+            public ToStringStyle buildShared() {
+                return new SharedObfuscatingToStringStyle(this);
+            }
+
+            /**
+             * Creates a new bounded pool of obfuscating {@link ToStringStyle} objects with the fields and obfuscators in this {@link Builder}
+             * snapshot.
+             * <p>
+             * Unlike a {@link ThreadLocal}, the number of obfuscating {@link ToStringStyle} objects that is retained by such a pool does not
+             * depend on the number of threads that use it. This makes it suitable for applications that use a large number of (virtual) threads.
+             *
+             * @param maxSize The maximum number of obfuscating {@link ToStringStyle} objects to retain.
+             * @return The created pool.
+             * @throws IllegalArgumentException If the given maximum size is not positive.
+             */
+            public StylePool pool(int maxSize) {
+                return new StylePool(this, maxSize);
+            }
+
+            /**
+             * Returns an object with a string representation of an object that is only created when it is first needed.
+             * <p>
+             * The string representation is created using reflection, using a new obfuscating {@link ToStringStyle} {@link #build() built} from
+             * this snapshot, the first time {@link LazyToString#toString()} is called. This makes it suitable for log messages that may not be
+             * logged at all:
+             * <pre><code>
+             * logger.debug("Received {}", snapshot.lazy(request));
+             * </code></pre>
+             *
+             * @param object The object to create a string representation of; may be {@code null}.
+             * @return An object with a string representation of the given object.
+             * @see ObfuscatingToStringStyle#reflectionToString(Object)
+             * @see StylePool#lazy(Object)
+             */
+            public LazyToString lazy(Object object) {
+                return new LazyToString(object, lazyRenderer);
+            }
+        }
+
+        /**
+         * An object with a string representation of another object that is only created when it is first needed, and then cached.
+         * Instances of this class are thread safe.
+         * <p>
+         * The string representation is created the first time {@link #toString()} is called, and returned for all subsequent calls, from any
+         * thread. No locks are used; if multiple threads call {@link #toString()} concurrently before the string representation is available,
+         * each of these threads may create it. As a result, the object should not be modified until the string representation is available.
+         *
+         * @author Rob Spoor
+         * @see Snapshot#lazy(Object)
+         * @see StylePool#lazy(Object)
+         */
+        public static final class LazyToString {
+
+            private final Object object;
+            private final Function<Object, String> renderer;
+
+            // volatile to safely publish the string representation to other threads
+            private volatile String string;
+
+            LazyToString(Object object, Function<Object, String> renderer) {
+                this.object = object;
+                this.renderer = renderer;
+            }
+
+            /**
+             * Returns the string representation of the object. It is created on the first call.
+             *
+             * @return The string representation of the object.
+             */
+            @Override
+            public String toString() {
+                String result = string;
+                if (result == null) {
+                    result = renderer.apply(object);
+                    string = result;
+                }
+                return result;
+            }
         }
     }
 
     /**
-     * An object that can be used to configure a field that should be obfuscated.
+     * An object that can be used to configure a field.
      *
      * @author Rob Spoor
      */
@@ -607,18 +2417,110 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
         }
 
         /**
-         * Indicates that fields with the current name will have their summaries obfuscated.
+         * Indicates that fields with the current name will have their summaries obfuscated.
+         *
+         * @return This object.
+         */
+        public abstract FieldConfigurer includeSummaries();
+
+        /**
+         * Indicates that fields with the current name will not have their summaries obfuscated.
+         *
+         * @return This object.
+         */
+        public abstract FieldConfigurer excludeSummaries();
+
+        /**
+         * Indicates that the obfuscator for fields with the current name returns the same result for every value.
+         * Values of these fields will not be formatted at all; the result of obfuscating an empty string is appended instead.
+         * <p>
+         * This is done automatically for obfuscators returned by {@link Obfuscator#fixedLength(int)}, {@link Obfuscator#fixedLength(int, char)}
+         * and {@link Obfuscator#fixedValue(String)}.
+         *
+         * @return This object.
+         */
+        public abstract FieldConfigurer fixedOutput();
+
+        /**
+         * Indicates that the obfuscator for fields with the current name keeps at most the given numbers of characters at the start and end of
+         * values, and replaces all other characters regardless of their value, like obfuscators returned by {@link Obfuscator#portion()}.
+         * While values of these fields are formatted, only these characters and the length of the value are retained.
+         * The obfuscator is given a {@link CharSequence} with the full length of the value, but characters other than these are not available.
+         *
+         * @param atStart The maximum number of characters at the start of values that the obfuscator keeps.
+         * @param atEnd The maximum number of characters at the end of values that the obfuscator keeps.
+         * @return This object.
+         * @throws IllegalArgumentException If either number of characters is negative.
+         */
+        public abstract FieldConfigurer keepsAtMost(int atStart, int atEnd);
+
+        /**
+         * Sets the maximum number of elements of collections, maps and arrays that are appended for fields with the current name.
+         * This overrides the {@link #limitElementsToByDefault(int) maximum number of elements} of the style for these fields.
+         * <p>
+         * For obfuscated fields, this includes any collections, maps and arrays that are nested in their values. The values are limited before
+         * they are obfuscated, so the marker that replaces the remaining elements is obfuscated as well.
+         * For fields that are {@link #withField(String) not obfuscated}, this includes collections, maps and arrays that are elements of their
+         * values, but not the fields of objects that are nested in their values.
+         *
+         * @param maxElements The maximum number of elements.
+         * @return This object.
+         * @throws IllegalArgumentException If the given maximum number of elements is negative.
+         */
+        public abstract FieldConfigurer limitElementsTo(int maxElements);
+    }
+
+    /**
+     * A handler for {@link ByteBuffer ByteBuffers} that are full while {@link ObfuscatingToStringStyle#reflectionToUtf8(Object, ByteBuffer,
+     * ByteBufferFullHandler) writing UTF-8}.
+     * <p>
+     * A handler can flush the content of the buffer and return the same buffer, or grow the buffer. For instance, to write to a channel:
+     * <pre><code>
+     * ByteBufferFullHandler flushToChannel = buffer -&gt; {
+     *     buffer.flip();
+     *     while (buffer.hasRemaining()) {
+     *         channel.write(buffer);
+     *     }
+     *     buffer.clear();
+     *     return buffer;
+     * };
+     * </code></pre>
+     *
+     * @author Rob Spoor
+     */
+    @FunctionalInterface
+    public interface ByteBufferFullHandler {
+
+        /**
+         * Handles a full buffer.
          *
-         * @return This object.
+         * @param buffer The full buffer. Its position is the same as its limit.
+         * @return The buffer to continue writing to, which must have remaining space.
+         *         Bytes are written starting at its position, so any content before it is retained.
+         * @throws IOException If an I/O error occurs.
          */
-        public abstract FieldConfigurer includeSummaries();
+        ByteBuffer handle(ByteBuffer buffer) throws IOException;
 
         /**
-         * Indicates that fields with the current name will not have their summaries obfuscated.
+         * Returns a handler that grows full buffers. It returns a new buffer with double the capacity, that contains the content of the full
+         * buffer up to its position. If the full buffer is a direct buffer, so is the new buffer.
          *
-         * @return This object.
+         * @return A handler that grows full buffers.
          */
-        public abstract FieldConfigurer excludeSummaries();
+        static ByteBufferFullHandler growing() {
+            return buffer -> {
+                int capacity = buffer.capacity();
+                if (capacity == Integer.MAX_VALUE) {
+                    throw new BufferOverflowException();
+                }
+                int newCapacity = (int) Math.min(Integer.MAX_VALUE, Math.max(16L, capacity * 2L));
+                ByteBuffer newBuffer = buffer.isDirect() ? ByteBuffer.allocateDirect(newCapacity) : ByteBuffer.allocate(newCapacity);
+                // cast to Buffer, as ByteBuffer.flip() does not exist in Java 8
+                ((Buffer) buffer).flip();
+                newBuffer.put(buffer);
+                return newBuffer;
+            };
+        }
     }
 
     private static final class ToStringStyleBuilder extends FieldConfigurer {
@@ -626,16 +2528,39 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
         private final Function<? super Builder, ? extends ObfuscatingToStringStyle> fromBuilderConstructor;
         private final Function<? super Snapshot, ? extends ObfuscatingToStringStyle> fromSnapshotConstructor;
 
+        // only used to validate field names; the fields are compiled into a FieldNameIndex from the following two maps
         private final MapBuilder<FieldConfig> fields;
 
+        private final Map<String, FieldConfig> caseSensitiveFields;
+        private final Map<String, FieldConfig> caseInsensitiveFields;
+
+        private final Map<String, FieldConfig> fieldPaths;
+
+        // in the order in which they were added
+        private final List<FieldNamePatterns.Rule<FieldConfig>> fieldPatterns;
+        private final Map<Class<?>, FieldConfig> types;
+
         // default settings
+        private CaseSensitivity defaultCaseSensitivity;
         private boolean obfuscateSummariesByDefault;
 
-        // per field settings
+        private int maxLength;
+        private String truncationMarker;
+
+        private int maxElements;
+
+        // per field settings; either fieldName, fieldPath, fieldPattern or type is set
         private String fieldName;
+        private String fieldPath;
+        private String fieldPattern;
+        private Class<?> type;
         private Obfuscator obfuscator;
         private CaseSensitivity caseSensitivity;
         private boolean obfuscateSummaries;
+        private boolean fixedOutput;
+        private int keepAtStart;
+        private int keepAtEnd;
+        private int fieldMaxElements;
 
         private ToStringStyleBuilder(Function<? super Builder, ? extends ObfuscatingToStringStyle> fromBuilderConstructor,
                 Function<? super Snapshot, ? extends ObfuscatingToStringStyle> fromSnapshotConstructor) {
@@ -645,33 +2570,163 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
 
             fields = new MapBuilder<>();
 
+            caseSensitiveFields = new HashMap<>();
+            caseInsensitiveFields = new HashMap<>();
+
+            fieldPaths = new HashMap<>();
+
+            fieldPatterns = new ArrayList<>();
+            types = new LinkedHashMap<>();
+
+            defaultCaseSensitivity = CaseSensitivity.CASE_SENSITIVE;
             obfuscateSummariesByDefault = false;
+
+            maxLength = NO_MAX_LENGTH;
+            truncationMarker = DEFAULT_TRUNCATION_MARKER;
+
+            maxElements = NO_MAX_ELEMENTS;
+        }
+
+        @Override
+        public FieldConfigurer withField(String fieldName) {
+            return addField(fieldName, null);
         }
 
         @Override
         public FieldConfigurer withField(String fieldName, Obfuscator obfuscator) {
+            return addField(fieldName, Objects.requireNonNull(obfuscator));
+        }
+
+        private FieldConfigurer addField(String fieldName, Obfuscator obfuscator) {
             addLastField();
 
             fields.testEntry(fieldName);
 
             this.fieldName = fieldName;
+            this.fieldPath = null;
+            this.fieldPattern = null;
+            this.type = null;
             this.obfuscator = obfuscator;
             this.caseSensitivity = null;
             this.obfuscateSummaries = obfuscateSummariesByDefault;
+            this.fixedOutput = false;
+            this.keepAtStart = NOT_BOUNDED;
+            this.keepAtEnd = NOT_BOUNDED;
+            this.fieldMaxElements = STYLE_MAX_ELEMENTS;
 
             return this;
         }
 
+        @Override
+        public FieldConfigurer withField(String fieldName, CaseSensitivity caseSensitivity) {
+            return addField(fieldName, null, caseSensitivity);
+        }
+
         @Override
         public FieldConfigurer withField(String fieldName, Obfuscator obfuscator, CaseSensitivity caseSensitivity) {
+            return addField(fieldName, Objects.requireNonNull(obfuscator), caseSensitivity);
+        }
+
+        private FieldConfigurer addField(String fieldName, Obfuscator obfuscator, CaseSensitivity caseSensitivity) {
             addLastField();
 
             fields.testEntry(fieldName, caseSensitivity);
 
             this.fieldName = fieldName;
+            this.fieldPath = null;
+            this.fieldPattern = null;
+            this.type = null;
+            this.obfuscator = obfuscator;
+            this.caseSensitivity = caseSensitivity;
+            this.obfuscateSummaries = obfuscateSummariesByDefault;
+            this.fixedOutput = false;
+            this.keepAtStart = NOT_BOUNDED;
+            this.keepAtEnd = NOT_BOUNDED;
+            this.fieldMaxElements = STYLE_MAX_ELEMENTS;
+
+            return this;
+        }
+
+        @Override
+        public FieldConfigurer withFieldPath(String fieldPath, Obfuscator obfuscator) {
+            addLastField();
+
+            Objects.requireNonNull(obfuscator);
+            FieldPathTrie.split(fieldPath);
+            if (fieldPaths.containsKey(fieldPath)) {
+                throw new IllegalArgumentException("Duplicate field path: " + fieldPath); //$NON-NLS-1$
+            }
+
+            this.fieldName = null;
+            this.fieldPath = fieldPath;
+            this.fieldPattern = null;
+            this.type = null;
+            this.obfuscator = obfuscator;
+            this.caseSensitivity = null;
+            this.obfuscateSummaries = obfuscateSummariesByDefault;
+            this.fixedOutput = false;
+            this.keepAtStart = NOT_BOUNDED;
+            this.keepAtEnd = NOT_BOUNDED;
+            this.fieldMaxElements = STYLE_MAX_ELEMENTS;
+
+            return this;
+        }
+
+        @Override
+        public FieldConfigurer withFieldPattern(String pattern, Obfuscator obfuscator) {
+            return withFieldPattern(pattern, obfuscator, defaultCaseSensitivity);
+        }
+
+        @Override
+        public FieldConfigurer withFieldPattern(String pattern, Obfuscator obfuscator, CaseSensitivity caseSensitivity) {
+            addLastField();
+
+            Objects.requireNonNull(obfuscator);
+            Objects.requireNonNull(caseSensitivity);
+            FieldNamePatterns.validate(pattern);
+            boolean caseSensitive = caseSensitivity == CaseSensitivity.CASE_SENSITIVE;
+            if (fieldPatterns.stream().anyMatch(r -> r.hasPattern(pattern, caseSensitive))) {
+                throw new IllegalArgumentException("Duplicate field name pattern: " + pattern); //$NON-NLS-1$
+            }
+
+            this.fieldName = null;
+            this.fieldPath = null;
+            this.fieldPattern = pattern;
+            this.type = null;
             this.obfuscator = obfuscator;
             this.caseSensitivity = caseSensitivity;
             this.obfuscateSummaries = obfuscateSummariesByDefault;
+            this.fixedOutput = false;
+            this.keepAtStart = NOT_BOUNDED;
+            this.keepAtEnd = NOT_BOUNDED;
+            this.fieldMaxElements = STYLE_MAX_ELEMENTS;
+
+            return this;
+        }
+
+        @Override
+        public FieldConfigurer withType(Class<?> type, Obfuscator obfuscator) {
+            addLastField();
+
+            Objects.requireNonNull(obfuscator);
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Primitive type: " + type); //$NON-NLS-1$
+            }
+            if (types.containsKey(type)) {
+                throw new IllegalArgumentException("Duplicate type: " + type); //$NON-NLS-1$
+            }
+
+            this.fieldName = null;
+            this.fieldPath = null;
+            this.fieldPattern = null;
+            this.type = type;
+            this.obfuscator = obfuscator;
+            this.caseSensitivity = null;
+            this.obfuscateSummaries = obfuscateSummariesByDefault;
+            this.fixedOutput = false;
+            this.keepAtStart = NOT_BOUNDED;
+            this.keepAtEnd = NOT_BOUNDED;
+            this.fieldMaxElements = STYLE_MAX_ELEMENTS;
 
             return this;
         }
@@ -679,12 +2734,14 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
         @Override
         public Builder caseSensitiveByDefault() {
             fields.caseSensitiveByDefault();
+            defaultCaseSensitivity = CaseSensitivity.CASE_SENSITIVE;
             return this;
         }
 
         @Override
         public Builder caseInsensitiveByDefault() {
             fields.caseInsensitiveByDefault();
+            defaultCaseSensitivity = CaseSensitivity.CASE_INSENSITIVE;
             return this;
         }
 
@@ -701,416 +2758,251 @@ public abstract class ObfuscatingToStringStyle extends ToStringStyle {
         }
 
         @Override
-        public FieldConfigurer includeSummaries() {
-            obfuscateSummaries = true;
+        public Builder limitTo(int maxLength) {
+            if (maxLength < 0) {
+                throw new IllegalArgumentException(maxLength + " < 0"); //$NON-NLS-1$
+            }
+            this.maxLength = maxLength;
             return this;
         }
 
         @Override
-        public FieldConfigurer excludeSummaries() {
-            obfuscateSummaries = false;
+        public Builder withTruncationMarker(String truncationMarker) {
+            this.truncationMarker = Objects.requireNonNull(truncationMarker);
             return this;
         }
 
         @Override
-        Map<String, FieldConfig> fields() {
-            return fields.build();
-        }
-
-        private void addLastField() {
-            if (fieldName != null) {
-                FieldConfig fieldConfig = new FieldConfig(obfuscator, obfuscateSummaries);
-                if (caseSensitivity != null) {
-                    fields.withEntry(fieldName, fieldConfig, caseSensitivity);
-                } else {
-                    fields.withEntry(fieldName, fieldConfig);
-                }
+        public Builder limitElementsToByDefault(int maxElements) {
+            if (maxElements < 0) {
+                throw new IllegalArgumentException(maxElements + " < 0"); //$NON-NLS-1$
             }
-
-            fieldName = null;
-            obfuscator = null;
-            caseSensitivity = null;
-            obfuscateSummaries = obfuscateSummariesByDefault;
+            this.maxElements = maxElements;
+            return this;
         }
 
         @Override
-        public Snapshot snapshot() {
-            addLastField();
-
-            return new Snapshot(this);
+        public FieldConfigurer includeSummaries() {
+            obfuscateSummaries = true;
+            return this;
         }
 
         @Override
-        public ObfuscatingToStringStyle build() {
-            addLastField();
-
-            return fromBuilderConstructor.apply(this);
-        }
-    }
-
-    private static final class FieldConfig {
-
-        private final Obfuscator obfuscator;
-        private final boolean obfuscateSummaries;
-
-        private FieldConfig(Obfuscator obfuscator, boolean obfuscateSummaries) {
-            this.obfuscator = Objects.requireNonNull(obfuscator);
-            this.obfuscateSummaries = obfuscateSummaries;
-        }
-    }
-
-    private static final class DefaultObfuscatingToStringStyle extends ObfuscatingToStringStyle {
-
-        private static final long serialVersionUID = 1L;
-
-        private DefaultObfuscatingToStringStyle(Builder builder) {
-            super(builder);
-            // no modifications
-        }
-
-        private DefaultObfuscatingToStringStyle(Snapshot snapshot) {
-            super(snapshot);
-            // no modifications
-        }
-    }
-
-    private static final class MultiLineObfuscatingToStringStyle extends ObfuscatingToStringStyle {
-
-        private static final long serialVersionUID = 1L;
-
-        private MultiLineObfuscatingToStringStyle(Builder builder) {
-            super(builder);
-            configure();
-        }
-
-        private MultiLineObfuscatingToStringStyle(Snapshot snapshot) {
-            super(snapshot);
-            configure();
-        }
-
-        private void configure() {
-            setContentStart("["); //$NON-NLS-1$
-            setFieldSeparator(System.lineSeparator() + "  "); //$NON-NLS-1$
-            setFieldSeparatorAtStart(true);
-            setContentEnd(System.lineSeparator() + "]"); //$NON-NLS-1$
+        public FieldConfigurer excludeSummaries() {
+            obfuscateSummaries = false;
+            return this;
         }
-    }
-
-    private static final class NoFieldNamesObfuscatingToStringStyle extends ObfuscatingToStringStyle {
 
-        private static final long serialVersionUID = 1L;
-
-        private NoFieldNamesObfuscatingToStringStyle(Builder builder) {
-            super(builder);
-            configure();
+        @Override
+        public FieldConfigurer fixedOutput() {
+            fixedOutput = true;
+            return this;
         }
 
-        private NoFieldNamesObfuscatingToStringStyle(Snapshot snapshot) {
-            super(snapshot);
-            configure();
+        @Override
+        public FieldConfigurer keepsAtMost(int atStart, int atEnd) {
+            if (atStart < 0) {
+                throw new IllegalArgumentException(atStart + " < 0"); //$NON-NLS-1$
+            }
+            if (atEnd < 0) {
+                throw new IllegalArgumentException(atEnd + " < 0"); //$NON-NLS-1$
+            }
+            keepAtStart = atStart;
+            keepAtEnd = atEnd;
+            return this;
         }
 
-        private void configure() {
-            setUseFieldNames(false);
+        @Override
+        public FieldConfigurer limitElementsTo(int maxElements) {
+            if (maxElements < 0) {
+                throw new IllegalArgumentException(maxElements + " < 0"); //$NON-NLS-1$
+            }
+            fieldMaxElements = maxElements;
+            return this;
         }
-    }
-
-    private static final class ShortPrefixObfuscatingToStringStyle extends ObfuscatingToStringStyle {
 
-        private static final long serialVersionUID = 1L;
-
-        private ShortPrefixObfuscatingToStringStyle(Builder builder) {
-            super(builder);
-            configure();
+        @Override
+        FieldNameIndex<FieldConfig> fields() {
+            return FieldNameIndex.compile(caseSensitiveFields, caseInsensitiveFields);
         }
 
-        private ShortPrefixObfuscatingToStringStyle(Snapshot snapshot) {
-            super(snapshot);
-            configure();
+        @Override
+        FieldPathTrie<FieldConfig> fieldPaths() {
+            return FieldPathTrie.compile(fieldPaths);
         }
 
-        private void configure() {
-            setUseShortClassName(true);
-            setUseIdentityHashCode(false);
+        @Override
+        FieldNamePatterns<FieldConfig> fieldPatterns() {
+            return FieldNamePatterns.compile(fieldPatterns);
         }
-    }
-
-    private static final class SimpleObfuscatingToStringStyle extends ObfuscatingToStringStyle {
 
-        private static final long serialVersionUID = 1L;
-
-        private SimpleObfuscatingToStringStyle(Builder builder) {
-            super(builder);
-            configure();
+        @Override
+        TypeIndex<FieldConfig> types() {
+            return TypeIndex.compile(types);
         }
 
-        private SimpleObfuscatingToStringStyle(Snapshot snapshot) {
-            super(snapshot);
-            configure();
+        @Override
+        int maxLength() {
+            return maxLength;
         }
 
-        private void configure() {
-            setUseClassName(false);
-            setUseIdentityHashCode(false);
-            setUseFieldNames(false);
-            setContentStart(""); //$NON-NLS-1$
-            setContentEnd(""); //$NON-NLS-1$
+        @Override
+        String truncationMarker() {
+            return truncationMarker;
         }
-    }
-
-    private static final class NoClassNameObfuscatingToStringStyle extends ObfuscatingToStringStyle {
 
-        private static final long serialVersionUID = 1L;
-
-        private NoClassNameObfuscatingToStringStyle(Builder builder) {
-            super(builder);
-            configure();
+        @Override
+        int maxElements() {
+            return maxElements;
         }
 
-        private NoClassNameObfuscatingToStringStyle(Snapshot snapshot) {
-            super(snapshot);
-            configure();
-        }
+        private void addLastField() {
+            if (fieldPath != null) {
+                fieldPaths.put(fieldPath, new FieldConfig(obfuscator, obfuscateSummaries, fixedOutput, keepAtStart, keepAtEnd, fieldMaxElements));
+            }
+            if (type != null) {
+                types.put(type, new FieldConfig(obfuscator, obfuscateSummaries, fixedOutput, keepAtStart, keepAtEnd, fieldMaxElements));
+            }
+            if (fieldPattern != null) {
+                FieldConfig fieldConfig = new FieldConfig(obfuscator, obfuscateSummaries, fixedOutput, keepAtStart, keepAtEnd, fieldMaxElements);
+                fieldPatterns.add(new FieldNamePatterns.Rule<>(fieldPattern, caseSensitivity == CaseSensitivity.CASE_SENSITIVE, fieldConfig));
+            }
+            if (fieldName != null) {
+                FieldConfig fieldConfig = new FieldConfig(obfuscator, obfuscateSummaries, fixedOutput, keepAtStart, keepAtEnd, fieldMaxElements);
+                CaseSensitivity fieldCaseSensitivity = caseSensitivity != null ? caseSensitivity : defaultCaseSensitivity;
+                fields.withEntry(fieldName, fieldConfig, fieldCaseSensitivity);
+                if (fieldCaseSensitivity == CaseSensitivity.CASE_SENSITIVE) {
+                    caseSensitiveFields.put(fieldName, fieldConfig);
+                } else {
+                    caseInsensitiveFields.put(fieldName, fieldConfig);
+                }
+            }
 
-        private void configure() {
-            setUseClassName(false);
-            setUseIdentityHashCode(false);
+            fieldName = null;
+            fieldPath = null;
+            fieldPattern = null;
+            type = null;
+            obfuscator = null;
+            caseSensitivity = null;
+            obfuscateSummaries = obfuscateSummariesByDefault;
+            fixedOutput = false;
+            keepAtStart = NOT_BOUNDED;
+            keepAtEnd = NOT_BOUNDED;
+            fieldMaxElements = STYLE_MAX_ELEMENTS;
         }
-    }
-
-    private static class RecursiveObfuscatingToStringStyle extends ObfuscatingToStringStyle {
-
-        private static final long serialVersionUID = 1L;
 
-        private final Predicate<? super Class<?>> recurseIntoPredicate;
-
-        RecursiveObfuscatingToStringStyle(Builder builder, Predicate<? super Class<?>> recurseIntoPredicate) {
-            super(builder);
-            this.recurseIntoPredicate = Objects.requireNonNull(recurseIntoPredicate);
-        }
+        @Override
+        public Snapshot snapshot() {
+            addLastField();
 
-        RecursiveObfuscatingToStringStyle(Snapshot snapshot, Predicate<? super Class<?>> recurseIntoPredicate) {
-            super(snapshot);
-            this.recurseIntoPredicate = Objects.requireNonNull(recurseIntoPredicate);
+            return new Snapshot(this);
         }
 
         @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, Object value) {
-            if (shouldRecurseInto(value)) {
-                // ignore the result of toString(), since the new ReflectionToStringBuilder will share the buffer and append directly to it
-                doAppend(buffer, fieldName, b -> new ReflectionToStringBuilder(value, this, b).toString());
-            } else {
-                super.appendDetail(buffer, fieldName, value);
-            }
-        }
+        public ObfuscatingToStringStyle build() {
+            addLastField();
 
-        boolean shouldRecurseInto(Object value) {
-            Class<?> valueType = value.getClass();
-            return !ClassUtils.isPrimitiveWrapper(valueType) && !String.class.equals(valueType) && recurseIntoPredicate.test(valueType);
+            return fromBuilderConstructor.apply(this);
         }
     }
 
-    private static final class MultiLineRecursiveObfuscatingToStringStyle extends RecursiveObfuscatingToStringStyle {
-
-        private static final long serialVersionUID = 1L;
-
-        private static final int INDENT = 2;
-
-        private int currentIndent;
-
-        private MultiLineRecursiveObfuscatingToStringStyle(Builder builder, Predicate<? super Class<?>> recurseIntoPredicate) {
-            super(builder, recurseIntoPredicate);
-            setIndent(1);
-        }
-
-        private MultiLineRecursiveObfuscatingToStringStyle(Snapshot snapshot, Predicate<? super Class<?>> recurseIntoPredicate) {
-            super(snapshot, recurseIntoPredicate);
-            setIndent(1);
-        }
-
-        private void setIndent(int newIndent) {
-            currentIndent = newIndent;
-
-            final String lineSeparator = System.lineSeparator();
-
-            setArrayStart(indented('{', lineSeparator, currentIndent));
-            setArraySeparator(indented(',', lineSeparator, currentIndent));
-            setArrayEnd(indented(lineSeparator, currentIndent - 1, '}'));
-
-            setContentStart(indented('[', lineSeparator, currentIndent));
-            setFieldSeparator(indented(',', lineSeparator, currentIndent));
-            setContentEnd(indented(lineSeparator, currentIndent - 1, ']'));
-        }
-
-        private void increaseIndent() {
-            setIndent(currentIndent + 1);
-        }
-
-        private void decreaseIndent() {
-            setIndent(currentIndent - 1);
-        }
-
-        /**
-         * @return prefix + line separator + indent
-         */
-        private String indented(char prefix, String lineSeparator, int indentLevel) {
-            StringBuilder sb = new StringBuilder(1 + lineSeparator.length() + indentLevel * INDENT);
-            sb.append(prefix);
-            sb.append(lineSeparator);
-            indent(sb, indentLevel);
-            return sb.toString();
-        }
-
-        /**
-         * @return line separator + indent + postfix
-         */
-        private String indented(String lineSeparator, int indentLevel, char postfix) {
-            StringBuilder sb = new StringBuilder(lineSeparator.length() + indentLevel * INDENT + 1);
-            sb.append(lineSeparator);
-            indent(sb, indentLevel);
-            sb.append(postfix);
-            return sb.toString();
-        }
+    static final class FieldConfig {
 
-        private void indent(StringBuilder sb, int indentLevel) {
-            for (int i = 0, count = indentLevel * INDENT; i < count; i++) {
-                sb.append(' ');
-            }
-        }
+        // the obfuscators returned by Obfuscator.fixedLength and Obfuscator.fixedValue ignore their input; their classes are not accessible
+        private static final Class<?> FIXED_LENGTH_OBFUSCATOR_CLASS = Obfuscator.fixedLength(1).getClass();
+        private static final Class<?> FIXED_VALUE_OBFUSCATOR_CLASS = Obfuscator.fixedValue("*").getClass(); //$NON-NLS-1$
+        // the obfuscators returned by Obfuscator.all replace each character with the same mask character
+        private static final Class<?> ALL_OBFUSCATOR_CLASS = Obfuscator.all().getClass();
 
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, Object value) {
-            if (shouldRecurseInto(value)) {
-                increaseIndent();
-                try {
-                    // ignore the result of toString(), since the new ReflectionToStringBuilder will share the buffer and append directly to it
-                    doAppend(buffer, fieldName, b -> new ReflectionToStringBuilder(value, this, b).toString());
-                } finally {
-                    decreaseIndent();
-                }
-            } else {
-                super.appendDetail(buffer, fieldName, value);
-            }
-        }
+        // null for fields that are not obfuscated, but only have other settings
+        private final Obfuscator obfuscator;
+        private final boolean obfuscateSummaries;
+        // null unless the obfuscator returns the same result for every value
+        private final String fixedOutput;
+        // NO_MASK_CHAR unless the obfuscator replaces each character with the same mask character
+        private final char maskChar;
+        // NOT_BOUNDED unless the obfuscator keeps at most a number of characters at the start and end, and replaces all others
+        private final int keepAtStart;
+        private final int keepAtEnd;
+        // STYLE_MAX_ELEMENTS unless the field has its own maximum number of elements
+        private final int maxElements;
+
+        private FieldConfig(Obfuscator obfuscator, boolean obfuscateSummaries, boolean fixedOutput, int keepAtStart, int keepAtEnd,
+                int maxElements) {
 
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, Collection<?> coll) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, coll);
-            } finally {
-                decreaseIndent();
-            }
+            this.obfuscator = obfuscator;
+            this.obfuscateSummaries = obfuscator != null && obfuscateSummaries;
+            this.fixedOutput = obfuscator != null && (fixedOutput || hasFixedOutput(obfuscator))
+                    ? obfuscator.obfuscateText("").toString() //$NON-NLS-1$
+                    : null;
+            this.maskChar = obfuscator != null && obfuscator.getClass() == ALL_OBFUSCATOR_CLASS
+                    ? obfuscator.obfuscateText(" ").charAt(0) //$NON-NLS-1$
+                    : NO_MASK_CHAR;
+            this.keepAtStart = keepAtStart;
+            this.keepAtEnd = keepAtEnd;
+            this.maxElements = maxElements;
+        }
+
+        private static boolean hasFixedOutput(Obfuscator obfuscator) {
+            Class<?> obfuscatorClass = obfuscator.getClass();
+            return obfuscatorClass == FIXED_LENGTH_OBFUSCATOR_CLASS || obfuscatorClass == FIXED_VALUE_OBFUSCATOR_CLASS;
         }
+    }
 
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, Map<?, ?> map) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, map);
-            } finally {
-                decreaseIndent();
-            }
-        }
+    /*
+     * A view of a formatted value of which content has been removed after its first characters. The removed characters are not available.
+     */
+    private static final class CapturedValue implements CharSequence {
 
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, Object[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
-            }
-        }
+        private static final char SKIPPED_CHAR = '\uFFFD';
 
-        @Override
-        protected void reflectionAppendArrayDetail(StringBuffer buffer, String fieldName, Object array) {
-            increaseIndent();
-            try {
-                super.reflectionAppendArrayDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
-            }
-        }
+        private final StringBuffer captured;
+        private final int skipStart;
+        private final int skipEnd;
+        private final int length;
 
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, long[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
-            }
+        private CapturedValue(StringBuffer captured, int skipStart, long skippedLength) {
+            this.captured = captured;
+            this.skipStart = skipStart;
+            this.skipEnd = Math.toIntExact(skipStart + skippedLength);
+            this.length = Math.toIntExact(captured.length() + skippedLength);
         }
 
         @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, int[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
-            }
+        public int length() {
+            return length;
         }
 
         @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, short[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
             }
-        }
-
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, byte[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
+            if (index < skipStart) {
+                return captured.charAt(index);
             }
-        }
-
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, char[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
+            if (index < skipEnd) {
+                return SKIPPED_CHAR;
             }
+            return captured.charAt(index - skipEnd + skipStart);
         }
 
         @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, double[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end || end > length) {
+                String message = "start: " + start + ", end: " + end + ", length: " + length; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                throw new IndexOutOfBoundsException(message);
             }
-        }
-
-        @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, float[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
+            StringBuilder sb = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                sb.append(charAt(i));
             }
+            return sb.toString();
         }
 
         @Override
-        protected void appendDetail(StringBuffer buffer, String fieldName, boolean[] array) {
-            increaseIndent();
-            try {
-                super.appendDetail(buffer, fieldName, array);
-            } finally {
-                decreaseIndent();
-            }
+        public String toString() {
+            return subSequence(0, length).toString();
         }
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * RecursiveObfuscatingToStringStyle.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.FieldConfig;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.PureRecurseIntoPredicate;
+
+/**
+ * An obfuscating {@link ToStringStyle} that produces output similar to
+ * {@link org.apache.commons.lang3.builder.RecursiveToStringStyle RecursiveToStringStyle}.
+ *
+ * @author Rob Spoor
+ */
+class RecursiveObfuscatingToStringStyle extends ObfuscatingToStringStyle {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Predicate<? super Class<?>> recurseIntoPredicate;
+    private final int maxDepth;
+
+    // the number of objects that are currently being formatted recursively
+    private int depth;
+
+    RecursiveObfuscatingToStringStyle(Builder builder, Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        super(builder);
+        this.recurseIntoPredicate = Objects.requireNonNull(recurseIntoPredicate);
+        this.maxDepth = maxDepth;
+    }
+
+    RecursiveObfuscatingToStringStyle(Snapshot snapshot, Predicate<? super Class<?>> recurseIntoPredicate, int maxDepth) {
+        super(snapshot);
+        this.recurseIntoPredicate = Objects.requireNonNull(recurseIntoPredicate);
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    protected void appendDetail(StringBuffer buffer, String fieldName, Object value) {
+        if (shouldRecurseInto(value)) {
+            appendRecursively(buffer, fieldName, value);
+        } else {
+            super.appendDetail(buffer, fieldName, value);
+        }
+    }
+
+    @Override
+    void reset() {
+        super.reset();
+        depth = 0;
+    }
+
+    final void appendRecursively(StringBuffer buffer, String fieldName, Object value) {
+        if (depth >= maxDepth) {
+            // the value itself would have been obfuscated, so obfuscate its summary even if summaries of the field are not obfuscated
+            FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, value);
+            if (fieldConfig == null) {
+                appendSummary(buffer, fieldName, value);
+            } else {
+                obfuscate(buffer, fieldConfig, b -> appendSummary(b, fieldName, value));
+            }
+            return;
+        }
+        FieldConfig fieldConfig = fieldConfigToObfuscate(fieldName, value);
+        depth++;
+        FieldPathTrie<FieldConfig> parentFieldPath = enterFieldPath(fieldName);
+        try {
+            if (fieldConfig == null) {
+                appendNestedObject(buffer, fieldName, value);
+            } else {
+                obfuscate(buffer, fieldConfig, b -> reflect(b, value));
+            }
+        } finally {
+            exitFieldPath(parentFieldPath);
+            depth--;
+        }
+    }
+
+    // appends an object that is recursively formatted, if it's not obfuscated
+    void appendNestedObject(StringBuffer buffer, String fieldName, Object value) {
+        reflect(buffer, value);
+    }
+
+    boolean shouldRecurseInto(Object value) {
+        Class<?> valueType = value.getClass();
+        return recurseIntoPredicate instanceof PureRecurseIntoPredicate
+                ? ((PureRecurseIntoPredicate) recurseIntoPredicate).shouldRecurseInto(valueType)
+                : ObfuscatingToStringStyle.shouldRecurseInto(valueType, recurseIntoPredicate);
+    }
+}
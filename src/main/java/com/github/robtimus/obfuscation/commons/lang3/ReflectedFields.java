@@ -0,0 +1,150 @@
+/*
+ * ReflectedFields.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.builder.ToStringExclude;
+import org.apache.commons.lang3.builder.ToStringSummary;
+
+/**
+ * The fields of a class that {@link org.apache.commons.lang3.builder.ReflectionToStringBuilder ReflectionToStringBuilder} appends with its
+ * default settings, in the order in which it appends them. These are the declared fields of the class, sorted by name, except for static and
+ * transient fields, fields with names that contain {@code $}, and fields annotated with {@link ToStringExclude}.
+ * <p>
+ * Instances are cached per class, and are shared between all obfuscating {@link org.apache.commons.lang3.builder.ToStringStyle ToStringStyles}.
+ * The values of fields are read using {@link MethodHandle MethodHandles} that are created only once.
+ *
+ * @author Rob Spoor
+ */
+final class ReflectedFields {
+
+    // The cached values only reference the class itself, so caching them does not prevent any class loader from being garbage collected
+    private static final ClassValue<ReflectedFields> CACHE = new ClassValue<ReflectedFields>() {
+        @Override
+        protected ReflectedFields computeValue(Class<?> type) {
+            return new ReflectedFields(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String[] names;
+    private final boolean[] fullDetails;
+    private final MethodHandle[] getters;
+
+    private ReflectedFields(Class<?> type) {
+        Field[] fields = Arrays.stream(type.getDeclaredFields())
+                .filter(ReflectedFields::isReflected)
+                .sorted(Comparator.comparing(Field::getName))
+                .toArray(Field[]::new);
+        AccessibleObject.setAccessible(fields, true);
+
+        names = new String[fields.length];
+        fullDetails = new boolean[fields.length];
+        getters = new MethodHandle[fields.length];
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < fields.length; i++) {
+            names[i] = fields[i].getName();
+            fullDetails[i] = !fields[i].isAnnotationPresent(ToStringSummary.class);
+            getters[i] = getter(lookup, fields[i]);
+        }
+    }
+
+    private static boolean isReflected(Field field) {
+        int modifiers = field.getModifiers();
+        return field.getName().indexOf(ClassUtils.INNER_CLASS_SEPARATOR_CHAR) == -1
+                && !Modifier.isTransient(modifiers)
+                && !Modifier.isStatic(modifiers)
+                && !field.isAnnotationPresent(ToStringExclude.class);
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            // (DeclaringClass)FieldType -> (Object)Object, so all getters can be invoked exactly in the same way
+            return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new InternalError("Unexpected IllegalAccessException: " + e.getMessage()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the fields of a class.
+     *
+     * @param type The class to return the fields of.
+     * @return The fields of the given class.
+     */
+    static ReflectedFields of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Returns the number of fields.
+     *
+     * @return The number of fields.
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a field.
+     *
+     * @param index The index of the field.
+     * @return The name of the field at the given index.
+     */
+    String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns whether or not a field should be appended in full detail.
+     *
+     * @param index The index of the field.
+     * @return {@code false} if the field at the given index is annotated with {@link ToStringSummary}, or {@code true} otherwise.
+     */
+    boolean fullDetail(int index) {
+        return fullDetails[index];
+    }
+
+    /**
+     * Returns the value of a field.
+     *
+     * @param index The index of the field.
+     * @param object The object to return the field value of.
+     * @return The value of the field at the given index for the given object.
+     */
+    Object value(int index, Object object) {
+        try {
+            return getters[index].invokeExact(object);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // getters for fields do not throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+}
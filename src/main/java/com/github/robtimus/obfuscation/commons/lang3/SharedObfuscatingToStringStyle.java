@@ -0,0 +1,485 @@
+/*
+ * SharedObfuscatingToStringStyle.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+
+/**
+ * A {@link ToStringStyle} that delegates all calls to an {@link ObfuscatingToStringStyle} borrowed from a {@link StylePool}.
+ * <p>
+ * An ObfuscatingToStringStyle has state while an object is being formatted, from appendStart until appendEnd, so each object that is being
+ * formatted gets its own ObfuscatingToStringStyle. This also separates objects that are formatted at the same time in the same thread, e.g. from
+ * the toString() method of a value that is being formatted. An ObfuscatingToStringStyle that starts formatting from such a call is linked to the
+ * ObfuscatingToStringStyle of the call, so cycles through the toString() method are still detected. Calls for buffers that no object is being
+ * formatted into, e.g. a second call to appendEnd, borrow an ObfuscatingToStringStyle for the duration of the call only.
+ * <p>
+ * The ObfuscatingToStringStyle is bound to its buffer once in appendStart, and unbound in appendEnd. Bindings are kept per thread, because a
+ * ToStringBuilder is used by one thread only. Finding the binding for a call does not use any locks, and the map of threads is only updated the
+ * first time a thread formats an object, and to remove threads that have terminated. A ToStringBuilder that is passed to another thread while it
+ * is being used still works, but its calls in that other thread are not limited or checked for cycles together with its other calls.
+ * <p>
+ * Bindings only weakly reference their buffer, and between calls an ObfuscatingToStringStyle does not reference its buffer. That way, the
+ * binding for formatting that is never finished, e.g. because a toString() method threw an exception, is discarded together with its buffer.
+ *
+ * @author Rob Spoor
+ */
+final class SharedObfuscatingToStringStyle extends ToStringStyle {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MIN_PURGE_SIZE = 64;
+
+    private final StylePool styles;
+    // Threads are kept after they have finished formatting, so formatting objects usually doesn't update this map. Only a thread itself modifies
+    // its Renders; other threads only remove the Renders of threads that have terminated.
+    private final ConcurrentMap<Thread, Renders> rendersPerThread;
+    private final String nullText;
+
+    // the number of threads above which threads that have terminated are removed
+    private volatile int purgeSize;
+
+    SharedObfuscatingToStringStyle(Snapshot snapshot) {
+        this.styles = snapshot.pool(Runtime.getRuntime().availableProcessors());
+        this.rendersPerThread = new ConcurrentHashMap<>();
+        this.nullText = snapshot.build().nullText();
+        this.purgeSize = MIN_PURGE_SIZE;
+    }
+
+    private Render enter(StringBuffer buffer) {
+        Renders renders = rendersPerThread.get(Thread.currentThread());
+        Render render = renders == null ? null : renders.find(buffer);
+        if (render == null) {
+            return new Render(buffer, styles.borrow(), null);
+        }
+        render.style.resume(buffer);
+        renders.enter(render);
+        return render;
+    }
+
+    private void exit(StringBuffer buffer, Render render) {
+        Renders renders = render.renders;
+        if (renders == null) {
+            styles.release(render.style);
+        } else {
+            render.style.suspend(buffer);
+            renders.exit(render);
+        }
+    }
+
+    private Render start(StringBuffer buffer) {
+        Thread thread = Thread.currentThread();
+        Renders renders = rendersPerThread.get(thread);
+        if (renders == null) {
+            renders = new Renders(thread);
+            addRenders(renders);
+        } else {
+            renders.removeUnfinished(buffer);
+        }
+        Render render = new Render(buffer, styles.borrow(), renders);
+        if (renders.current != null) {
+            // formatting starts from a call for another object, e.g. from a toString() method, so cycles can include the objects of that call
+            render.style.setEnclosingStyle(renders.current.style);
+        }
+        renders.add(render);
+        renders.enter(render);
+        return render;
+    }
+
+    private void end(Render render) {
+        Renders renders = render.renders;
+        renders.remove(render);
+        renders.unlinkFrom(render.style);
+        styles.release(render.style);
+    }
+
+    private void addRenders(Renders renders) {
+        rendersPerThread.put(renders.thread, renders);
+        if (rendersPerThread.size() > purgeSize) {
+            rendersPerThread.keySet().removeIf(t -> !t.isAlive());
+            purgeSize = Math.max(MIN_PURGE_SIZE, 2 * rendersPerThread.size());
+        }
+    }
+
+    @Override
+    public void appendSuper(StringBuffer buffer, String superToString) {
+        Render render = enter(buffer);
+        try {
+            render.style.appendSuper(buffer, superToString);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void appendToString(StringBuffer buffer, String toString) {
+        Render render = enter(buffer);
+        try {
+            render.style.appendToString(buffer, toString);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void appendStart(StringBuffer buffer, Object object) {
+        if (object == null) {
+            // ToStringBuilder doesn't call appendEnd for null objects
+            ObfuscatingToStringStyle style = styles.borrow();
+            try {
+                style.appendStart(buffer, null);
+            } finally {
+                styles.release(style);
+            }
+            return;
+        }
+        Render render = start(buffer);
+        try {
+            render.style.appendStart(buffer, object);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void appendEnd(StringBuffer buffer, Object object) {
+        Render render = enter(buffer);
+        try {
+            render.style.appendEnd(buffer, object);
+        } finally {
+            exit(buffer, render);
+            if (render.renders != null) {
+                end(render);
+            }
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, Object value, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, long value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, int value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, short value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, byte value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, char value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, double value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, float value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, boolean value) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, value);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, Object[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, long[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, int[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, short[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, byte[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, char[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, double[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, float[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    public void append(StringBuffer buffer, String fieldName, boolean[] array, Boolean fullDetail) {
+        Render render = enter(buffer);
+        try {
+            render.style.append(buffer, fieldName, array, fullDetail);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    protected void reflectionAppendArrayDetail(StringBuffer buffer, String fieldName, Object array) {
+        Render render = enter(buffer);
+        try {
+            render.style.reflectionAppendArrayDetail(buffer, fieldName, array);
+        } finally {
+            exit(buffer, render);
+        }
+    }
+
+    @Override
+    protected String getNullText() {
+        return nullText;
+    }
+
+    int renderCount() {
+        int count = 0;
+        for (Renders renders : rendersPerThread.values()) {
+            count += renders.size;
+        }
+        return count;
+    }
+
+    /*
+     * The objects that one thread is formatting, in the order in which formatting started.
+     */
+    private static final class Renders {
+
+        private static final int INITIAL_CAPACITY = 4;
+
+        private final Thread thread;
+        private Render[] renders;
+        private int size;
+
+        // the render of which a call is in progress, or null if there is none
+        private Render current;
+
+        private Renders(Thread thread) {
+            this.thread = thread;
+            this.renders = new Render[INITIAL_CAPACITY];
+        }
+
+        private Render find(StringBuffer buffer) {
+            // usually the object that started formatting last
+            for (int i = size - 1; i >= 0; i--) {
+                Render render = renders[i];
+                if (render.get() == buffer) {
+                    return render;
+                }
+            }
+            return null;
+        }
+
+        private void enter(Render render) {
+            render.caller = current;
+            render.calling = true;
+            current = render;
+        }
+
+        private void exit(Render render) {
+            current = render.caller;
+            render.caller = null;
+            render.calling = false;
+        }
+
+        private void add(Render render) {
+            if (size == renders.length) {
+                renders = Arrays.copyOf(renders, size * 2);
+            }
+            renders[size++] = render;
+        }
+
+        private void remove(Render render) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (renders[i] == render) {
+                    System.arraycopy(renders, i + 1, renders, i, size - i - 1);
+                    renders[--size] = null;
+                    return;
+                }
+            }
+        }
+
+        private void unlinkFrom(ObfuscatingToStringStyle style) {
+            // Objects that started formatting from a call for an object that has finished were never finished themselves. They should no longer
+            // use the style of that object, as it can be borrowed again.
+            for (int i = 0; i < size; i++) {
+                ObfuscatingToStringStyle renderStyle = renders[i].style;
+                if (renderStyle.isEnclosedBy(style)) {
+                    renderStyle.setEnclosingStyle(null);
+                }
+            }
+        }
+
+        private void removeUnfinished(StringBuffer buffer) {
+            // Renders whose buffer has been garbage collected were never finished. The same goes for renders for the given buffer for which no
+            // call is in progress, because a new object is started for it. Their styles are discarded, not released.
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                Render render = renders[i];
+                StringBuffer renderBuffer = render.get();
+                if (render.calling || renderBuffer != null && renderBuffer != buffer) {
+                    renders[count++] = render;
+                }
+            }
+            Arrays.fill(renders, count, size, null);
+            size = count;
+        }
+
+    }
+
+    /*
+     * An object that is being formatted into a buffer, or a single call for a buffer that no object is being formatted into.
+     */
+    private static final class Render extends WeakReference<StringBuffer> {
+
+        private final ObfuscatingToStringStyle style;
+        // null for single calls
+        private final Renders renders;
+
+        // the render of which a call was in progress when a call for this render started
+        private Render caller;
+        private boolean calling;
+
+        private Render(StringBuffer buffer, ObfuscatingToStringStyle style, Renders renders) {
+            super(buffer);
+            this.style = style;
+            this.renders = renders;
+        }
+    }
+}
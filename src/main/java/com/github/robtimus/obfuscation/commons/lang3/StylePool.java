@@ -0,0 +1,201 @@
+/*
+ * StylePool.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.LazyToString;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.ByteBufferFullHandler;
+
+/**
+ * A bounded pool of obfuscating {@link ToStringStyle} objects created from the same {@link Builder} {@link Snapshot snapshot}.
+ * Instances of this class are thread safe.
+ * <p>
+ * An obfuscating {@link ToStringStyle} is {@link #borrow() borrowed} from the pool, used to format one or more objects, and then
+ * {@link #release(ObfuscatingToStringStyle) released} back to the pool:
+ * <pre><code>
+ * ObfuscatingToStringStyle style = pool.borrow();
+ * try {
+ *     return ToStringBuilder.reflectionToString(this, style);
+ * } finally {
+ *     pool.release(style);
+ * }
+ * </code></pre>
+ * {@link #reflectionToString(Object)} can be used as a shorthand for this.
+ * <p>
+ * Borrowing and releasing does not use any locks. If no obfuscating {@link ToStringStyle} is available when one is borrowed, a new one
+ * is {@link Snapshot#build() built}. If the pool is full when one is released, it is discarded.
+ *
+ * @author Rob Spoor
+ */
+public final class StylePool {
+
+    private final Snapshot snapshot;
+    private final AtomicReferenceArray<ObfuscatingToStringStyle> styles;
+
+    private final Function<Object, String> lazyRenderer;
+
+    StylePool(Snapshot snapshot, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(maxSize + " <= 0"); //$NON-NLS-1$
+        }
+        this.snapshot = snapshot;
+        this.styles = new AtomicReferenceArray<>(maxSize);
+        this.lazyRenderer = this::reflectionToString;
+    }
+
+    /**
+     * Borrows an obfuscating {@link ToStringStyle} from this pool. If no obfuscating {@link ToStringStyle} is available, a new one is
+     * created.
+     * <p>
+     * The returned obfuscating {@link ToStringStyle} should be {@link #release(ObfuscatingToStringStyle) released} when it is no longer
+     * needed. It should not be used after it has been released.
+     *
+     * @return An obfuscating {@link ToStringStyle} that is not used by any other thread.
+     */
+    public ObfuscatingToStringStyle borrow() {
+        int size = styles.length();
+        int start = stripe(size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            ObfuscatingToStringStyle style = styles.get(index);
+            if (style != null && styles.compareAndSet(index, style, null)) {
+                return style;
+            }
+        }
+        return snapshot.build();
+    }
+
+    /**
+     * Releases an obfuscating {@link ToStringStyle} back to this pool. If this pool is full, the obfuscating {@link ToStringStyle} is
+     * discarded.
+     * <p>
+     * Any state that the obfuscating {@link ToStringStyle} has left behind is reset first. This allows obfuscating {@link ToStringStyle}
+     * objects to be released even if they were used for formatting that failed.
+     *
+     * @param style The obfuscating {@link ToStringStyle} to release.
+     * @throws NullPointerException If the given obfuscating {@link ToStringStyle} is {@code null}.
+     * @throws IllegalArgumentException If the given obfuscating {@link ToStringStyle} was not created by this pool.
+     */
+    public void release(ObfuscatingToStringStyle style) {
+        if (!style.isBuiltFrom(snapshot)) {
+            throw new IllegalArgumentException("style was not created from the snapshot of this pool"); //$NON-NLS-1$
+        }
+        style.reset();
+        int size = styles.length();
+        int start = stripe(size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (styles.get(index) == null && styles.compareAndSet(index, null, style)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Uses reflection to create a string representation of an object using an obfuscating {@link ToStringStyle} borrowed from this pool.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @return The string representation of the given object.
+     * @see ObfuscatingToStringStyle#reflectionToString(Object)
+     */
+    public String reflectionToString(Object object) {
+        ObfuscatingToStringStyle style = borrow();
+        try {
+            return style.reflectionToString(object);
+        } finally {
+            release(style);
+        }
+    }
+
+    /**
+     * Uses reflection to create a string representation of an object using an obfuscating {@link ToStringStyle} borrowed from this pool,
+     * and appends it to an {@link Appendable}.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @param appendable The {@link Appendable} to append the string representation to.
+     * @throws NullPointerException If the given {@link Appendable} is {@code null}.
+     * @throws IOException If an I/O error occurs.
+     * @see ObfuscatingToStringStyle#reflectionToString(Object, Appendable)
+     */
+    public void reflectionToString(Object object, Appendable appendable) throws IOException {
+        ObfuscatingToStringStyle style = borrow();
+        try {
+            style.reflectionToString(object, appendable);
+        } finally {
+            release(style);
+        }
+    }
+
+    /**
+     * Uses reflection to create a string representation of an object using an obfuscating {@link ToStringStyle} borrowed from this pool,
+     * and writes it as UTF-8 to a {@link ByteBuffer}.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @param buffer The buffer to write the string representation to.
+     * @param fullHandler The handler to call whenever the buffer is full.
+     * @return The buffer that was written to last.
+     * @throws NullPointerException If the given buffer or buffer full handler is {@code null}.
+     * @throws IOException If the given buffer full handler throws an {@link IOException}.
+     * @see ObfuscatingToStringStyle#reflectionToUtf8(Object, ByteBuffer, ByteBufferFullHandler)
+     */
+    public ByteBuffer reflectionToUtf8(Object object, ByteBuffer buffer, ByteBufferFullHandler fullHandler) throws IOException {
+        ObfuscatingToStringStyle style = borrow();
+        try {
+            return style.reflectionToUtf8(object, buffer, fullHandler);
+        } finally {
+            release(style);
+        }
+    }
+
+    /**
+     * Returns an object with a string representation of an object that is only created when it is first needed.
+     * <p>
+     * The string representation is created using reflection, using an obfuscating {@link ToStringStyle} borrowed from this pool, the
+     * first time {@link LazyToString#toString()} is called.
+     *
+     * @param object The object to create a string representation of; may be {@code null}.
+     * @return An object with a string representation of the given object.
+     * @see #reflectionToString(Object)
+     * @see Snapshot#lazy(Object)
+     */
+    public LazyToString lazy(Object object) {
+        return new LazyToString(object, lazyRenderer);
+    }
+
+    int size() {
+        int count = 0;
+        for (int i = 0; i < styles.length(); i++) {
+            if (styles.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int stripe(int size) {
+        // spread threads over the pool, so concurrent threads usually start at different slots
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return (hash >>> 1) % size;
+    }
+}
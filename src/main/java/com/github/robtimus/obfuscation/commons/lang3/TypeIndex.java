@@ -0,0 +1,136 @@
+/*
+ * TypeIndex.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable lookup structure for values by type, compiled from a fixed set of types. A type matches its own values, and values of its
+ * sub types.
+ * <p>
+ * If multiple types match, the most specific one is used. This is the first matching type in the following order:
+ * <ol>
+ *   <li>The type itself, and its super classes, nearest first.</li>
+ *   <li>The interfaces that the type and its super classes implement, breadth first.</li>
+ *   <li>Any other matching type, in the order in which the types were added. This includes {@code Object[]} for other object arrays.</li>
+ * </ol>
+ * <p>
+ * The result is cached per type, so looking up a value only needs a single lookup.
+ *
+ * @author Rob Spoor
+ * @param <V> The type of values.
+ */
+final class TypeIndex<V> {
+
+    private static final TypeIndex<?> EMPTY = new TypeIndex<>(Collections.emptyMap());
+
+    private static final Object NO_VALUE = new Object();
+
+    private final Map<Class<?>, V> values;
+
+    private final ClassValue<Object> cache;
+
+    private TypeIndex(Map<Class<?>, V> values) {
+        this.values = values;
+        this.cache = new ClassValue<Object>() {
+            @Override
+            protected Object computeValue(Class<?> type) {
+                V value = find(type);
+                return value != null ? value : NO_VALUE;
+            }
+        };
+    }
+
+    /**
+     * Compiles a new index.
+     *
+     * @param <V> The type of values.
+     * @param values The values per type. If the iteration order of this map is predictable, this is the order of precedence for types that
+     *                   are not related to each other.
+     * @return The compiled index.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> TypeIndex<V> compile(Map<Class<?>, ? extends V> values) {
+        if (values.isEmpty()) {
+            return (TypeIndex<V>) EMPTY;
+        }
+        return new TypeIndex<>(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * Returns the value for a type.
+     *
+     * @param type The type to return the value for.
+     * @return The value for the most specific type that matches the given type, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    V get(Class<?> type) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        Object value = cache.get(type);
+        return value == NO_VALUE ? null : (V) value;
+    }
+
+    /**
+     * Returns whether or not this index is empty.
+     *
+     * @return {@code true} if this index contains no types, or {@code false} otherwise.
+     */
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    private V find(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            V value = values.get(c);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            Collections.addAll(interfaces, c.getInterfaces());
+        }
+        while (!interfaces.isEmpty()) {
+            Class<?> i = interfaces.remove();
+            if (visited.add(i)) {
+                V value = values.get(i);
+                if (value != null) {
+                    return value;
+                }
+                Collections.addAll(interfaces, i.getInterfaces());
+            }
+        }
+
+        for (Map.Entry<Class<?>, V> entry : values.entrySet()) {
+            if (entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
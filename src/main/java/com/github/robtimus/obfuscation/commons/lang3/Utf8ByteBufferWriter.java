@@ -0,0 +1,180 @@
+/*
+ * Utf8ByteBufferWriter.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.ByteBufferFullHandler;
+
+/**
+ * A {@link Writer} that encodes characters as UTF-8 directly into a {@link ByteBuffer}.
+ * <p>
+ * If the buffer is full, a {@link ByteBufferFullHandler} is asked for a buffer with remaining space. The bytes of a single character can be
+ * split over buffers. Runs of ASCII characters are copied directly into the backing array of heap buffers.
+ * <p>
+ * Unpaired surrogates are encoded as {@code ?}, like {@link String#getBytes(java.nio.charset.Charset)} does. Because a high surrogate can be
+ * written separately from its low surrogate, {@link #finish()} must be called after the last character is written.
+ *
+ * @author Rob Spoor
+ */
+final class Utf8ByteBufferWriter extends Writer {
+
+    private static final byte REPLACEMENT = '?';
+
+    private static final char NO_HIGH_SURROGATE = '\0';
+
+    private ByteBuffer buffer;
+    private final ByteBufferFullHandler fullHandler;
+
+    // a high surrogate that was the last character written, and that still needs to be combined with a low surrogate
+    private char highSurrogate = NO_HIGH_SURROGATE;
+
+    Utf8ByteBufferWriter(ByteBuffer buffer, ByteBufferFullHandler fullHandler) {
+        this.buffer = buffer;
+        this.fullHandler = fullHandler;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        write((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            char c = cbuf[i];
+            if (c < 0x80 && highSurrogate == NO_HIGH_SURROGATE) {
+                i = writeAscii(cbuf, i, end);
+            } else {
+                write(c);
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            write(str.charAt(i));
+        }
+    }
+
+    private void write(char c) throws IOException {
+        if (highSurrogate != NO_HIGH_SURROGATE) {
+            char high = highSurrogate;
+            highSurrogate = NO_HIGH_SURROGATE;
+            if (Character.isLowSurrogate(c)) {
+                writeCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            put(REPLACEMENT);
+        }
+        if (c < 0x80) {
+            put((byte) c);
+        } else if (c < 0x800) {
+            put((byte) (0xC0 | c >> 6));
+            put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            put(REPLACEMENT);
+        } else {
+            put((byte) (0xE0 | c >> 12));
+            put((byte) (0x80 | c >> 6 & 0x3F));
+            put((byte) (0x80 | c & 0x3F));
+        }
+    }
+
+    private void writeCodePoint(int codePoint) throws IOException {
+        put((byte) (0xF0 | codePoint >> 18));
+        put((byte) (0x80 | codePoint >> 12 & 0x3F));
+        put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        put((byte) (0x80 | codePoint & 0x3F));
+    }
+
+    // writes characters until the first non-ASCII character or the end, and returns the index of the first character that is not written
+    private int writeAscii(char[] cbuf, int start, int end) throws IOException {
+        int i = start;
+        while (i < end) {
+            ensureRemaining();
+            int limit = Math.min(end, i + buffer.remaining());
+            int runStart = i;
+            if (buffer.hasArray()) {
+                byte[] array = buffer.array();
+                int offset = buffer.arrayOffset() + buffer.position() - runStart;
+                while (i < limit && cbuf[i] < 0x80) {
+                    array[offset + i] = (byte) cbuf[i];
+                    i++;
+                }
+                buffer.position(buffer.position() + i - runStart);
+            } else {
+                while (i < limit && cbuf[i] < 0x80) {
+                    buffer.put((byte) cbuf[i]);
+                    i++;
+                }
+            }
+            if (i < limit) {
+                // non-ASCII character
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private void put(byte b) throws IOException {
+        ensureRemaining();
+        buffer.put(b);
+    }
+
+    private void ensureRemaining() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer = fullHandler.handle(buffer);
+            if (!buffer.hasRemaining()) {
+                throw new BufferOverflowException();
+            }
+        }
+    }
+
+    /**
+     * Writes any pending unpaired high surrogate, and returns the buffer that was written to last.
+     *
+     * @return The buffer that was written to last.
+     * @throws IOException If the buffer full handler throws an {@link IOException}.
+     */
+    ByteBuffer finish() throws IOException {
+        if (highSurrogate != NO_HIGH_SURROGATE) {
+            highSurrogate = NO_HIGH_SURROGATE;
+            put(REPLACEMENT);
+        }
+        return buffer;
+    }
+
+    @Override
+    public void flush() {
+        // nothing to flush; bytes are only written to the buffer
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+}
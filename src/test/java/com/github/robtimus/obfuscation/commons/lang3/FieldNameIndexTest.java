@@ -0,0 +1,195 @@
+/*
+ * FieldNameIndexTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class FieldNameIndexTest {
+
+    @Test
+    @DisplayName("empty")
+    void testEmpty() {
+        FieldNameIndex<String> index = FieldNameIndex.compile(Collections.emptyMap(), Collections.emptyMap());
+
+        assertTrue(index.isEmpty());
+        assertNull(index.get("field"));
+        assertNull(index.get(""));
+        assertNull(index.get(null));
+    }
+
+    @Test
+    @DisplayName("case sensitive")
+    void testCaseSensitive() {
+        Map<String, String> caseSensitive = new HashMap<>();
+        caseSensitive.put("password", "1");
+        caseSensitive.put("secret", "2");
+
+        FieldNameIndex<String> index = FieldNameIndex.compile(caseSensitive, Collections.emptyMap());
+
+        assertFalse(index.isEmpty());
+        assertEquals("1", index.get("password"));
+        assertEquals("1", index.get(new String("password")));
+        assertEquals("2", index.get("secret"));
+        assertNull(index.get("PASSWORD"));
+        assertNull(index.get("other"));
+        assertNull(index.get(null));
+    }
+
+    @Test
+    @DisplayName("case insensitive")
+    void testCaseInsensitive() {
+        Map<String, String> caseInsensitive = new HashMap<>();
+        caseInsensitive.put("password", "1");
+        caseInsensitive.put("SECRET", "2");
+        caseInsensitive.put("straße", "3");
+
+        FieldNameIndex<String> index = FieldNameIndex.compile(Collections.emptyMap(), caseInsensitive);
+
+        assertEquals("1", index.get("password"));
+        assertEquals("1", index.get("PASSWORD"));
+        assertEquals("1", index.get("PassWord"));
+        assertEquals("2", index.get("secret"));
+        assertEquals("2", index.get("Secret"));
+        assertEquals("3", index.get("STRAßE"));
+        assertNull(index.get("STRASSE"));
+        assertNull(index.get("other"));
+        assertNull(index.get(null));
+    }
+
+    @Test
+    @DisplayName("case sensitive takes precedence")
+    void testCaseSensitiveTakesPrecedence() {
+        FieldNameIndex<String> index = FieldNameIndex.compile(Collections.singletonMap("field", "1"), Collections.singletonMap("FIELD", "2"));
+
+        assertEquals("1", index.get("field"));
+        assertEquals("2", index.get("FIELD"));
+        assertEquals("2", index.get("Field"));
+    }
+
+    @Test
+    @DisplayName("slots")
+    void testSlots() {
+        Map<String, String> caseSensitive = new HashMap<>();
+        caseSensitive.put("password", "1");
+        caseSensitive.put("secret", "2");
+
+        FieldNameIndex<String> index = FieldNameIndex.compile(caseSensitive, Collections.singletonMap("TOKEN", "3"));
+
+        assertEquals("1", index.valueAt(index.slotOf("password")));
+        assertEquals("2", index.valueAt(index.slotOf("secret")));
+        assertEquals("3", index.valueAt(index.slotOf("token")));
+        assertEquals("3", index.valueAt(index.slotOf("TOKEN")));
+        assertEquals(-1, index.slotOf("PASSWORD"));
+        assertEquals(-1, index.slotOf("other"));
+        assertEquals(-1, index.slotOf(null));
+        assertNull(index.valueAt(-1));
+    }
+
+    @Test
+    @DisplayName("slots of reflected fields")
+    void testSlotsOfReflectedFields() {
+        FieldNameIndex<String> index = FieldNameIndex.compile(Collections.singletonMap("value", "1"), Collections.singletonMap("NAME", "2"));
+        FieldNameIndex<String> otherIndex = FieldNameIndex.compile(Collections.singletonMap("name", "3"), Collections.emptyMap());
+
+        // the reflected fields are sorted by name: name, other, value; static and transient fields are ignored
+        int[] slots = index.slotsOfReflectedFields(Reflected.class);
+        assertEquals(3, slots.length);
+        assertEquals("2", index.valueAt(slots[0]));
+        assertEquals(-1, slots[1]);
+        assertEquals("1", index.valueAt(slots[2]));
+        assertSame(slots, index.slotsOfReflectedFields(Reflected.class));
+
+        int[] otherSlots = otherIndex.slotsOfReflectedFields(Reflected.class);
+        assertEquals("3", otherIndex.valueAt(otherSlots[0]));
+        assertEquals(-1, otherSlots[1]);
+        assertEquals(-1, otherSlots[2]);
+    }
+
+    @Test
+    @DisplayName("colliding hash codes")
+    void testCollidingHashCodes() {
+        // "Aa" and "BB" have the same hash code, as do "AaAa", "AaBB", "BBAa" and "BBBB"
+        Map<String, String> values = new HashMap<>();
+        values.put("Aa", "1");
+        values.put("BB", "2");
+        values.put("AaAa", "3");
+        values.put("AaBB", "4");
+        values.put("BBAa", "5");
+        values.put("BBBB", "6");
+
+        FieldNameIndex<String> caseSensitiveIndex = FieldNameIndex.compile(values, Collections.emptyMap());
+
+        assertEquals("1", caseSensitiveIndex.get("Aa"));
+        assertEquals("2", caseSensitiveIndex.get("BB"));
+        assertEquals("3", caseSensitiveIndex.get("AaAa"));
+        assertEquals("4", caseSensitiveIndex.get("AaBB"));
+        assertEquals("5", caseSensitiveIndex.get("BBAa"));
+        assertEquals("6", caseSensitiveIndex.get("BBBB"));
+        assertNull(caseSensitiveIndex.get("aa"));
+
+        FieldNameIndex<String> caseInsensitiveIndex = FieldNameIndex.compile(Collections.emptyMap(), values);
+
+        assertEquals("1", caseInsensitiveIndex.get("aa"));
+        assertEquals("2", caseInsensitiveIndex.get("bb"));
+        assertEquals("3", caseInsensitiveIndex.get("aaaa"));
+        assertEquals("6", caseInsensitiveIndex.get("bbbb"));
+    }
+
+    @Test
+    @DisplayName("many fields")
+    void testManyFields() {
+        Map<String, Integer> caseSensitive = new HashMap<>();
+        Map<String, Integer> caseInsensitive = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            caseSensitive.put("field" + i, i);
+            caseInsensitive.put("OTHER" + i, i);
+        }
+
+        FieldNameIndex<Integer> index = FieldNameIndex.compile(caseSensitive, caseInsensitive);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, index.get("field" + i));
+            assertNull(index.get("FIELD" + i));
+            assertEquals(i, index.get("other" + i));
+        }
+        assertNull(index.get("field1000"));
+        assertNull(index.get("other1000"));
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Reflected {
+
+        private static String ignoredStatic;
+
+        private String value;
+        private String other;
+        private String name;
+
+        private transient String ignoredTransient;
+    }
+}
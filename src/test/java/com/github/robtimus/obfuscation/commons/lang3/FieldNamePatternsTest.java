@@ -0,0 +1,182 @@
+/*
+ * FieldNamePatternsTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class FieldNamePatternsTest {
+
+    @Test
+    @DisplayName("empty")
+    void testEmpty() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Collections.emptyList());
+
+        assertTrue(patterns.isEmpty());
+        assertNull(patterns.get("field"));
+        assertNull(patterns.get(""));
+        assertNull(patterns.get(null));
+    }
+
+    @Test
+    @DisplayName("case sensitive")
+    void testCaseSensitive() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Arrays.asList(
+                new FieldNamePatterns.Rule<>("*Key", true, "1"),
+                new FieldNamePatterns.Rule<>("x_*_token", true, "2"),
+                new FieldNamePatterns.Rule<>("pass??rd", true, "3"),
+                new FieldNamePatterns.Rule<>("exact", true, "4")));
+
+        assertFalse(patterns.isEmpty());
+        assertEquals("1", patterns.get("apiKey"));
+        assertEquals("1", patterns.get("secretKey"));
+        assertEquals("1", patterns.get("Key"));
+        assertNull(patterns.get("apikey"));
+        assertNull(patterns.get("apiKeys"));
+
+        assertEquals("2", patterns.get("x_api_token"));
+        assertEquals("2", patterns.get("x__token"));
+        assertEquals("2", patterns.get("x_a_b_token"));
+        assertNull(patterns.get("x_token"));
+        assertNull(patterns.get("y_api_token"));
+
+        assertEquals("3", patterns.get("password"));
+        assertEquals("3", patterns.get("passw0rd"));
+        assertNull(patterns.get("passwd"));
+        assertNull(patterns.get("passwoord"));
+
+        assertEquals("4", patterns.get("exact"));
+        assertNull(patterns.get("exactly"));
+        assertNull(patterns.get("EXACT"));
+
+        assertNull(patterns.get(""));
+        assertNull(patterns.get(null));
+    }
+
+    @Test
+    @DisplayName("case insensitive")
+    void testCaseInsensitive() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Arrays.asList(
+                new FieldNamePatterns.Rule<>("*token", false, "1"),
+                new FieldNamePatterns.Rule<>("straße*", false, "2"),
+                new FieldNamePatterns.Rule<>("Secret", true, "3")));
+
+        assertEquals("1", patterns.get("x_api_token"));
+        assertEquals("1", patterns.get("refreshToken"));
+        assertEquals("1", patterns.get("TOKEN"));
+        assertNull(patterns.get("tokens"));
+
+        assertEquals("2", patterns.get("STRAßE1"));
+        assertNull(patterns.get("STRASSE"));
+
+        assertEquals("3", patterns.get("Secret"));
+        assertNull(patterns.get("secret"));
+    }
+
+    @Test
+    @DisplayName("non-ASCII characters")
+    void testNonAsciiCharacters() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Arrays.asList(
+                new FieldNamePatterns.Rule<>("é*", true, "1"),
+                new FieldNamePatterns.Rule<>("?ü", true, "2")));
+
+        assertEquals("1", patterns.get("éa"));
+        assertEquals("1", patterns.get("éü"));
+        assertEquals("2", patterns.get("ñü"));
+        assertEquals("2", patterns.get("aü"));
+        assertNull(patterns.get("eü1"));
+        assertNull(patterns.get("ñ"));
+    }
+
+    @Test
+    @DisplayName("precedence")
+    void testPrecedence() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Arrays.asList(
+                new FieldNamePatterns.Rule<>("secret*", true, "1"),
+                new FieldNamePatterns.Rule<>("*Key", true, "2"),
+                new FieldNamePatterns.Rule<>("*", true, "3")));
+
+        assertEquals("1", patterns.get("secretKey"));
+        assertEquals("2", patterns.get("apiKey"));
+        assertEquals("3", patterns.get("other"));
+        assertEquals("3", patterns.get(""));
+    }
+
+    @Test
+    @DisplayName("escaped characters")
+    void testEscapedCharacters() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Arrays.asList(
+                new FieldNamePatterns.Rule<>("a\\*b", true, "1"),
+                new FieldNamePatterns.Rule<>("c\\?\\\\*", true, "2")));
+
+        assertEquals("1", patterns.get("a*b"));
+        assertNull(patterns.get("ab"));
+        assertNull(patterns.get("axb"));
+
+        assertEquals("2", patterns.get("c?\\"));
+        assertEquals("2", patterns.get("c?\\d"));
+        assertNull(patterns.get("cx\\"));
+
+        assertThrows(IllegalArgumentException.class, () -> FieldNamePatterns.validate("a\\"));
+        assertThrows(NullPointerException.class, () -> FieldNamePatterns.validate(null));
+    }
+
+    @Test
+    @DisplayName("many patterns")
+    void testManyPatterns() {
+        List<FieldNamePatterns.Rule<Integer>> rules = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rules.add(new FieldNamePatterns.Rule<>("field" + i + "*", true, i));
+        }
+
+        FieldNamePatterns<Integer> patterns = FieldNamePatterns.compile(rules);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, patterns.get("field" + i));
+            assertEquals(i, patterns.get("field" + i + "x"));
+        }
+        // field1* is added before field10* etc.
+        for (int i = 10; i < 100; i++) {
+            assertEquals(i / 10, patterns.get("field" + i));
+        }
+        assertNull(patterns.get("field"));
+        assertNull(patterns.get("other1"));
+    }
+
+    @Test
+    @DisplayName("many field names")
+    void testManyFieldNames() {
+        FieldNamePatterns<String> patterns = FieldNamePatterns.compile(Collections.singletonList(new FieldNamePatterns.Rule<>("*1", true, "1")));
+
+        // more field names than are cached
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 10 == 1 ? "1" : null, patterns.get("field" + i));
+            assertEquals(i % 10 == 1 ? "1" : null, patterns.get("field" + i));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * FieldPathTrieTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class FieldPathTrieTest {
+
+    @Test
+    @DisplayName("empty")
+    void testEmpty() {
+        FieldPathTrie<String> trie = FieldPathTrie.compile(Collections.emptyMap());
+
+        assertTrue(trie.isLeaf());
+        assertNull(trie.value());
+        assertNull(trie.child("field"));
+        assertNull(trie.child(null));
+    }
+
+    @Test
+    @DisplayName("paths")
+    void testPaths() {
+        Map<String, String> values = new HashMap<>();
+        values.put("customer.address.street", "1");
+        values.put("customer.address", "2");
+        values.put("customer.name", "3");
+        values.put("password", "4");
+
+        FieldPathTrie<String> trie = FieldPathTrie.compile(values);
+
+        assertFalse(trie.isLeaf());
+        assertNull(trie.value());
+
+        FieldPathTrie<String> customer = trie.child("customer");
+        assertFalse(customer.isLeaf());
+        assertNull(customer.value());
+
+        FieldPathTrie<String> address = customer.child("address");
+        assertFalse(address.isLeaf());
+        assertEquals("2", address.value());
+
+        FieldPathTrie<String> street = address.child("street");
+        assertTrue(street.isLeaf());
+        assertEquals("1", street.value());
+
+        assertEquals("3", customer.child("name").value());
+        assertEquals("4", trie.child("password").value());
+
+        assertNull(trie.child("address"));
+        assertNull(trie.child("Customer"));
+        assertNull(customer.child("password"));
+        assertNull(street.child("street"));
+    }
+
+    @Test
+    @DisplayName("split")
+    void testSplit() {
+        assertArrayEquals(new String[] { "a" }, FieldPathTrie.split("a"));
+        assertArrayEquals(new String[] { "a", "b", "c" }, FieldPathTrie.split("a.b.c"));
+
+        assertThrows(IllegalArgumentException.class, () -> FieldPathTrie.split(""));
+        assertThrows(IllegalArgumentException.class, () -> FieldPathTrie.split(".a"));
+        assertThrows(IllegalArgumentException.class, () -> FieldPathTrie.split("a."));
+        assertThrows(IllegalArgumentException.class, () -> FieldPathTrie.split("a..b"));
+        assertThrows(NullPointerException.class, () -> FieldPathTrie.split(null));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * IdentityRegistryTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class IdentityRegistryTest {
+
+    @Test
+    @DisplayName("add, contains and remove")
+    void testAddContainsAndRemove() {
+        IdentityRegistry registry = new IdentityRegistry();
+        Object object = new Object();
+
+        assertTrue(registry.isEmpty());
+        assertFalse(registry.contains(object));
+        assertFalse(registry.contains(null));
+
+        registry.add(object);
+        registry.add(object);
+        registry.add(null);
+        assertFalse(registry.isEmpty());
+        assertTrue(registry.contains(object));
+        assertFalse(registry.contains(new Object()));
+        assertFalse(registry.contains(null));
+
+        registry.remove(new Object());
+        registry.remove(null);
+        assertTrue(registry.contains(object));
+
+        // objects are registered only once, so they are removed at once
+        registry.remove(object);
+        assertTrue(registry.isEmpty());
+        assertFalse(registry.contains(object));
+    }
+
+    @Test
+    @DisplayName("identity")
+    void testIdentity() {
+        IdentityRegistry registry = new IdentityRegistry();
+        String value = new String("value");
+
+        registry.add(value);
+        assertTrue(registry.contains(value));
+        assertFalse(registry.contains(new String("value")));
+
+        registry.remove(new String("value"));
+        assertTrue(registry.contains(value));
+    }
+
+    @Test
+    @DisplayName("many objects")
+    void testManyObjects() {
+        IdentityRegistry registry = new IdentityRegistry();
+        Set<Object> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            objects.add(new Object());
+        }
+
+        Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            Object object = objects.get(random.nextInt(objects.size()));
+            if (random.nextBoolean()) {
+                registry.add(object);
+                expected.add(object);
+            } else {
+                registry.remove(object);
+                expected.remove(object);
+            }
+            if (i % 1000 == 0) {
+                for (Object o : objects) {
+                    assertEquals(expected.contains(o), registry.contains(o));
+                }
+            }
+        }
+
+        for (Object object : objects) {
+            registry.remove(object);
+        }
+        assertTrue(registry.isEmpty());
+        for (Object object : objects) {
+            assertFalse(registry.contains(object));
+        }
+    }
+
+    @Test
+    @DisplayName("clear and forEach")
+    void testClearAndForEach() {
+        IdentityRegistry registry = new IdentityRegistry();
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object object = new Object();
+            objects.add(object);
+            registry.add(object);
+        }
+
+        Set<Object> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        registry.forEach(found::add);
+        assertEquals(objects.size(), found.size());
+        assertTrue(found.containsAll(objects));
+
+        registry.clear();
+        assertTrue(registry.isEmpty());
+        for (Object object : objects) {
+            assertFalse(registry.contains(object));
+        }
+        registry.forEach(object -> {
+            throw new AssertionError("unexpected object: " + object);
+        });
+
+        // the registry can be used after it has shrunk
+        registry.add(objects.get(0));
+        assertTrue(registry.contains(objects.get(0)));
+        assertFalse(registry.contains(objects.get(1)));
+    }
+}
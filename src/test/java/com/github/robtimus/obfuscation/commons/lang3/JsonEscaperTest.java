@@ -0,0 +1,98 @@
+/*
+ * JsonEscaperTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class JsonEscaperTest {
+
+    @Test
+    @DisplayName("escape(CharSequence, StringBuffer)")
+    void testEscape() {
+        assertEscaped("", "");
+        assertEscaped("value", "value");
+        assertEscaped("\"", "\\\"");
+        assertEscaped("a\\b", "a\\\\b");
+        assertEscaped("a\"b\"", "a\\\"b\\\"");
+        assertEscaped("é/€", "é/€");
+    }
+
+    private void assertEscaped(String value, String expected) {
+        StringBuffer buffer = new StringBuffer("x");
+        JsonEscaper.escape(value, buffer);
+        assertEquals("x" + expected, buffer.toString());
+
+        buffer = new StringBuffer("x");
+        JsonEscaper.escape(new StringBuilder(value), buffer);
+        assertEquals("x" + expected, buffer.toString());
+
+        buffer = new StringBuffer("x");
+        JsonEscaper.appendQuoted(value, buffer);
+        assertEquals("x\"" + expected + "\"", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("control characters")
+    void testControlCharacters() {
+        StringBuffer buffer = new StringBuffer();
+        JsonEscaper.escape("\b\t\n\f\r\0\u001f ", buffer);
+        assertEquals("\\b\\t\\n\\f\\r\\u0000\\u001f ", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("appendQuoted(char, StringBuffer)")
+    void testAppendQuotedChar() {
+        StringBuffer buffer = new StringBuffer();
+        JsonEscaper.appendQuoted('a', buffer);
+        JsonEscaper.appendQuoted('"', buffer);
+        JsonEscaper.appendQuoted('\\', buffer);
+        JsonEscaper.appendQuoted('\n', buffer);
+        JsonEscaper.appendQuoted('\u0001', buffer);
+        assertEquals("\"a\"\"\\\"\"\"\\\\\"\"\\n\"\"\\u0001\"", buffer.toString());
+    }
+
+    @Test
+    @DisplayName("escapeFrom(StringBuffer, int, char[])")
+    void testEscapeFrom() {
+        char[] chunk = JsonEscaper.newScanChunk();
+
+        StringBuffer buffer = new StringBuffer("a\"b\"c");
+        JsonEscaper.escapeFrom(buffer, 2, chunk);
+        assertEquals("a\"b\\\"c", buffer.toString());
+
+        buffer = new StringBuffer("a\"b");
+        JsonEscaper.escapeFrom(buffer, 3, chunk);
+        assertEquals("a\"b", buffer.toString());
+
+        // larger than the chunk, with the only character to escape near the end
+        String value = StringUtils.repeat('a', chunk.length * 3) + "\"b";
+        buffer = new StringBuffer("\"").append(value);
+        JsonEscaper.escapeFrom(buffer, 1, chunk);
+        assertEquals("\"" + value.replace("\"", "\\\""), buffer.toString());
+
+        // larger than the chunk, without characters to escape
+        value = StringUtils.repeat('a', chunk.length * 3 + 1);
+        buffer = new StringBuffer(value);
+        JsonEscaper.escapeFrom(buffer, 0, chunk);
+        assertEquals(value, buffer.toString());
+    }
+}
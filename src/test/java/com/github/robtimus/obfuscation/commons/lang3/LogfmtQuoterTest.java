@@ -0,0 +1,72 @@
+/*
+ * LogfmtQuoterTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class LogfmtQuoterTest {
+
+    @Test
+    @DisplayName("no quoting needed")
+    void testNoQuotingNeeded() {
+        assertQuoted("", "");
+        assertQuoted("value", "value");
+        assertQuoted("a.b,c[d]{e}", "a.b,c[d]{e}");
+        assertQuoted("é€", "é€");
+    }
+
+    @Test
+    @DisplayName("quoting needed")
+    void testQuotingNeeded() {
+        assertQuoted("a b", "\"a b\"");
+        assertQuoted("a=b", "\"a=b\"");
+        assertQuoted("a\"b", "\"a\\\"b\"");
+        assertQuoted("a\tb", "\"a\\tb\"");
+        assertQuoted("a\u0001b", "\"a\\u0001b\"");
+        assertQuoted("a\\b c", "\"a\\\\b c\"");
+    }
+
+    @Test
+    @DisplayName("backslashes only")
+    void testBackslashesOnly() {
+        assertQuoted("a\\b", "a\\b");
+    }
+
+    @Test
+    @DisplayName("multiple chunks")
+    void testMultipleChunks() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append('a');
+        }
+        assertQuoted(value.toString(), value.toString());
+
+        value.append(' ');
+        assertQuoted(value.toString(), "\"" + value + "\"");
+    }
+
+    private void assertQuoted(String value, String expected) {
+        StringBuffer buffer = new StringBuffer("key=");
+        buffer.append(value);
+        LogfmtQuoter.quoteFrom(buffer, 4, JsonEscaper.newScanChunk());
+        assertEquals("key=" + expected, buffer.toString());
+    }
+}
@@ -18,36 +18,90 @@
 package com.github.robtimus.obfuscation.commons.lang3;
 
 import static com.github.robtimus.obfuscation.Obfuscator.fixedLength;
+import static com.github.robtimus.obfuscation.Obfuscator.fixedValue;
 import static com.github.robtimus.obfuscation.Obfuscator.none;
+import static com.github.robtimus.obfuscation.Obfuscator.portion;
 import static com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.defaultStyle;
+import static com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.jsonStyle;
+import static com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.logfmtRecursiveStyle;
+import static com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.logfmtStyle;
 import static com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.multiLineRecursiveStyle;
 import static com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.recursiveStyle;
 import static com.github.robtimus.obfuscation.support.CaseSensitivity.CASE_INSENSITIVE;
 import static com.github.robtimus.obfuscation.support.CaseSensitivity.CASE_SENSITIVE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle;
+import org.apache.commons.lang3.builder.RecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringExclude;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.commons.lang3.builder.ToStringSummary;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import com.github.robtimus.obfuscation.Obfuscator;
 import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.LazyToString;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.Builder.Snapshot;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.ByteBufferFullHandler;
+import com.sun.management.ThreadMXBean;
 
 @SuppressWarnings("nls")
 class ObfuscatingToStringStyleTest {
@@ -350,6 +404,375 @@ class ObfuscatingToStringStyleTest {
                 .replace("<<TESTOBJECT>>", ObjectUtils.identityToString(testObject));
     }
 
+    @Nested
+    @DisplayName("jsonStyle()")
+    class JsonStyle {
+
+        @Test
+        @DisplayName("not obfuscated")
+        void testNotObfuscated() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .withField("other", fixedLength(3))
+                    .build();
+
+            String string = appendFields(new ToStringBuilder(new Object(), toStringStyle)).toString();
+
+            assertEquals("{\"string\":\"a\\\"b\\\\c\\n\",\"int\":1,\"boolean\":true,\"char\":\"\\\"\",\"null\":null,\"list\":[\"a\",null,1],"
+                    + "\"map\":{\"a\":1,\"null\":\"b\"},\"array\":[1,\"a\"],\"intArray\":[1,2],\"charArray\":[\"a\",\"\\\\\"],"
+                    + "\"json\":{\"a\":\"b\"},\"date\":\"" + new Date(0) + "\"}", string);
+        }
+
+        @Test
+        @DisplayName("obfuscated")
+        void testObfuscated() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .withField("string", Obfuscator.portion()
+                            .keepAtStart(1)
+                            .keepAtEnd(1)
+                            .build())
+                    .withField("int", fixedLength(3))
+                    .withField("boolean", fixedValue("\"quoted\""))
+                    .withField("char", none())
+                    .withField("null", fixedLength(3))
+                    .withField("list", none())
+                    .withField("map", none())
+                    .withField("array", fixedLength(3))
+                    .withField("intArray", none())
+                    .withField("charArray", none())
+                    .withField("json", none())
+                    .withField("date", fixedLength(3))
+                    .build();
+
+            String string = appendFields(new ToStringBuilder(new Object(), toStringStyle)).toString();
+
+            assertEquals("{\"string\":\"a****\\n\",\"int\":\"***\",\"boolean\":\"\\\"quoted\\\"\",\"char\":\"\\\"\",\"null\":\"***\","
+                    + "\"list\":\"[\\\"a\\\",null,1]\",\"map\":\"{\\\"a\\\":1,\\\"null\\\":\\\"b\\\"}\",\"array\":\"***\","
+                    + "\"intArray\":\"[1,2]\",\"charArray\":\"[\\\"a\\\",\\\"\\\\\\\\\\\"]\","
+                    + "\"json\":\"{\\\"a\\\":\\\"b\\\"}\",\"date\":\"***\"}", string);
+
+            ToStringStyle sharedStyle = jsonStyle()
+                    .withField("string", Obfuscator.portion()
+                            .keepAtStart(1)
+                            .keepAtEnd(1)
+                            .build())
+                    .withField("int", fixedLength(3))
+                    .withField("boolean", fixedValue("\"quoted\""))
+                    .withField("char", none())
+                    .withField("null", fixedLength(3))
+                    .withField("list", none())
+                    .withField("map", none())
+                    .withField("array", fixedLength(3))
+                    .withField("intArray", none())
+                    .withField("charArray", none())
+                    .withField("json", none())
+                    .withField("date", fixedLength(3))
+                    .buildShared();
+
+            assertEquals(string, appendFields(new ToStringBuilder(new Object(), sharedStyle)).toString());
+        }
+
+        private ToStringBuilder appendFields(ToStringBuilder builder) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("a", 1);
+            map.put(null, "b");
+
+            return builder
+                    .append("string", "a\"b\\c\n")
+                    .append("int", 1)
+                    .append("boolean", true)
+                    .append("char", '"')
+                    .append("null", (Object) null)
+                    .append("list", Arrays.asList("a", null, 1))
+                    .append("map", map)
+                    .append("array", new Object[] { 1, "a" })
+                    .append("intArray", new int[] { 1, 2 })
+                    .append("charArray", new char[] { 'a', '\\' })
+                    .append("json", new JsonValue())
+                    .append("date", new Date(0));
+        }
+
+        @Test
+        @DisplayName("reflectionToString")
+        void testReflectionToString() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .withField("password", fixedLength(3))
+                    .build();
+
+            JsonObject object = new JsonObject();
+            // fields are sorted by name
+            String expected = "{\"name\":\"\\\"name\\\"\",\"password\":\"***\",\"self\":\"" + ObjectUtils.identityToString(object)
+                    + "\",\"values\":[1,2]}";
+
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, toStringStyle));
+        }
+
+        @Test
+        @DisplayName("limitElementsToByDefault")
+        void testLimitElementsToByDefault() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .limitElementsToByDefault(1)
+                    .build();
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("a", 1);
+            map.put("b", 2);
+            map.put("c", 3);
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", Arrays.asList(1, 2, 3))
+                    .append("map", map)
+                    .append("array", new int[] { 1, 2, 3 })
+                    .toString();
+
+            assertEquals("{\"list\":[1,\"...(2 more)\"],\"map\":{\"a\":1,\"...\":\"(2 more)\"},\"array\":[1,\"...(2 more)\"]}", string);
+        }
+
+        @Test
+        @DisplayName("obfuscated values with many characters to escape")
+        void testObfuscatedValuesWithManyCharactersToEscape() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .withField("value", none())
+                    .build();
+
+            String value = StringUtils.repeat("ab\"", 500);
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("value", value)
+                    .toString();
+
+            assertEquals("{\"value\":\"" + value.replace("\"", "\\\"") + "\"}", string);
+        }
+
+        @Test
+        @DisplayName("missing field names")
+        void testMissingFieldNames() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle().build();
+            ToStringBuilder builder = new ToStringBuilder(new Object(), toStringStyle);
+
+            assertThrows(UnsupportedOperationException.class, () -> builder.append("value"));
+        }
+    }
+
+    private static final class JsonValue {
+
+        @Override
+        public String toString() {
+            return "{\"a\":\"b\"}";
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class JsonObject {
+
+        private final String name = "\"name\"";
+        private final String password = "password";
+        private final int[] values = { 1, 2 };
+        private final JsonObject self = this;
+    }
+
+    @Nested
+    @DisplayName("logfmtStyle()")
+    class LogfmtStyle {
+
+        @Test
+        @DisplayName("not obfuscated")
+        void testNotObfuscated() {
+            ObfuscatingToStringStyle toStringStyle = logfmtStyle()
+                    .withField("other", fixedLength(3))
+                    .build();
+
+            String string = appendFields(new ToStringBuilder(new Object(), toStringStyle)).toString();
+
+            assertEquals("string=value spaces=\"a b\" quotes=\"a\\\"b\" equals=\"a=b\" newline=\"a\\nb\" empty= int=1 char=A null=null list=[a,b]"
+                    + " map=\"{a=1}\" array=[1,2] object=\"a b\"", string);
+        }
+
+        @Test
+        @DisplayName("obfuscated")
+        void testObfuscated() {
+            Builder builder = logfmtStyle()
+                    .withField("string", fixedValue("a b"))
+                    .withField("spaces", Obfuscator.portion()
+                            .keepAtStart(1)
+                            .build())
+                    .withField("quotes", none())
+                    .withField("equals", fixedLength(3))
+                    .withField("int", fixedValue("\""))
+                    .withField("list", none())
+                    .withField("map", fixedLength(3))
+                    .withField("object", none());
+
+            String expected = "string=\"a b\" spaces=a** quotes=\"a\\\"b\" equals=*** newline=\"a\\nb\" empty= int=\"\\\"\""
+                    + " char=A null=null list=[a,b] map=*** array=[1,2] object=\"a b\"";
+
+            assertEquals(expected, appendFields(new ToStringBuilder(new Object(), builder.build())).toString());
+            assertEquals(expected, appendFields(new ToStringBuilder(new Object(), builder.buildShared())).toString());
+        }
+
+        private ToStringBuilder appendFields(ToStringBuilder builder) {
+            return builder
+                    .append("string", "value")
+                    .append("spaces", "a b")
+                    .append("quotes", "a\"b")
+                    .append("equals", "a=b")
+                    .append("newline", "a\nb")
+                    .append("empty", "")
+                    .append("int", 1)
+                    .append("char", 'A')
+                    .append("null", (Object) null)
+                    .append("list", Arrays.asList("a", "b"))
+                    .append("map", Collections.singletonMap("a", 1))
+                    .append("array", new int[] { 1, 2 })
+                    .append("object", new Secret("a b"));
+        }
+
+        @Test
+        @DisplayName("reflectionToString")
+        void testReflectionToString() {
+            ObfuscatingToStringStyle toStringStyle = logfmtStyle()
+                    .withField("street", fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Address("Main"));
+
+            assertEquals("city=\"Main city\" street=***", string);
+            assertEquals(string, ToStringBuilder.reflectionToString(new Address("Main"), toStringStyle));
+        }
+
+        @Test
+        @DisplayName("reflectionToString to Appendable")
+        void testReflectionToStringToAppendable() throws IOException {
+            ObfuscatingToStringStyle toStringStyle = logfmtStyle().build();
+
+            List<String> list = Collections.nCopies(2000, "a b");
+            LogfmtObject object = new LogfmtObject(list);
+
+            StringWriter writer = new StringWriter();
+            toStringStyle.reflectionToString(object, writer);
+
+            String expected = "first=\"a b\" list=\"[" + String.join(",", list) + "]\" second=\"a b\"";
+            assertEquals(expected, writer.toString());
+        }
+    }
+
+    @Nested
+    @DisplayName("logfmtRecursiveStyle()")
+    class LogfmtRecursiveStyle {
+
+        @Test
+        @DisplayName("flattened")
+        void testFlattened() {
+            ObfuscatingToStringStyle toStringStyle = logfmtRecursiveStyle()
+                    .withField("street", fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            String otherAddresses = "\"[city=\\\"Other city\\\" street=***,city=\\\"Other city\\\" street=***]\"";
+            assertEquals("customer.address.city=\"Customer city\" customer.address.street=*** customer.otherAddresses=" + otherAddresses
+                    + " warehouse.address.city=\"Warehouse city\" warehouse.address.street=*** warehouse.otherAddresses=" + otherAddresses, string);
+            assertEquals(string, ToStringBuilder.reflectionToString(new Company(), toStringStyle));
+
+            StringWriter writer = new StringWriter();
+            assertDoesNotThrow(() -> toStringStyle.reflectionToString(new Company(), writer));
+            assertEquals(string, writer.toString());
+        }
+
+        @Test
+        @DisplayName("obfuscated nested objects")
+        void testObfuscatedNestedObjects() {
+            ObfuscatingToStringStyle toStringStyle = logfmtRecursiveStyle()
+                    .withFieldPath("customer.address", none())
+                    .withField("otherAddresses", fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertEquals("customer.address=\"city=Customer city street=Customer street\" customer.otherAddresses=***"
+                    + " warehouse.address.city=\"Warehouse city\" warehouse.address.street=\"Warehouse street\" warehouse.otherAddresses=***",
+                    string);
+        }
+
+        @Test
+        @DisplayName("maxDepth")
+        void testMaxDepth() {
+            ObfuscatingToStringStyle toStringStyle = logfmtRecursiveStyle(c -> true, 1)
+                    .withField("otherAddresses", fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertEquals("customer.address=<ObfuscatingToStringStyleTest.Address> customer.otherAddresses=***"
+                    + " warehouse.address=<ObfuscatingToStringStyleTest.Address> warehouse.otherAddresses=***", string);
+        }
+
+        @Test
+        @DisplayName("empty nested objects")
+        void testEmptyNestedObjects() {
+            ObfuscatingToStringStyle toStringStyle = logfmtRecursiveStyle().build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("first", 1)
+                    .append("empty", new EmptyObject())
+                    .append("second", 2)
+                    .append("empty2", new EmptyObject())
+                    .toString();
+
+            assertEquals("first=1 second=2", string);
+
+            string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("empty", new EmptyObject())
+                    .append("first", 1)
+                    .toString();
+
+            assertEquals("first=1", string);
+        }
+
+        @Test
+        @DisplayName("exception in nested toString")
+        void testExceptionInNestedToString() {
+            FailingValue failing = new FailingValue();
+            ValueHolder outer = new ValueHolder(new ValueHolder(failing));
+
+            ObfuscatingToStringStyle toStringStyle = logfmtRecursiveStyle(c -> c != FailingValue.class).build();
+
+            assertThrows(IllegalStateException.class, () -> toStringStyle.reflectionToString(outer));
+            assertThrows(IllegalStateException.class, () -> new ToStringBuilder(new Object(), toStringStyle)
+                    .append("first", 1)
+                    .append("outer", outer)
+                    .toString());
+
+            failing.fail = false;
+
+            // the fields that were being appended when the exception was thrown are not left behind
+            assertEquals("value.value=value", toStringStyle.reflectionToString(outer));
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("first", 1)
+                    .append("outer", outer)
+                    .toString();
+
+            assertEquals("first=1 outer.value.value=value", string);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class LogfmtObject {
+
+        private final String first = "a b";
+        private final List<String> list;
+        private final String second = "a b";
+
+        private LogfmtObject(List<String> list) {
+            this.list = list;
+        }
+    }
+
+    private static final class EmptyObject {
+        // no fields
+    }
+
     static class ToStringStyleTest {
 
         private Supplier<Builder> builderSupplier;
@@ -383,6 +806,24 @@ class ObfuscatingToStringStyleTest {
 
             string = ToStringBuilder.reflectionToString(testObject, configureBuilder(builderSupplier.get()).supplier().get());
             assertEquals(expectedReflectionToString.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+            ObfuscatingToStringStyle style = configureBuilder(builderSupplier.get()).build();
+            string = style.reflectionToString(testObject);
+            assertEquals(expectedReflectionToString.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+            // again, with the cached fields
+            string = style.reflectionToString(testObject);
+            assertEquals(expectedReflectionToString.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+            string = configureBuilder(builderSupplier.get()).supplier().get().reflectionToString(testObject);
+            assertEquals(expectedReflectionToString.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+            ToStringStyle sharedStyle = configureBuilder(builderSupplier.get()).buildShared();
+            string = ToStringBuilder.reflectionToString(testObject, sharedStyle);
+            assertEquals(expectedReflectionToString.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+            string = ToStringBuilder.reflectionToString(testObject, sharedStyle);
+            assertEquals(expectedReflectionToString.apply(testObject).replace("\r", ""), string.replace("\r", ""));
         }
 
         @Test
@@ -397,6 +838,15 @@ class ObfuscatingToStringStyleTest {
 
             string = ToStringBuilder.reflectionToString(testArray, configureBuilder(builderSupplier.get()).supplier().get());
             assertEquals(expectedArrayReflectionToString.apply(testArray).replace("\r", ""), string.replace("\r", ""));
+
+            string = configureBuilder(builderSupplier.get()).build().reflectionToString(testArray);
+            assertEquals(expectedArrayReflectionToString.apply(testArray).replace("\r", ""), string.replace("\r", ""));
+
+            string = configureBuilder(builderSupplier.get()).supplier().get().reflectionToString(testArray);
+            assertEquals(expectedArrayReflectionToString.apply(testArray).replace("\r", ""), string.replace("\r", ""));
+
+            string = ToStringBuilder.reflectionToString(testArray, configureBuilder(builderSupplier.get()).buildShared());
+            assertEquals(expectedArrayReflectionToString.apply(testArray).replace("\r", ""), string.replace("\r", ""));
         }
 
         @Nested
@@ -407,7 +857,11 @@ class ObfuscatingToStringStyleTest {
             @DisplayName("withObfuscateSummaries(true)")
             void testWithObfuscateSummaries() {
                 TestObject testObject = new TestObject();
-                String string = createTestString(testObject, true);
+                String string = createTestString(testObject, true, Builder::build);
+
+                assertEquals(expectedToStringBuilderWithObfuscateSummaries.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+                string = createTestString(testObject, true, Builder::buildShared);
 
                 assertEquals(expectedToStringBuilderWithObfuscateSummaries.apply(testObject).replace("\r", ""), string.replace("\r", ""));
             }
@@ -416,17 +870,21 @@ class ObfuscatingToStringStyleTest {
             @DisplayName("withObfuscateSummaries(false)")
             void testWithoutObfuscateSummaries() {
                 TestObject testObject = new TestObject();
-                String string = createTestString(testObject, false);
+                String string = createTestString(testObject, false, Builder::build);
+
+                assertEquals(expectedToStringBuilderWithoutObfuscateSummaries.apply(testObject).replace("\r", ""), string.replace("\r", ""));
+
+                string = createTestString(testObject, false, Builder::buildShared);
 
                 assertEquals(expectedToStringBuilderWithoutObfuscateSummaries.apply(testObject).replace("\r", ""), string.replace("\r", ""));
             }
 
-            private String createTestString(TestObject testObject, boolean obfuscateSummaries) {
+            private String createTestString(TestObject testObject, boolean obfuscateSummaries, Function<Builder, ToStringStyle> styleFactory) {
                 Builder builder = builderSupplier.get();
                 builder = obfuscateSummaries ? builder.includeSummariesByDefault() : builder.excludeSummariesByDefault();
                 builder = configureBuilder(builder);
 
-                return new ToStringBuilder(testObject, builder.build())
+                return new ToStringBuilder(testObject, styleFactory.apply(builder))
                         .append(testObject.booleanValue)
                         .append(testObject.booleanArray)
                         .append(testObject.byteValue)
@@ -484,6 +942,137 @@ class ObfuscatingToStringStyleTest {
             }
         }
 
+        @Nested
+        @DisplayName("allocations")
+        class Allocations {
+
+            // the lambda that is used to render the value, plus some leeway for the obfuscator
+            private static final long MAX_BYTES_PER_OBFUSCATED_FIELD = 64;
+
+            // iterating over a collection or map creates an iterator, unless the JIT compiler can prove it doesn't escape
+            private static final long MAX_BYTES_PER_ITERATOR = 32;
+
+            // the number of fields that appendNotObfuscatedFields and appendObfuscatedFields append
+            private static final int FIELD_COUNT = 34;
+
+            @Test
+            @DisplayName("fields that are not obfuscated")
+            void testNotObfuscatedFields() {
+                ObfuscatingToStringStyle toStringStyle = configureBuilder(builderSupplier.get()).build();
+                StringBuffer buffer = new StringBuffer(1024);
+
+                long allocated = allocatedBytes(() -> appendNotObfuscatedFields(toStringStyle, buffer));
+
+                // appendNotObfuscatedFields iterates over 2 collections and 2 maps; allow some noise, but nothing else may be allocated per call
+                assertThat(allocated, lessThan(4 * MAX_BYTES_PER_ITERATOR * ITERATIONS + ITERATIONS));
+            }
+
+            @Test
+            @DisplayName("fields that are obfuscated with fixed output")
+            void testObfuscatedFieldsWithFixedOutput() {
+                ObfuscatingToStringStyle toStringStyle = configureBuilder(builderSupplier.get()).build();
+                StringBuffer buffer = new StringBuffer(1024);
+
+                long allocated = allocatedBytes(() -> appendObfuscatedFields(toStringStyle, buffer));
+
+                assertThat(allocated, lessThanOrEqualTo(FIELD_COUNT * MAX_BYTES_PER_OBFUSCATED_FIELD * ITERATIONS));
+            }
+
+            @Test
+            @DisplayName("fields that are obfuscated with an obfuscator that reads values")
+            void testObfuscatedFieldsReadingValues() {
+                // unlike fixedLength, portion needs the rendered value, so values are rendered in full and summaries are obfuscated as well
+                Obfuscator obfuscator = portion()
+                        .keepAtStart(1)
+                        .keepAtEnd(1)
+                        .build();
+                ObfuscatingToStringStyle toStringStyle = configureBuilder(builderSupplier.get().includeSummariesByDefault(), obfuscator).build();
+                StringBuffer buffer = new StringBuffer(1024);
+
+                long allocated = allocatedBytes(() -> appendObfuscatedFields(toStringStyle, buffer));
+
+                assertThat(allocated, lessThanOrEqualTo(FIELD_COUNT * MAX_BYTES_PER_OBFUSCATED_FIELD * ITERATIONS));
+            }
+
+            // appends FIELD_COUNT fields, covering every appendDetail and appendSummary overload
+            private void appendNotObfuscatedFields(ObfuscatingToStringStyle toStringStyle, StringBuffer buffer) {
+                buffer.setLength(0);
+                toStringStyle.append(buffer, "notMatchedLongValue", 1L);
+                toStringStyle.append(buffer, "notMatchedIntValue", 2);
+                toStringStyle.append(buffer, "notMatchedShortValue", (short) 3);
+                toStringStyle.append(buffer, "notMatchedByteValue", (byte) 4);
+                toStringStyle.append(buffer, "notMatchedCharValue", 'A');
+                toStringStyle.append(buffer, "notMatchedDoubleValue", 0.5D);
+                toStringStyle.append(buffer, "notMatchedFloatValue", 0.25F);
+                toStringStyle.append(buffer, "notMatchedBooleanValue", true);
+                toStringStyle.append(buffer, "notMatchedObjectArray", STRING_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedObjectArray", STRING_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedLongArray", LONG_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedLongArray", LONG_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedIntArray", INT_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedIntArray", INT_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedShortArray", SHORT_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedShortArray", SHORT_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedByteArray", BYTE_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedByteArray", BYTE_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedCharArray", CHAR_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedCharArray", CHAR_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedDoubleArray", DOUBLE_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedDoubleArray", DOUBLE_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedFloatArray", FLOAT_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedFloatArray", FLOAT_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedBooleanArray", BOOLEAN_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedBooleanArray", BOOLEAN_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedNullValue", (Object) null, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedStringValue", STRING_VALUE, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedStringValue", STRING_VALUE, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedStringList", STRING_LIST, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedStringList", STRING_LIST, Boolean.FALSE);
+                toStringStyle.append(buffer, "notMatchedStringMap", STRING_MAP, Boolean.TRUE);
+                toStringStyle.append(buffer, "notMatchedStringMap", STRING_MAP, Boolean.FALSE);
+                toStringStyle.reflectionAppendArrayDetail(buffer, "notMatchedObjectArray", STRING_ARRAY);
+            }
+
+            // appends FIELD_COUNT fields, covering every appendDetail and appendSummary overload
+            private void appendObfuscatedFields(ObfuscatingToStringStyle toStringStyle, StringBuffer buffer) {
+                buffer.setLength(0);
+                toStringStyle.append(buffer, "longValue", 1L);
+                toStringStyle.append(buffer, "intValue", 2);
+                toStringStyle.append(buffer, "shortValue", (short) 3);
+                toStringStyle.append(buffer, "byteValue", (byte) 4);
+                toStringStyle.append(buffer, "charValue", 'A');
+                toStringStyle.append(buffer, "doubleValue", 0.5D);
+                toStringStyle.append(buffer, "floatValue", 0.25F);
+                toStringStyle.append(buffer, "booleanValue", true);
+                toStringStyle.append(buffer, "objectArray", STRING_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "objectArray", STRING_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "longArray", LONG_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "longArray", LONG_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "intArray", INT_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "intArray", INT_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "shortArray", SHORT_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "shortArray", SHORT_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "byteArray", BYTE_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "byteArray", BYTE_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "charArray", CHAR_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "charArray", CHAR_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "doubleArray", DOUBLE_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "doubleArray", DOUBLE_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "floatArray", FLOAT_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "floatArray", FLOAT_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "booleanArray", BOOLEAN_ARRAY, Boolean.TRUE);
+                toStringStyle.append(buffer, "booleanArray", BOOLEAN_ARRAY, Boolean.FALSE);
+                toStringStyle.append(buffer, "nullValue", (Object) null, Boolean.TRUE);
+                toStringStyle.append(buffer, "stringValue", STRING_VALUE, Boolean.TRUE);
+                toStringStyle.append(buffer, "stringValue", STRING_VALUE, Boolean.FALSE);
+                toStringStyle.append(buffer, "stringList", STRING_LIST, Boolean.TRUE);
+                toStringStyle.append(buffer, "stringList", STRING_LIST, Boolean.FALSE);
+                toStringStyle.append(buffer, "intMap", STRING_MAP, Boolean.TRUE);
+                toStringStyle.append(buffer, "intMap", STRING_MAP, Boolean.FALSE);
+                toStringStyle.reflectionAppendArrayDetail(buffer, "objectArray", STRING_ARRAY);
+            }
+        }
+
         String getSuperValue() {
             return "[super]";
         }
@@ -493,8 +1082,51 @@ class ObfuscatingToStringStyleTest {
         }
     }
 
+    private static final int WARMUP_ITERATIONS = 10_000;
+    private static final int ITERATIONS = 10_000;
+
+    private static long allocatedBytes(Runnable action) {
+        ThreadMXBean allocationMXBean = ManagementFactory.getPlatformMXBean(ThreadMXBean.class);
+        assumeTrue(allocationMXBean != null && allocationMXBean.isThreadAllocatedMemorySupported());
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.run();
+        }
+
+        // determine the overhead of measuring itself
+        long start = allocationMXBean.getThreadAllocatedBytes(threadId);
+        long overhead = allocationMXBean.getThreadAllocatedBytes(threadId) - start;
+
+        start = allocationMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        long end = allocationMXBean.getThreadAllocatedBytes(threadId);
+
+        return Math.max(0, end - start - overhead);
+    }
+
+    private static final long[] LONG_ARRAY = { 1, 2, 3 };
+    private static final int[] INT_ARRAY = { 1, 2, 3 };
+    private static final short[] SHORT_ARRAY = { 1, 2, 3 };
+    private static final byte[] BYTE_ARRAY = { 1, 2, 3 };
+    private static final char[] CHAR_ARRAY = { 'a', 'b', 'c' };
+    private static final double[] DOUBLE_ARRAY = { 0.5D, 1.5D };
+    private static final float[] FLOAT_ARRAY = { 0.25F, 1.25F };
+    private static final boolean[] BOOLEAN_ARRAY = { true, false };
+    private static final String STRING_VALUE = "foo";
+    private static final List<String> STRING_LIST = Arrays.asList("foo", "bar");
+    private static final Map<String, String> STRING_MAP = Collections.singletonMap("foo", "bar");
+    private static final String[] STRING_ARRAY = { "foo", "bar" };
+
     private static Builder configureBuilder(Builder builder) {
-        Obfuscator obfuscator = fixedLength(3);
+        return configureBuilder(builder, fixedLength(3));
+    }
+
+    private static Builder configureBuilder(Builder builder, Obfuscator obfuscator) {
         return builder
                 .withField("stringValue", obfuscator)
                 .withField("dateValue", obfuscator)
@@ -522,6 +1154,2319 @@ class ObfuscatingToStringStyleTest {
                 ;
     }
 
+    @Nested
+    @DisplayName("obfuscating")
+    class Obfuscating {
+
+        @Test
+        @DisplayName("existing content is not modified")
+        void testExistingContentNotModified() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withField("obfuscated", fixedLength(3))
+                    .build();
+
+            StringBuffer buffer = new StringBuffer("prefix,");
+            toStringStyle.append(buffer, "obfuscated", "value", true);
+            toStringStyle.append(buffer, "notObfuscated", "value", true);
+            toStringStyle.append(buffer, "obfuscated", "other value", true);
+            assertEquals("prefix,obfuscated=***,notObfuscated=value,obfuscated=***,", buffer.toString());
+        }
+
+        @Test
+        @DisplayName("failure while appending value")
+        void testFailureWhileAppendingValue() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withField("obfuscated", none())
+                    .build();
+
+            Object failing = new Object() {
+                @Override
+                public String toString() {
+                    throw new IllegalStateException();
+                }
+            };
+
+            StringBuffer buffer = new StringBuffer();
+            assertThrows(IllegalStateException.class, () -> toStringStyle.append(buffer, "obfuscated", failing, true));
+            assertEquals("obfuscated=", buffer.toString());
+
+            buffer.delete(0, buffer.length());
+            toStringStyle.append(buffer, "obfuscated", "value", true);
+            assertEquals("obfuscated=value,", buffer.toString());
+        }
+    }
+
+    @Nested
+    @DisplayName("reflectionToString")
+    class ReflectionToString {
+
+        @Test
+        @DisplayName("same output as ReflectionToStringBuilder")
+        void testSameOutputAsReflectionToStringBuilder() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withField("obfuscated", fixedLength(3))
+                    .withField("summary", fixedLength(3))
+                    .includeSummaries()
+                    .build();
+
+            ReflectedObject object = new ReflectedObject();
+            object.nested = new ReflectedObject();
+
+            String expected = ToStringBuilder.reflectionToString(object, toStringStyle);
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            assertFalse(expected.contains("excluded"));
+            assertFalse(expected.contains("Transient"));
+            assertFalse(expected.contains("Static"));
+            assertTrue(expected.contains("superValue"));
+        }
+
+        @Test
+        @DisplayName("null")
+        void testNull() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle().build();
+
+            assertEquals("<null>", toStringStyle.reflectionToString(null));
+        }
+
+        @Test
+        @DisplayName("to Appendable")
+        void testToAppendable() throws IOException {
+            ObfuscatingToStringStyle toStringStyle = configureBuilder(multiLineRecursiveStyle(c -> c != Date.class)).build();
+
+            StreamedObject object = new StreamedObject();
+
+            String expected = toStringStyle.reflectionToString(object);
+
+            StringBuilder sb = new StringBuilder();
+            toStringStyle.reflectionToString(object, sb);
+            assertEquals(expected, sb.toString());
+
+            List<Integer> writeSizes = new ArrayList<>();
+            StringWriter writer = new StringWriter() {
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                    writeSizes.add(len);
+                    super.write(cbuf, off, len);
+                }
+            };
+            toStringStyle.reflectionToString(object, writer);
+            assertEquals(expected, writer.toString());
+            // the content is written in several bounded chunks
+            assertThat(writeSizes.size(), greaterThan(10));
+            for (int writeSize : writeSizes) {
+                assertThat(writeSize, lessThanOrEqualTo(8192));
+            }
+
+            StringWriter nullWriter = new StringWriter();
+            toStringStyle.reflectionToString(null, nullWriter);
+            assertEquals("<null>", nullWriter.toString());
+        }
+
+        @Test
+        @DisplayName("to failing Appendable")
+        void testToFailingAppendable() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle().build();
+
+            StreamedObject object = new StreamedObject();
+            IOException exception = new IOException();
+            Writer writer = new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) throws IOException {
+                    throw exception;
+                }
+
+                @Override
+                public void flush() {
+                    // does nothing
+                }
+
+                @Override
+                public void close() {
+                    // does nothing
+                }
+            };
+
+            assertSame(exception, assertThrows(IOException.class, () -> toStringStyle.reflectionToString(object, writer)));
+            // the style can still be used
+            assertEquals(toStringStyle.reflectionToString(object), assertDoesNotThrow(() -> {
+                StringWriter stringWriter = new StringWriter();
+                toStringStyle.reflectionToString(object, stringWriter);
+                return stringWriter.toString();
+            }));
+        }
+
+        @Test
+        @DisplayName("to UTF-8")
+        void testToUtf8() throws IOException {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withField("password", fixedLength(3))
+                    .build();
+
+            Utf8Object object = new Utf8Object();
+
+            String expected = toStringStyle.reflectionToString(object);
+            assertThat(expected, containsString("password=***"));
+            byte[] expectedBytes = expected.getBytes(StandardCharsets.UTF_8);
+
+            // heap buffer that is large enough
+            ByteBuffer buffer = ByteBuffer.allocate(expectedBytes.length + 10);
+            buffer.put((byte) 'x');
+            assertSame(buffer, toStringStyle.reflectionToUtf8(object, buffer, b -> {
+                throw new AssertionError("buffer should not be full");
+            }));
+            assertEquals(expectedBytes.length + 1, buffer.position());
+            assertArrayEquals(("x" + expected).getBytes(StandardCharsets.UTF_8), bytes(buffer));
+
+            // heap buffer that grows
+            buffer = toStringStyle.reflectionToUtf8(object, ByteBuffer.allocate(1), ByteBufferFullHandler.growing());
+            assertArrayEquals(expectedBytes, bytes(buffer));
+
+            // direct buffer that grows
+            buffer = toStringStyle.reflectionToUtf8(object, ByteBuffer.allocateDirect(7), ByteBufferFullHandler.growing());
+            assertTrue(buffer.isDirect());
+            assertArrayEquals(expectedBytes, bytes(buffer));
+
+            // direct buffer that is flushed; multi-byte characters are split over flushes
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ByteBuffer direct = ByteBuffer.allocateDirect(5);
+            buffer = toStringStyle.reflectionToUtf8(object, direct, b -> {
+                output.write(bytes(b));
+                b.clear();
+                return b;
+            });
+            assertSame(direct, buffer);
+            output.write(bytes(buffer));
+            assertArrayEquals(expectedBytes, output.toByteArray());
+
+            buffer = toStringStyle.reflectionToUtf8(null, ByteBuffer.allocate(1), ByteBufferFullHandler.growing());
+            assertEquals("<null>", new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("to UTF-8 with invalid handler")
+        void testToUtf8WithInvalidHandler() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle().build();
+
+            Utf8Object object = new Utf8Object();
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+
+            assertThrows(BufferOverflowException.class, () -> toStringStyle.reflectionToUtf8(object, buffer, b -> b));
+            assertThrows(NullPointerException.class, () -> toStringStyle.reflectionToUtf8(object, null, ByteBufferFullHandler.growing()));
+            assertThrows(NullPointerException.class, () -> toStringStyle.reflectionToUtf8(object, buffer, null));
+        }
+
+        private byte[] bytes(ByteBuffer buffer) {
+            buffer.flip();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Utf8Object {
+
+        private final String name = "Zo\u00eb \u20ac \ud83d\ude00";
+        private final String password = "p\u00e4ssw\u00f6rd";
+        private final List<TestObject> values = StreamedObject.testObjects(200);
+        private final char[] unpaired = { 'a', '\ud83d', 'b', '\ude00' };
+    }
+
+    @SuppressWarnings("unused")
+    private static final class StreamedObject {
+
+        private final List<TestObject> values = testObjects(100);
+        private final String stringValue = "string";
+        private final TestObject[] array = values.toArray(new TestObject[0]);
+        private final String notMatchedStringValue = "string";
+
+        private static List<TestObject> testObjects(int count) {
+            List<TestObject> testObjects = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                testObjects.add(new TestObject());
+            }
+            return testObjects;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class ReflectedSuperObject {
+
+        private final String superValue = "super";
+        private final int[] obfuscated = { 1, 2, 3 };
+    }
+
+    @SuppressWarnings("unused")
+    private static final class ReflectedObject extends ReflectedSuperObject {
+
+        private static final String IGNORED_STATIC = "Static";
+
+        private final String obfuscated = "obfuscated value";
+        private final String notObfuscated = "value";
+        @ToStringSummary
+        private final List<String> summary = Arrays.asList("a", "b");
+        @ToStringExclude
+        private final String excluded = "excluded";
+        private final transient String ignoredTransient = "Transient";
+        private ReflectedObject nested;
+    }
+
+    @Nested
+    @DisplayName("cycles")
+    class Cycles {
+
+        @Test
+        @DisplayName("recursiveStyle()")
+        void testRecursiveStyle() {
+            CyclicObject object = new CyclicObject();
+
+            String expected = ToStringBuilder.reflectionToString(object, new RecursiveToStringStyle());
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle().build();
+
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, toStringStyle));
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            // the registry is empty again after formatting
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, recursiveStyle().buildShared()));
+        }
+
+        @Test
+        @DisplayName("multiLineRecursiveStyle()")
+        void testMultiLineRecursiveStyle() {
+            CyclicObject object = new CyclicObject();
+
+            String expected = ToStringBuilder.reflectionToString(object, new MultilineRecursiveToStringStyle());
+            ObfuscatingToStringStyle toStringStyle = multiLineRecursiveStyle().build();
+
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, toStringStyle));
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+        }
+
+        @Test
+        @DisplayName("with ToStringBuilder")
+        void testWithToStringBuilder() {
+            CyclicObject object = new CyclicObject();
+
+            String expected = new ToStringBuilder(object, new RecursiveToStringStyle())
+                    .append("self", object)
+                    .append("other", object.other)
+                    .toString();
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle().build();
+            String string = new ToStringBuilder(object, toStringStyle)
+                    .append("self", object)
+                    .append("other", object.other)
+                    .toString();
+
+            assertEquals(expected, string);
+        }
+
+        @Test
+        @DisplayName("cycle after exception")
+        void testCycleAfterException() {
+            Object failing = new Object() {
+                @Override
+                public String toString() {
+                    throw new IllegalStateException();
+                }
+            };
+
+            CyclicObject object = new CyclicObject();
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(c -> c != failing.getClass()).build();
+            String expected = toStringStyle.reflectionToString(object);
+
+            ToStringBuilder builder = new ToStringBuilder(new Object(), toStringStyle);
+            assertThrows(IllegalStateException.class, () -> builder.append("failing", Collections.singletonList(failing)));
+
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+        }
+
+        @Test
+        @DisplayName("no cycle after exception in reflectionToString")
+        void testNoCycleAfterExceptionInReflectionToString() {
+            FailingValue failing = new FailingValue();
+            ValueHolder holder = new ValueHolder(failing);
+            ValueHolder outer = new ValueHolder(holder);
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(c -> c != FailingValue.class).build();
+
+            assertThrows(IllegalStateException.class, () -> toStringStyle.reflectionToString(holder));
+            assertThrows(IllegalStateException.class, () -> new ToStringBuilder(holder, toStringStyle).append("value", failing).toString());
+
+            failing.fail = false;
+
+            // the holder is not left behind in the registry, and is therefore not seen as a cyclic reference
+            String expected = ObjectUtils.identityToString(outer) + "[value=" + ObjectUtils.identityToString(holder) + "[value=value]]";
+            assertEquals(expected, toStringStyle.reflectionToString(outer));
+            assertEquals(expected, new ToStringBuilder(outer, toStringStyle).append("value", holder).toString());
+        }
+
+        @Test
+        @DisplayName("cycle through other style")
+        void testCycleThroughOtherStyle() {
+            List<ToStringStyle> toStringStyles = Arrays.asList(
+                    defaultStyle().build(),
+                    recursiveStyle(c -> c != OtherStyleChild.class).build(),
+                    recursiveStyle(c -> c != OtherStyleChild.class).buildShared());
+
+            for (ToStringStyle toStringStyle : toStringStyles) {
+                OtherStyleParent parent = new OtherStyleParent(toStringStyle);
+                OtherStyleChild child = new OtherStyleChild(parent);
+                parent.child = child;
+
+                // The child is formatted using ToStringStyle.DEFAULT_STYLE, which does not see the parent that is being formatted.
+                // The cycle is detected when the parent is formatted using the obfuscating style again.
+                String expected = ObjectUtils.identityToString(parent) + "[child="
+                        + ObjectUtils.identityToString(child) + "[parent="
+                        + ObjectUtils.identityToString(parent) + "[child=" + ObjectUtils.identityToString(child) + "]]]";
+                assertEquals(expected, parent.toString());
+
+                // The parent is formatted using the obfuscating style, which does not see the child that is being formatted.
+                // The cycle is detected when the child is formatted using ToStringStyle.DEFAULT_STYLE again.
+                expected = ObjectUtils.identityToString(child) + "[parent="
+                        + ObjectUtils.identityToString(parent) + "[child="
+                        + ObjectUtils.identityToString(child) + "[parent=" + ObjectUtils.identityToString(parent) + "]]]";
+                assertEquals(expected, child.toString());
+            }
+
+            SharedObfuscatingToStringStyle sharedStyle = (SharedObfuscatingToStringStyle) toStringStyles.get(2);
+            assertEquals(0, sharedStyle.renderCount());
+        }
+
+        @Test
+        @DisplayName("no allocations for values formatted using toString()")
+        void testNoAllocationsForValuesFormattedUsingToString() {
+            List<ToStringStyle> toStringStyles = Arrays.asList(
+                    defaultStyle().build(),
+                    recursiveStyle(c -> c != PlainValue.class).build(),
+                    recursiveStyle(c -> c != PlainValue.class).buildShared());
+
+            PlainValue value = new PlainValue();
+
+            for (ToStringStyle toStringStyle : toStringStyles) {
+                StringBuffer buffer = new StringBuffer(1024);
+                Object object = new Object();
+
+                // while the object is being formatted, it is registered, and so is the value while it is being appended
+                toStringStyle.appendStart(buffer, object);
+                long allocated = allocatedBytes(() -> {
+                    buffer.setLength(0);
+                    toStringStyle.append(buffer, "value", value, Boolean.TRUE);
+                });
+                toStringStyle.appendEnd(buffer, object);
+
+                // allow some noise, but nothing may be allocated per call
+                assertThat(allocated, lessThan((long) ITERATIONS));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("maximum depth")
+    class MaxDepth {
+
+        private final String summary = "<" + ClassUtils.getShortClassName(Node.class) + ">";
+
+        @Test
+        @DisplayName("recursiveStyle(Predicate, int)")
+        void testRecursiveStyle() {
+            Node node = Node.list(10_000);
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(c -> true, 2).build();
+
+            String expected = ObjectUtils.identityToString(node) + "[id=0,next="
+                    + ObjectUtils.identityToString(node.next) + "[id=1,next="
+                    + ObjectUtils.identityToString(node.next.next) + "[id=2,next=" + summary + "]]]";
+
+            assertEquals(expected, toStringStyle.reflectionToString(node));
+            assertEquals(expected, ToStringBuilder.reflectionToString(node, toStringStyle));
+            // the depth is reset
+            assertEquals(expected, toStringStyle.reflectionToString(node));
+        }
+
+        @Test
+        @DisplayName("multiLineRecursiveStyle(Predicate, int)")
+        void testMultiLineRecursiveStyle() {
+            Node node = Node.list(10_000);
+
+            ObfuscatingToStringStyle toStringStyle = multiLineRecursiveStyle(c -> true, 1).build();
+
+            String expected = ObjectUtils.identityToString(node) + "[" + System.lineSeparator()
+                    + "  id=0," + System.lineSeparator()
+                    + "  next=" + ObjectUtils.identityToString(node.next) + "[" + System.lineSeparator()
+                    + "    id=1," + System.lineSeparator()
+                    + "    next=" + summary + System.lineSeparator()
+                    + "  ]" + System.lineSeparator()
+                    + "]";
+
+            assertEquals(expected, toStringStyle.reflectionToString(node));
+        }
+
+        @Test
+        @DisplayName("multiLineRecursiveStyle() without maximum depth")
+        void testMultiLineRecursiveStyleWithoutMaxDepth() {
+            // deeper than the initial number of indent levels
+            Node node = Node.list(20);
+
+            String expected = ToStringBuilder.reflectionToString(node, new MultilineRecursiveToStringStyle());
+
+            assertEquals(expected, multiLineRecursiveStyle().build().reflectionToString(node));
+            assertEquals(expected, multiLineRecursiveStyle().build().reflectionToString(node));
+        }
+
+        @Test
+        @DisplayName("zero")
+        void testZero() {
+            Node node = Node.list(3);
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(c -> true, 0).build();
+
+            assertEquals(ObjectUtils.identityToString(node) + "[id=0,next=" + summary + "]", toStringStyle.reflectionToString(node));
+        }
+
+        @Test
+        @DisplayName("obfuscated fields")
+        void testObfuscatedFields() {
+            Node node = Node.list(3);
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(c -> true, 1)
+                    .withField("next", Obfuscator.portion()
+                            .keepAtStart(2)
+                            .build())
+                    .build();
+
+            // the summary of the second node is obfuscated, even though summaries are not obfuscated by default
+            String nested = ObjectUtils.identityToString(node.next) + "[id=1,next=" + summary + "]";
+            String expected = ObjectUtils.identityToString(node) + "[id=0,next="
+                    + nested.substring(0, 2) + StringUtils.repeat('*', nested.length() - 2) + "]";
+            assertEquals(expected, toStringStyle.reflectionToString(node));
+
+            toStringStyle = recursiveStyle(c -> true, 0)
+                    .withField("next", Obfuscator.portion()
+                            .keepAtStart(2)
+                            .build())
+                    .build();
+
+            expected = ObjectUtils.identityToString(node) + "[id=0,next="
+                    + summary.substring(0, 2) + StringUtils.repeat('*', summary.length() - 2) + "]";
+            assertEquals(expected, toStringStyle.reflectionToString(node));
+        }
+
+        @Test
+        @DisplayName("negative")
+        void testNegative() {
+            assertThrows(IllegalArgumentException.class, () -> recursiveStyle(c -> true, -1));
+            assertThrows(IllegalArgumentException.class, () -> multiLineRecursiveStyle(c -> true, -1));
+        }
+    }
+
+    @Nested
+    @DisplayName("pure(Predicate)")
+    class Pure {
+
+        @Test
+        @DisplayName("evaluated once per class")
+        void testEvaluatedOncePerClass() {
+            List<Class<?>> tested = new ArrayList<>();
+            Predicate<Class<?>> recurseIntoPredicate = ObfuscatingToStringStyle.pure(c -> tested.add(c) && c == Node.class);
+
+            Builder builder = recursiveStyle(recurseIntoPredicate);
+            Node node = Node.list(5);
+
+            String expected = ToStringBuilder.reflectionToString(node, new RecursiveToStringStyle());
+
+            assertEquals(expected, builder.build().reflectionToString(node));
+            assertEquals(expected, builder.build().reflectionToString(node));
+            assertEquals(expected, builder.supplier().get().reflectionToString(node));
+            assertEquals(expected, multiLineRecursiveStyle(recurseIntoPredicate).build().reflectionToString(node).replaceAll("\\s", ""));
+
+            assertEquals(Collections.singletonList(Node.class), tested);
+        }
+
+        @Test
+        @DisplayName("not pure")
+        void testNotPure() {
+            List<Class<?>> tested = new ArrayList<>();
+            Predicate<Class<?>> recurseIntoPredicate = c -> tested.add(c) && c == Node.class;
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(recurseIntoPredicate).build();
+            Node node = Node.list(5);
+
+            toStringStyle.reflectionToString(node);
+            toStringStyle.reflectionToString(node);
+
+            assertEquals(8, tested.size());
+        }
+
+        @Test
+        @DisplayName("primitive wrappers and strings")
+        void testPrimitiveWrappersAndStrings() {
+            List<Class<?>> tested = new ArrayList<>();
+            Predicate<Class<?>> recurseIntoPredicate = ObfuscatingToStringStyle.pure(c -> tested.add(c));
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle(recurseIntoPredicate).build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("int", Integer.valueOf(1))
+                    .append("string", "value")
+                    .toString();
+
+            assertThat(string, endsWith("[int=1,string=value]"));
+            assertEquals(Collections.emptyList(), tested);
+            // the predicate itself is still evaluated as-is
+            assertTrue(recurseIntoPredicate.test(String.class));
+        }
+
+        @Test
+        @DisplayName("already pure")
+        void testAlreadyPure() {
+            Predicate<Class<?>> recurseIntoPredicate = ObfuscatingToStringStyle.pure(c -> true);
+
+            assertSame(recurseIntoPredicate, ObfuscatingToStringStyle.pure(recurseIntoPredicate));
+            assertThrows(NullPointerException.class, () -> ObfuscatingToStringStyle.pure(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("limitTo")
+    class LimitTo {
+
+        @Test
+        @DisplayName("negative max length")
+        void testNegativeMaxLength() {
+            Builder builder = defaultStyle();
+
+            assertThrows(IllegalArgumentException.class, () -> builder.limitTo(-1));
+            assertThrows(NullPointerException.class, () -> builder.withTruncationMarker(null));
+        }
+
+        @Test
+        @DisplayName("not reached")
+        void testNotReached() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withField("obfuscated", fixedLength(3))
+                    .limitTo(1000)
+                    .build();
+
+            LimitedObject object = new LimitedObject(3);
+            object.nested = new LimitedObject(3);
+
+            String expected = ToStringBuilder.reflectionToString(object, recursiveStyle()
+                    .withField("obfuscated", fixedLength(3))
+                    .build());
+
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, toStringStyle));
+        }
+
+        @Test
+        @DisplayName("reached in collection")
+        void testReachedInCollection() {
+            LimitedObject object = new LimitedObject(1000);
+            String prefix = ObjectUtils.identityToString(object) + "[a=a,list=[0,1,2,3,";
+            int maxLength = prefix.length() + 100;
+
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .limitTo(maxLength)
+                    .withTruncationMarker("<truncated>")
+                    .build();
+
+            String string = toStringStyle.reflectionToString(object);
+            assertThat(string, startsWith(prefix));
+            // the collection and the object are still closed
+            assertThat(string, endsWith("<truncated>]]"));
+            // the last element is at most 4 characters long, including separator
+            assertThat(string.length(), lessThanOrEqualTo(maxLength + 4 + "<truncated>]]".length()));
+
+            StringWriter writer = new StringWriter();
+            assertDoesNotThrow(() -> toStringStyle.reflectionToString(object, writer));
+            assertEquals(string, writer.toString());
+
+            assertEquals(string, ToStringBuilder.reflectionToString(object, toStringStyle));
+        }
+
+        @Test
+        @DisplayName("reached in nested object")
+        void testReachedInNestedObject() {
+            LimitedObject object = new LimitedObject(0);
+            object.nested = new LimitedObject(100);
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .limitTo(2 * ObjectUtils.identityToString(object).length() + 50)
+                    .build();
+
+            String string = toStringStyle.reflectionToString(object);
+            String prefix = ObjectUtils.identityToString(object) + "[a=a,list=[],nested=" + ObjectUtils.identityToString(object.nested);
+            assertThat(string, startsWith(prefix));
+            // the collection, the nested object and the object are still closed
+            assertThat(string, endsWith("...]]]"));
+
+            // the objects are no longer registered, and are therefore not seen as cyclic references
+            ObfuscatingToStringStyle unlimitedStyle = recursiveStyle().build();
+            assertThat(unlimitedStyle.reflectionToString(object), containsString("nested=" + ObjectUtils.identityToString(object.nested) + "[a=a"));
+
+            // the style can be reused
+            assertEquals(string, toStringStyle.reflectionToString(object));
+        }
+
+        @Test
+        @DisplayName("obfuscated values are not cut off")
+        void testObfuscatedValuesNotCutOff() {
+            LimitedObject object = new LimitedObject(1000);
+
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withField("list", Obfuscator.portion()
+                            .keepAtStart(2)
+                            .build())
+                    .limitTo(ObjectUtils.identityToString(object).length() + 20)
+                    .build();
+
+            String string = toStringStyle.reflectionToString(object);
+            String obfuscatedList = "[0" + StringUtils.repeat('*', object.list.toString().replace(" ", "").length() - 2);
+            assertEquals(ObjectUtils.identityToString(object) + "[a=a,list=" + obfuscatedList + "...]", string);
+        }
+
+        @Test
+        @DisplayName("reached with ToStringBuilder")
+        void testReachedWithToStringBuilder() {
+            Object object = new Object();
+            String prefix = ObjectUtils.identityToString(object) + "[";
+
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withField("password", fixedLength(3))
+                    .limitTo(prefix.length() + 12)
+                    .build();
+
+            String string = new ToStringBuilder(object, toStringStyle)
+                    .append("a", "aaaaaaaaaa")
+                    .append("password", "secret")
+                    .append("c", 'c')
+                    .append("d", 1)
+                    .append("e", new int[] { 1, 2, 3 })
+                    .toString();
+            assertEquals(prefix + "a=aaaaaaaaaa...]", string);
+
+            // the style can be reused
+            string = new ToStringBuilder(object, toStringStyle)
+                    .append("a", 1)
+                    .append("password", "secret")
+                    .append("c", "cccccccccc")
+                    .toString();
+            assertEquals(prefix + "a=1,password=***...]", string);
+        }
+
+        @Test
+        @DisplayName("reached with JSON style")
+        void testReachedWithJsonStyle() {
+            LimitedObject object = new LimitedObject(1000);
+
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .limitTo(30)
+                    .build();
+
+            // the truncation marker is an element of the collection, and the collection and object are still closed
+            assertEquals("{\"a\":\"a\",\"list\":[0,1,2,3,4,5,6,\"...\"]}", toStringStyle.reflectionToString(object));
+
+            object = new LimitedObject(0);
+
+            toStringStyle = jsonStyle()
+                    .limitTo(15)
+                    .build();
+
+            // the truncation marker replaces the remaining fields
+            assertEquals("{\"a\":\"a\",\"list\":[],\"...\":null}", toStringStyle.reflectionToString(object));
+        }
+
+        @Test
+        @DisplayName("truncated JSON output is valid JSON")
+        void testTruncatedJsonIsValid() {
+            Builder builder = jsonStyle()
+                    .withField("password", fixedLength(3));
+            String full = appendJsonFields(builder.build());
+            Map<?, ?> parsedFull = (Map<?, ?>) JsonParser.parse(full);
+            assertEquals(Arrays.asList("a", "password", "list", "map", "ints", "strings", "b"), new ArrayList<>(parsedFull.keySet()));
+            // simply cutting off the output is not valid JSON
+            assertThrows(IllegalArgumentException.class, () -> JsonParser.parse(full.substring(0, full.length() / 2)));
+
+            for (int maxLength = 0; maxLength <= full.length(); maxLength++) {
+                ObfuscatingToStringStyle toStringStyle = builder
+                        .limitTo(maxLength)
+                        .build();
+
+                String truncated = appendJsonFields(toStringStyle);
+                Object parsed = assertDoesNotThrow(() -> JsonParser.parse(truncated), truncated);
+                assertThat(parsed, instanceOf(Map.class));
+
+                String reflected = toStringStyle.reflectionToString(new LimitedObject(10));
+                assertThat(assertDoesNotThrow(() -> JsonParser.parse(reflected), reflected), instanceOf(Map.class));
+            }
+        }
+
+        private String appendJsonFields(ObfuscatingToStringStyle toStringStyle) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("x", 1);
+            map.put("y", "y\"y");
+            map.put("z", Arrays.asList(1, 2, 3));
+
+            return new ToStringBuilder(new Object(), toStringStyle)
+                    .append("a", "aaaaaaaaaa")
+                    .append("password", "secret")
+                    .append("list", Arrays.asList("foo", "bar", null))
+                    .append("map", map)
+                    .append("ints", new int[] { 1, 2, 3, 4, 5 })
+                    .append("strings", new String[] { "foo", "bar\\baz" })
+                    .append("b", true)
+                    .toString();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class CyclicObject {
+
+        private final String name = "cyclic";
+        private final CyclicObject self = this;
+        // collections are formatted differently by RecursiveToStringStyle and MultilineRecursiveToStringStyle
+        private final Object[] array = { this, 1 };
+        private final OtherCyclicObject other = new OtherCyclicObject(this);
+    }
+
+    private static final class OtherStyleParent {
+
+        private final ToStringStyle toStringStyle;
+        private OtherStyleChild child;
+
+        private OtherStyleParent(ToStringStyle toStringStyle) {
+            this.toStringStyle = toStringStyle;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this, toStringStyle)
+                    .append("child", child)
+                    .toString();
+        }
+    }
+
+    private static final class OtherStyleChild {
+
+        private final OtherStyleParent parent;
+
+        private OtherStyleChild(OtherStyleParent parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this, ToStringStyle.DEFAULT_STYLE)
+                    .append("parent", parent)
+                    .toString();
+        }
+    }
+
+    private static final class PlainValue {
+
+        @Override
+        public String toString() {
+            return "value";
+        }
+    }
+
+    private static final class FailingValue {
+
+        private boolean fail = true;
+
+        @Override
+        public String toString() {
+            if (fail) {
+                throw new IllegalStateException();
+            }
+            return "value";
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class ValueHolder {
+
+        private final Object value;
+
+        private ValueHolder(Object value) {
+            this.value = value;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class OtherCyclicObject {
+
+        private final CyclicObject parent;
+        private final Integer value = 1;
+
+        private OtherCyclicObject(CyclicObject parent) {
+            this.parent = parent;
+        }
+    }
+
+    private static final class Node {
+
+        private final int id;
+        private Node next;
+
+        private Node(int id) {
+            this.id = id;
+        }
+
+        private static Node list(int size) {
+            Node head = null;
+            for (int i = size - 1; i >= 0; i--) {
+                Node node = new Node(i);
+                node.next = head;
+                head = node;
+            }
+            return head;
+        }
+    }
+
+    private static final class CountingValue {
+
+        private int count = 0;
+
+        @Override
+        public String toString() {
+            count++;
+            return "value";
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class JsonParser {
+
+        private final String json;
+        private int index;
+
+        private JsonParser(String json) {
+            this.json = json;
+        }
+
+        private static Object parse(String json) {
+            JsonParser parser = new JsonParser(json);
+            Object value = parser.parseValue();
+            parser.skipWhitespace();
+            if (parser.index != json.length()) {
+                throw parser.invalid();
+            }
+            return value;
+        }
+
+        private Object parseValue() {
+            skipWhitespace();
+            if (index >= json.length()) {
+                throw invalid();
+            }
+            char c = json.charAt(index);
+            switch (c) {
+                case '{':
+                    return parseObject();
+                case '[':
+                    return parseArray();
+                case '"':
+                    return parseString();
+                case 't':
+                    return parseLiteral("true", Boolean.TRUE);
+                case 'f':
+                    return parseLiteral("false", Boolean.FALSE);
+                case 'n':
+                    return parseLiteral("null", null);
+                default:
+                    return parseNumber();
+            }
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            index++;
+            skipWhitespace();
+            if (consume('}')) {
+                return object;
+            }
+            do {
+                skipWhitespace();
+                if (index >= json.length() || json.charAt(index) != '"') {
+                    throw invalid();
+                }
+                String name = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(name, parseValue());
+                skipWhitespace();
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        private List<Object> parseArray() {
+            List<Object> array = new ArrayList<>();
+            index++;
+            skipWhitespace();
+            if (consume(']')) {
+                return array;
+            }
+            do {
+                array.add(parseValue());
+                skipWhitespace();
+            } while (consume(','));
+            expect(']');
+            return array;
+        }
+
+        private String parseString() {
+            StringBuilder sb = new StringBuilder();
+            index++;
+            while (index < json.length()) {
+                char c = json.charAt(index++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c < ' ') {
+                    throw invalid();
+                }
+                if (c == '\\') {
+                    if (index >= json.length()) {
+                        throw invalid();
+                    }
+                    char escaped = json.charAt(index++);
+                    switch (escaped) {
+                        case '"':
+                        case '\\':
+                        case '/':
+                            sb.append(escaped);
+                            break;
+                        case 'b':
+                            sb.append('\b');
+                            break;
+                        case 'f':
+                            sb.append('\f');
+                            break;
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 'r':
+                            sb.append('\r');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'u':
+                            if (index + 4 > json.length()) {
+                                throw invalid();
+                            }
+                            sb.append((char) Integer.parseInt(json.substring(index, index + 4), 16));
+                            index += 4;
+                            break;
+                        default:
+                            throw invalid();
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw invalid();
+        }
+
+        private Object parseLiteral(String literal, Object value) {
+            if (!json.startsWith(literal, index)) {
+                throw invalid();
+            }
+            index += literal.length();
+            return value;
+        }
+
+        private Object parseNumber() {
+            int start = index;
+            consume('-');
+            int digitsStart = index;
+            skipDigits();
+            if (index == digitsStart || json.charAt(digitsStart) == '0' && index - digitsStart > 1) {
+                throw invalid();
+            }
+            if (consume('.') && skipDigits() == 0) {
+                throw invalid();
+            }
+            if (consume('e') || consume('E')) {
+                if (!consume('+')) {
+                    consume('-');
+                }
+                if (skipDigits() == 0) {
+                    throw invalid();
+                }
+            }
+            return new BigDecimal(json.substring(start, index));
+        }
+
+        private int skipDigits() {
+            int start = index;
+            while (index < json.length() && json.charAt(index) >= '0' && json.charAt(index) <= '9') {
+                index++;
+            }
+            return index - start;
+        }
+
+        private void skipWhitespace() {
+            while (index < json.length() && " \t\r\n".indexOf(json.charAt(index)) != -1) {
+                index++;
+            }
+        }
+
+        private boolean consume(char c) {
+            if (index < json.length() && json.charAt(index) == c) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw invalid();
+            }
+        }
+
+        private IllegalArgumentException invalid() {
+            return new IllegalArgumentException("Invalid JSON at index " + index + ": " + json);
+        }
+    }
+
+    private static final class LimitedObject {
+
+        private final String a = "a";
+        private final List<Integer> list;
+        private LimitedObject nested;
+
+        private LimitedObject(int count) {
+            list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(i);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("fixed output")
+    class FixedOutput {
+
+        @Test
+        @DisplayName("fixedLength")
+        void testFixedLength() {
+            CountingValue value = new CountingValue();
+
+            ToStringStyle toStringStyle = recursiveStyle()
+                    .withField("value", fixedLength(3))
+                    .withField("values", fixedLength(5, '#'))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("value", value)
+                    .append("values", new Object[] { value, value })
+                    .append("nullValue", (Object) null)
+                    .toString();
+            assertThat(string, endsWith("[value=***,values=#####,nullValue=<null>]"));
+            assertEquals(0, value.count);
+        }
+
+        @Test
+        @DisplayName("fixedValue")
+        void testFixedValue() {
+            CountingValue value = new CountingValue();
+
+            ToStringStyle toStringStyle = defaultStyle()
+                    .withField("value", Obfuscator.fixedValue("<hidden>"))
+                    .withField("nullValue", Obfuscator.fixedValue("<hidden>"))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("value", value)
+                    .append("nullValue", (Object) null)
+                    .toString();
+            assertThat(string, endsWith("[value=<hidden>,nullValue=<hidden>]"));
+            assertEquals(0, value.count);
+        }
+
+        @Test
+        @DisplayName("marked explicitly")
+        void testMarkedExplicitly() {
+            CountingValue value = new CountingValue();
+
+            ToStringStyle toStringStyle = defaultStyle()
+                    .withField("value", Obfuscator.fromFunction(s -> "<hidden>"))
+                            .fixedOutput()
+                    .withField("other", Obfuscator.fromFunction(s -> "<hidden>"))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("value", value)
+                    .append("other", value)
+                    .toString();
+            assertThat(string, endsWith("[value=<hidden>,other=<hidden>]"));
+            // only other is formatted
+            assertEquals(1, value.count);
+        }
+
+        @Test
+        @DisplayName("summaries")
+        void testSummaries() {
+            CountingValue value = new CountingValue();
+
+            ToStringStyle toStringStyle = defaultStyle()
+                    .withField("value", fixedLength(3))
+                            .includeSummaries()
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("value", Arrays.asList(value, value), false)
+                    .toString();
+            assertThat(string, endsWith("[value=***]"));
+            assertEquals(0, value.count);
+        }
+    }
+
+    @Nested
+    @DisplayName("length only")
+    class LengthOnly {
+
+        @Test
+        @DisplayName("primitive arrays")
+        void testPrimitiveArrays() {
+            byte[] bytes = new byte[10_000];
+            Arrays.fill(bytes, (byte) -100);
+            char[] chars = StringUtils.repeat('x', 10_000).toCharArray();
+            long[] longs = new long[1_000];
+            Arrays.fill(longs, Long.MIN_VALUE);
+
+            assertMasked(bytes);
+            assertMasked(chars);
+            assertMasked(longs);
+            assertMasked(new int[0]);
+        }
+
+        @Test
+        @DisplayName("collections, maps and arrays")
+        void testCollectionsMapsAndArrays() {
+            List<Integer> list = new ArrayList<>();
+            Map<String, String> map = new LinkedHashMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                list.add(i);
+                map.put("key" + i, "value" + i);
+            }
+
+            assertMasked(list);
+            assertMasked(map);
+            assertMasked(list.toArray());
+            assertMasked("value");
+            assertMasked(12345);
+        }
+
+        @Test
+        @DisplayName("nested objects")
+        void testNestedObjects() {
+            LimitedObject object = new LimitedObject(1_000);
+            object.nested = new LimitedObject(1_000);
+
+            Function<Obfuscator, String> toString = obfuscator -> ToStringBuilder.reflectionToString(object, recursiveStyle()
+                    .withField("nested", obfuscator)
+                    .build());
+
+            String expected = toString.apply(none());
+            String nested = "nested=" + ObjectUtils.identityToString(object.nested);
+            int start = expected.indexOf(nested) + "nested=".length();
+            int end = expected.length() - 1;
+            expected = expected.substring(0, start) + StringUtils.repeat('*', end - start) + expected.substring(end);
+
+            assertEquals(expected, toString.apply(Obfuscator.all()));
+        }
+
+        private void assertMasked(Object value) {
+            Object object = new Object();
+            Function<Obfuscator, String> toString = obfuscator -> new ToStringBuilder(object, defaultStyle()
+                    .withField("value", obfuscator)
+                    .build())
+                    .append("value", value)
+                    .toString();
+
+            String unobfuscated = toString.apply(none());
+            int length = unobfuscated.length() - ObjectUtils.identityToString(object).length() - "[value=]".length();
+            String expected = ObjectUtils.identityToString(object) + "[value=" + StringUtils.repeat('#', length) + "]";
+            assertEquals(expected, toString.apply(Obfuscator.all('#')));
+        }
+    }
+
+    @Nested
+    @DisplayName("keepsAtMost")
+    class KeepsAtMost {
+
+        @Test
+        @DisplayName("portion")
+        void testPortion() {
+            List<Integer> list = new ArrayList<>();
+            Map<String, String> map = new LinkedHashMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                list.add(i);
+                map.put("key" + i, "value" + i);
+            }
+            byte[] bytes = new byte[10_000];
+            Arrays.fill(bytes, (byte) -100);
+
+            Obfuscator obfuscator = Obfuscator.portion()
+                    .keepAtStart(4)
+                    .keepAtEnd(3)
+                    .build();
+
+            assertBounded(obfuscator, 4, 3, list);
+            assertBounded(obfuscator, 4, 3, map);
+            assertBounded(obfuscator, 4, 3, bytes);
+            assertBounded(obfuscator, 4, 3, list.toArray());
+            assertBounded(obfuscator, 4, 3, "value");
+            // the obfuscator keeps fewer characters than allowed
+            assertBounded(obfuscator, 10, 10, list);
+
+            Obfuscator fixedTotalLength = Obfuscator.portion()
+                    .keepAtStart(4)
+                    .withFixedTotalLength(10)
+                    .build();
+
+            assertBounded(fixedTotalLength, 4, 0, list);
+        }
+
+        @Test
+        @DisplayName("nested objects")
+        void testNestedObjects() {
+            LimitedObject object = new LimitedObject(1_000);
+            object.nested = new LimitedObject(1_000);
+
+            Obfuscator obfuscator = Obfuscator.portion()
+                    .keepAtStart(8)
+                    .keepAtEnd(8)
+                    .build();
+
+            String expected = ToStringBuilder.reflectionToString(object, recursiveStyle()
+                    .withField("nested", obfuscator)
+                    .build());
+
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, recursiveStyle()
+                    .withField("nested", obfuscator)
+                            .keepsAtMost(8, 8)
+                    .build()));
+        }
+
+        @Test
+        @DisplayName("value view")
+        void testValueView() {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                list.add(i);
+            }
+            String expected = list.toString().replace(" ", "");
+
+            Obfuscator obfuscator = Obfuscator.fromFunction(s -> {
+                String start = s.subSequence(0, 2).toString();
+                String end = s.subSequence(s.length() - 3, s.length()).toString();
+                return start + s.length() + end + s.charAt(1000);
+            });
+
+            String string = new ToStringBuilder(new Object(), defaultStyle()
+                    .withField("list", obfuscator)
+                            .keepsAtMost(2, 3)
+                    .build())
+                    .append("list", list)
+                    .toString();
+            // characters that are not kept are not available
+            assertThat(string, endsWith("[list=[0" + expected.length() + "99]\uFFFD]"));
+        }
+
+        @Test
+        @DisplayName("negative number of characters")
+        void testNegative() {
+            Builder builder = defaultStyle();
+            assertThrows(IllegalArgumentException.class, () -> builder.withField("value", none()).keepsAtMost(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> builder.withField("value", none()).keepsAtMost(0, -1));
+        }
+
+        private void assertBounded(Obfuscator obfuscator, int atStart, int atEnd, Object value) {
+            Object object = new Object();
+
+            String expected = new ToStringBuilder(object, defaultStyle()
+                    .withField("value", obfuscator)
+                    .build())
+                    .append("value", value)
+                    .toString();
+
+            String string = new ToStringBuilder(object, defaultStyle()
+                    .withField("value", obfuscator)
+                            .keepsAtMost(atStart, atEnd)
+                    .build())
+                    .append("value", value)
+                    .toString();
+
+            assertEquals(expected, string);
+        }
+    }
+
+    @Nested
+    @DisplayName("withFieldPath")
+    class WithFieldPath {
+
+        @Test
+        @DisplayName("nested fields")
+        void testNestedFields() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withFieldPath("customer.address.street", fixedLength(3))
+                    .build();
+
+            Company company = new Company();
+
+            String string = toStringStyle.reflectionToString(company);
+
+            assertThat(string, containsString("[city=Customer city,street=***]"));
+            assertThat(string, containsString("[city=Warehouse city,street=Warehouse street]"));
+            assertThat(string, containsString("[city=Other city,street=Other street]"));
+            assertEquals(string, ToStringBuilder.reflectionToString(company, toStringStyle));
+
+            string = multiLineRecursiveStyle()
+                    .withFieldPath("customer.address.street", fixedLength(3))
+                    .build()
+                    .reflectionToString(company);
+
+            assertEquals(1, StringUtils.countMatches(string, "street=***"));
+            assertEquals(1, StringUtils.countMatches(string, "street=Warehouse street"));
+        }
+
+        @Test
+        @DisplayName("collection elements")
+        void testCollectionElements() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withFieldPath("customer.otherAddresses.street", fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertThat(string, containsString("[city=Customer city,street=Customer street]"));
+            assertThat(string, containsString("[city=Other city,street=***]"));
+            assertEquals(2, StringUtils.countMatches(string, "street=***"));
+        }
+
+        @Test
+        @DisplayName("path with nested paths")
+        void testPathWithNestedPaths() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withFieldPath("customer.address", fixedValue("<address>"))
+                    .withFieldPath("customer.address.street", fixedLength(3))
+                    .withFieldPath("warehouse.address.street", fixedLength(5))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertThat(string, containsString("address=<address>"));
+            assertThat(string, containsString("[city=Warehouse city,street=*****]"));
+            assertThat(string, containsString("[city=Other city,street=Other street]"));
+        }
+
+        @Test
+        @DisplayName("precedence over field names")
+        void testPrecedenceOverFieldNames() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withField("street", fixedLength(5))
+                    .withFieldPath("customer.address.street", fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertThat(string, containsString("[city=Customer city,street=***]"));
+            assertThat(string, containsString("[city=Warehouse city,street=*****]"));
+            assertThat(string, containsString("[city=Other city,street=*****]"));
+        }
+
+        @Test
+        @DisplayName("field configuration")
+        void testFieldConfiguration() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withFieldPath("customer.otherAddresses", Obfuscator.fromFunction(s -> "<" + s + ">"))
+                            .limitElementsTo(0)
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertThat(string, containsString("otherAddresses=<[...(2 more)]>"));
+        }
+
+        @Test
+        @DisplayName("single field name")
+        void testSingleFieldName() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withFieldPath("password", fixedLength(3))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("password", "secret")
+                    .append("PASSWORD", "secret")
+                    .toString();
+
+            assertThat(string, endsWith("[password=***,PASSWORD=secret]"));
+        }
+
+        @Test
+        @DisplayName("invalid field paths")
+        void testInvalidFieldPaths() {
+            Builder builder = recursiveStyle();
+
+            assertThrows(NullPointerException.class, () -> builder.withFieldPath(null, none()));
+            assertThrows(NullPointerException.class, () -> builder.withFieldPath("a.b", null));
+            assertThrows(IllegalArgumentException.class, () -> builder.withFieldPath("", none()));
+            assertThrows(IllegalArgumentException.class, () -> builder.withFieldPath("a..b", none()));
+
+            builder.withFieldPath("a.b", none());
+            assertThrows(IllegalArgumentException.class, () -> builder.withFieldPath("a.b", none()));
+            assertDoesNotThrow(() -> builder.withField("a.b", none()));
+        }
+    }
+
+    @Nested
+    @DisplayName("withFieldPattern")
+    class WithFieldPattern {
+
+        @Test
+        @DisplayName("patterns")
+        void testPatterns() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withFieldPattern("*Key", fixedLength(3))
+                    .withFieldPattern("*token", fixedLength(5), CASE_INSENSITIVE)
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("apiKey", "value")
+                    .append("secretKey", "value")
+                    .append("x_api_token", "value")
+                    .append("refreshToken", "value")
+                    .append("apikey", "value")
+                    .append("other", "value")
+                    .toString();
+
+            assertThat(string, endsWith("[apiKey=***,secretKey=***,x_api_token=*****,refreshToken=*****,apikey=value,other=value]"));
+        }
+
+        @Test
+        @DisplayName("default case sensitivity")
+        void testDefaultCaseSensitivity() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .caseInsensitiveByDefault()
+                    .withFieldPattern("*key", fixedLength(3))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("apiKey", "value")
+                    .toString();
+
+            assertThat(string, endsWith("[apiKey=***]"));
+        }
+
+        @Test
+        @DisplayName("reflection")
+        void testReflection() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withFieldPattern("str*", fixedLength(3))
+                            .includeSummaries()
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertEquals(6, StringUtils.countMatches(string, "street=***"));
+            assertEquals(ToStringBuilder.reflectionToString(new Company(), toStringStyle).replaceAll("@\\p{XDigit}+", "@"),
+                    string.replaceAll("@\\p{XDigit}+", "@"));
+        }
+
+        @Test
+        @DisplayName("precedence")
+        void testPrecedence() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withFieldPattern("*", fixedLength(1))
+                    .withField("city", fixedLength(2))
+                    .withFieldPath("customer.address.street", fixedLength(3))
+                    .withFieldPattern("street", fixedLength(4))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("city", "value")
+                    .append("street", "value")
+                    .append("customer", "value")
+                    .toString();
+
+            // the first matching pattern is used
+            assertThat(string, endsWith("[city=**,street=*,customer=*]"));
+        }
+
+        @Test
+        @DisplayName("invalid patterns")
+        void testInvalidPatterns() {
+            Builder builder = defaultStyle();
+
+            assertThrows(NullPointerException.class, () -> builder.withFieldPattern(null, none()));
+            assertThrows(NullPointerException.class, () -> builder.withFieldPattern("*", null));
+            assertThrows(NullPointerException.class, () -> builder.withFieldPattern("*", none(), null));
+            assertThrows(IllegalArgumentException.class, () -> builder.withFieldPattern("a\\", none()));
+
+            builder.withFieldPattern("*Key", none());
+            assertThrows(IllegalArgumentException.class, () -> builder.withFieldPattern("*Key", none()));
+            assertDoesNotThrow(() -> builder.withFieldPattern("*Key", none(), CASE_INSENSITIVE));
+            assertDoesNotThrow(() -> builder.withField("*Key", none()));
+        }
+    }
+
+    @Nested
+    @DisplayName("withType")
+    class WithType {
+
+        @Test
+        @DisplayName("values")
+        void testValues() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withType(Secret.class, fixedLength(3))
+                    .withType(char[].class, fixedLength(4))
+                    .build();
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("a", new Secret("value"));
+            map.put("b", "value");
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("secret", new Secret("value"))
+                    .append("chars", "value".toCharArray())
+                    .append("list", Arrays.asList(new Secret("value"), "value"))
+                    .append("array", new Object[] { new Secret("value"), "value" })
+                    .append("map", map)
+                    .append("string", "value")
+                    .toString();
+
+            assertThat(string, endsWith("[secret=***,chars=****,list=[***,value],array={***,value},map={a=***, b=value},string=value]"
+                    .replace(", ", ",")));
+        }
+
+        @Test
+        @DisplayName("sub types")
+        void testSubTypes() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withType(CharSequence.class, fixedLength(1))
+                    .withType(Collection.class, fixedLength(2))
+                    .withType(List.class, fixedLength(3))
+                    .withType(Object[].class, fixedLength(4))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("string", "value")
+                    .append("builder", new StringBuilder("value"))
+                    .append("list", new ArrayList<>(Arrays.asList(1, 2)))
+                    .append("set", Collections.singleton(1))
+                    .append("array", new String[] { "value" })
+                    .append("number", 1)
+                    .toString();
+
+            // List is a more specific interface of ArrayList than Collection
+            assertThat(string, endsWith("[string=*,builder=*,list=***,set=**,array=****,number=1]"));
+        }
+
+        @Test
+        @DisplayName("super classes before interfaces")
+        void testSuperClassesBeforeInterfaces() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withType(List.class, fixedLength(3))
+                    .withType(AbstractList.class, fixedLength(5))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", new ArrayList<>(Arrays.asList(1, 2)))
+                    .toString();
+
+            assertThat(string, endsWith("[list=*****]"));
+        }
+
+        @Test
+        @DisplayName("recursive styles")
+        void testRecursiveStyles() {
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .withType(Address.class, fixedLength(3))
+                    .build();
+
+            String string = toStringStyle.reflectionToString(new Company());
+
+            assertThat(string, containsString("address=***,otherAddresses=[***,***]"));
+
+            toStringStyle = recursiveStyle(c -> true, 1)
+                    .withType(Address.class, fixedLength(3))
+                    .build();
+
+            assertThat(toStringStyle.reflectionToString(new Company()), containsString("address=***,otherAddresses=[***,***]"));
+        }
+
+        @Test
+        @DisplayName("field rules take precedence")
+        void testFieldRulesTakePrecedence() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withType(Secret.class, fixedLength(3))
+                    .withField("secret", fixedLength(5))
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("secret", new Secret("value"))
+                    .append("other", new Secret("value"))
+                    .toString();
+
+            assertThat(string, endsWith("[secret=*****,other=***]"));
+        }
+
+        @Test
+        @DisplayName("invalid types")
+        void testInvalidTypes() {
+            Builder builder = defaultStyle();
+
+            assertThrows(NullPointerException.class, () -> builder.withType(null, none()));
+            assertThrows(NullPointerException.class, () -> builder.withType(Secret.class, null));
+            assertThrows(IllegalArgumentException.class, () -> builder.withType(int.class, none()));
+
+            builder.withType(Secret.class, none());
+            assertThrows(IllegalArgumentException.class, () -> builder.withType(Secret.class, none()));
+        }
+    }
+
+    private static final class Secret {
+
+        private final String value;
+
+        private Secret(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Company {
+
+        private final Person customer = new Person("Customer");
+        private final Person warehouse = new Person("Warehouse");
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Person {
+
+        private final Address address;
+        private final List<Address> otherAddresses;
+
+        private Person(String name) {
+            address = new Address(name);
+            otherAddresses = Arrays.asList(new Address("Other"), new Address("Other"));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Address {
+
+        private final String street;
+        private final String city;
+
+        private Address(String name) {
+            street = name + " street";
+            city = name + " city";
+        }
+    }
+
+    @Nested
+    @DisplayName("limiting elements")
+    class LimitingElements {
+
+        @Test
+        @DisplayName("per style")
+        void testPerStyle() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .limitElementsToByDefault(3)
+                    .build();
+
+            Map<String, Integer> map = new LinkedHashMap<>();
+            map.put("a", 1);
+            map.put("b", 2);
+            map.put("c", 3);
+            map.put("d", 4);
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", Arrays.asList(1, 2, 3, 4, 5))
+                    .append("map", map)
+                    .append("array", new Object[] { 1, 2, 3, 4 })
+                    .append("ints", new int[] { 1, 2, 3, 4, 5, 6 })
+                    .append("chars", new char[] { 'a', 'b', 'c', 'd' })
+                    .append("booleans", new boolean[] { true, false, true })
+                    .toString();
+
+            assertThat(string, endsWith("[list=[1,2,3,...(2 more)],map={a=1,b=2,c=3,...(1 more)},array={1,2,3,...(1 more)},"
+                    + "ints={1,2,3,...(3 more)},chars={a,b,c,...(1 more)},booleans={true,false,true}]"));
+        }
+
+        @Test
+        @DisplayName("reflection")
+        void testReflection() {
+            LimitedObject object = new LimitedObject(100);
+
+            ObfuscatingToStringStyle toStringStyle = recursiveStyle()
+                    .limitElementsToByDefault(2)
+                    .build();
+
+            String expected = ObjectUtils.identityToString(object) + "[a=a,list=[0,1,...(98 more)],nested=<null>]";
+
+            assertEquals(expected, toStringStyle.reflectionToString(object));
+            assertEquals(expected, ToStringBuilder.reflectionToString(object, toStringStyle));
+        }
+
+        @Test
+        @DisplayName("multi-line")
+        void testMultiLine() {
+            ObfuscatingToStringStyle toStringStyle = multiLineRecursiveStyle()
+                    .limitElementsToByDefault(1)
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("longs", new long[] { 1, 2, 3 })
+                    .toString();
+
+            String expected = "[" + System.lineSeparator()
+                    + "  longs={" + System.lineSeparator()
+                    + "    1," + System.lineSeparator()
+                    + "    ...(2 more)" + System.lineSeparator()
+                    + "  }" + System.lineSeparator()
+                    + "]";
+
+            assertThat(string, endsWith(expected));
+        }
+
+        @Test
+        @DisplayName("zero")
+        void testZero() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .limitElementsToByDefault(0)
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", Arrays.asList(1, 2))
+                    .append("empty", Collections.emptyList())
+                    .append("doubles", new double[] { 1 })
+                    .toString();
+
+            assertThat(string, endsWith("[list=[...(2 more)],empty=[],doubles={...(1 more)}]"));
+        }
+
+        @Test
+        @DisplayName("per field")
+        void testPerField() {
+            Obfuscator obfuscator = Obfuscator.fromFunction(s -> "<" + s + ">");
+
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .limitElementsToByDefault(2)
+                    .withField("list", obfuscator)
+                            .limitElementsTo(1)
+                    .withField("bytes", obfuscator)
+                            .limitElementsTo(3)
+                    .withField("other", obfuscator)
+                    .build();
+
+            List<Object> list = Arrays.asList(Arrays.asList(1, 2, 3), 4);
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", list)
+                    .append("bytes", new byte[] { 1, 2, 3, 4 })
+                    .append("other", list)
+                    .append("notObfuscated", list)
+                    .toString();
+
+            // the marker is obfuscated as part of the value, and the field's limit applies to nested collections
+            assertThat(string, endsWith("[list=<[[1,...(2 more)],...(1 more)]>,bytes=<{1,2,3,...(1 more)}>,other=<[[1,2,...(1 more)],4]>,"
+                    + "notObfuscated=[[1,2,...(1 more)],4]]"));
+        }
+
+        @Test
+        @DisplayName("per field with length only")
+        void testPerFieldWithLengthOnly() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .withField("list", Obfuscator.all())
+                            .limitElementsTo(1)
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", Arrays.asList(1, 2, 3))
+                    .toString();
+
+            assertThat(string, endsWith("[list=" + StringUtils.repeat('*', "[1,...(2 more)]".length()) + "]"));
+        }
+
+        @Test
+        @DisplayName("per field without obfuscator")
+        void testPerFieldWithoutObfuscator() {
+            ObfuscatingToStringStyle toStringStyle = defaultStyle()
+                    .limitElementsToByDefault(2)
+                    .withField("list")
+                            .limitElementsTo(1)
+                    .withField("bytes", CASE_INSENSITIVE)
+                            .limitElementsTo(3)
+                    .withField("other")
+                    .build();
+
+            List<Object> list = Arrays.asList(Arrays.asList(1, 2, 3), 4);
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", list)
+                    .append("BYTES", new byte[] { 1, 2, 3, 4 })
+                    .append("other", list)
+                    .toString();
+
+            // the values are not obfuscated, and the field's limit applies to nested collections
+            assertThat(string, endsWith("[list=[[1,...(2 more)],...(1 more)],BYTES={1,2,3,...(1 more)},other=[[1,2,...(1 more)],4]]"));
+        }
+
+        @Test
+        @DisplayName("per field without obfuscator with JSON style")
+        void testPerFieldWithoutObfuscatorWithJsonStyle() {
+            ObfuscatingToStringStyle toStringStyle = jsonStyle()
+                    .withField("list")
+                            .limitElementsTo(1)
+                    .build();
+
+            String string = new ToStringBuilder(new Object(), toStringStyle)
+                    .append("list", Arrays.asList(1, 2, 3))
+                    .append("other", Arrays.asList(1, 2, 3))
+                    .toString();
+
+            // the value is not obfuscated, and therefore not appended as a string
+            assertEquals("{\"list\":[1,\"...(2 more)\"],\"other\":[1,2,3]}", string);
+        }
+
+        @Test
+        @DisplayName("negative")
+        void testNegative() {
+            Builder builder = defaultStyle();
+            assertThrows(IllegalArgumentException.class, () -> builder.limitElementsToByDefault(-1));
+            assertThrows(IllegalArgumentException.class, () -> builder.withField("value", none()).limitElementsTo(-1));
+            assertThrows(IllegalArgumentException.class, () -> builder.withField("other").limitElementsTo(-1));
+        }
+    }
+
+    @Nested
+    @DisplayName("buildShared()")
+    class Shared {
+
+        @Test
+        @DisplayName("nested use")
+        void testNestedUse() {
+            ToStringStyle toStringStyle = defaultStyle()
+                    .withField("obfuscated", fixedLength(3))
+                    .buildShared();
+
+            Object nested = new Object() {
+                @Override
+                public String toString() {
+                    return new ToStringBuilder(this, toStringStyle)
+                            .append("obfuscated", "nested")
+                            .append("notObfuscated", "nested")
+                            .toString();
+                }
+            };
+
+            Object object = new Object();
+            String string = new ToStringBuilder(object, toStringStyle)
+                    .append("obfuscated", nested)
+                    .append("notObfuscated", nested)
+                    .toString();
+
+            String nestedString = nested.toString();
+            assertEquals(ObjectUtils.identityToString(nested) + "[obfuscated=***,notObfuscated=nested]", nestedString);
+            assertEquals(ObjectUtils.identityToString(object) + "[obfuscated=***,notObfuscated=" + nestedString + "]", string);
+
+            // nothing is left behind once formatting has finished
+            assertEquals(0, ((SharedObfuscatingToStringStyle) toStringStyle).renderCount());
+        }
+
+        @Test
+        @DisplayName("interleaved use")
+        void testInterleavedUse() {
+            Builder builder = defaultStyle()
+                    .withField("obfuscated", fixedLength(3))
+                    .limitTo(60);
+            ToStringStyle toStringStyle = builder.buildShared();
+
+            Object object = new Object();
+            Object other = new Object();
+            String expected = new ToStringBuilder(object, builder.build())
+                    .append("obfuscated", "value")
+                    .append("notObfuscated", StringUtils.repeat('x', 50))
+                    .append("notObfuscated", "value")
+                    .toString();
+            String otherExpected = new ToStringBuilder(other, builder.build())
+                    .append("obfuscated", "value")
+                    .append("notObfuscated", "value")
+                    .toString();
+
+            ToStringBuilder toStringBuilder = new ToStringBuilder(object, toStringStyle);
+            ToStringBuilder otherToStringBuilder = new ToStringBuilder(other, toStringStyle);
+            toStringBuilder.append("obfuscated", "value");
+            otherToStringBuilder.append("obfuscated", "value");
+            toStringBuilder.append("notObfuscated", StringUtils.repeat('x', 50));
+            otherToStringBuilder.append("notObfuscated", "value");
+            toStringBuilder.append("notObfuscated", "value");
+
+            // each builder is limited on its own
+            assertEquals(otherExpected, otherToStringBuilder.toString());
+            assertEquals(1, ((SharedObfuscatingToStringStyle) toStringStyle).renderCount());
+            assertEquals(expected, toStringBuilder.toString());
+            assertThat(expected, endsWith("...]"));
+            assertEquals(0, ((SharedObfuscatingToStringStyle) toStringStyle).renderCount());
+        }
+
+        @Test
+        @DisplayName("use after failure")
+        void testUseAfterFailure() {
+            FailingValue failing = new FailingValue();
+            ValueHolder outer = new ValueHolder(new ValueHolder(failing));
+
+            Builder builder = logfmtRecursiveStyle(c -> c != FailingValue.class);
+            ToStringStyle toStringStyle = builder.buildShared();
+
+            assertThrows(IllegalStateException.class, () -> ToStringBuilder.reflectionToString(outer, toStringStyle));
+
+            failing.fail = false;
+
+            assertEquals(ToStringBuilder.reflectionToString(outer, builder.build()), ToStringBuilder.reflectionToString(outer, toStringStyle));
+        }
+
+        @Test
+        @DisplayName("serialization")
+        void testSerialization() throws IOException {
+            ToStringStyle toStringStyle = defaultStyle().buildShared();
+
+            // like obfuscating styles, shared styles cannot be serialized; they are not deserialized without their state either
+            try (ObjectOutputStream output = new ObjectOutputStream(new ByteArrayOutputStream())) {
+                assertThrows(NotSerializableException.class, () -> output.writeObject(toStringStyle));
+                assertThrows(NotSerializableException.class, () -> output.writeObject(defaultStyle().build()));
+            }
+        }
+
+        @Test
+        @DisplayName("concurrent use")
+        void testConcurrentUse() throws InterruptedException {
+            Builder builder = configureBuilder(multiLineRecursiveStyle(c -> c != Date.class));
+            ToStringStyle toStringStyle = builder.buildShared();
+
+            TestObject testObject = new TestObject();
+            testObject.nested = new TestObject();
+            testObject.notObfuscated = new TestObject();
+            String expected = ToStringBuilder.reflectionToString(testObject, builder.build());
+
+            int threadCount = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+            try {
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int i = 0; i < threadCount; i++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 1000; j++) {
+                            if (!expected.equals(ToStringBuilder.reflectionToString(testObject, toStringStyle))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }));
+                }
+                for (Future<Boolean> future : futures) {
+                    assertTrue(assertDoesNotThrow(() -> future.get()));
+                }
+                assertEquals(0, ((SharedObfuscatingToStringStyle) toStringStyle).renderCount());
+            } finally {
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("pool")
+    class Pool {
+
+        @Test
+        @DisplayName("invalid max size")
+        void testInvalidMaxSize() {
+            Snapshot snapshot = defaultStyle().snapshot();
+
+            assertThrows(IllegalArgumentException.class, () -> snapshot.pool(0));
+            assertThrows(IllegalArgumentException.class, () -> snapshot.pool(-1));
+        }
+
+        @Test
+        @DisplayName("borrow and release")
+        void testBorrowAndRelease() {
+            StylePool pool = defaultStyle().snapshot().pool(1);
+
+            ObfuscatingToStringStyle style = pool.borrow();
+            ObfuscatingToStringStyle other = pool.borrow();
+            assertNotSame(style, other);
+            assertEquals(0, pool.size());
+
+            pool.release(style);
+            assertEquals(1, pool.size());
+            // the pool is full
+            pool.release(other);
+            assertEquals(1, pool.size());
+
+            assertSame(style, pool.borrow());
+            assertEquals(0, pool.size());
+        }
+
+        @Test
+        @DisplayName("release style from other snapshot")
+        void testReleaseStyleFromOtherSnapshot() {
+            Builder builder = defaultStyle().withField("obfuscated", fixedLength(3));
+            StylePool pool = builder.snapshot().pool(1);
+
+            ObfuscatingToStringStyle style = builder.build();
+            assertThrows(IllegalArgumentException.class, () -> pool.release(style));
+            assertEquals(0, pool.size());
+
+            ObfuscatingToStringStyle otherStyle = builder.snapshot().build();
+            assertThrows(IllegalArgumentException.class, () -> pool.release(otherStyle));
+            assertEquals(0, pool.size());
+        }
+
+        @Test
+        @DisplayName("reflectionToString")
+        void testReflectionToString() {
+            Builder builder = configureBuilder(recursiveStyle(c -> c != Date.class));
+            StylePool pool = builder.snapshot().pool(1);
+
+            TestObject testObject = new TestObject();
+            testObject.nested = new TestObject();
+            testObject.notObfuscated = new TestObject();
+            String expected = ToStringBuilder.reflectionToString(testObject, builder.build());
+
+            assertEquals(expected, pool.reflectionToString(testObject));
+            assertEquals(1, pool.size());
+            assertEquals(expected, pool.reflectionToString(testObject));
+            assertEquals(1, pool.size());
+
+            ByteBuffer buffer = assertDoesNotThrow(() -> pool.reflectionToUtf8(testObject, ByteBuffer.allocate(16), ByteBufferFullHandler.growing()));
+            assertEquals(expected, new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+            assertEquals(1, pool.size());
+        }
+
+        @Test
+        @DisplayName("many threads")
+        void testManyThreads() throws InterruptedException {
+            AtomicInteger createdStyles = new AtomicInteger();
+            Builder builder = configureBuilder(Builder.create(CustomStyle::new, snapshot -> {
+                createdStyles.incrementAndGet();
+                return new CustomStyle(snapshot);
+            }));
+            int concurrency = 32;
+            int taskCount = 20_000;
+            int maxSize = concurrency;
+            StylePool pool = builder.snapshot().pool(maxSize);
+
+            TestObject testObject = new TestObject();
+            String expected = ToStringBuilder.reflectionToString(testObject, builder.build());
+
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                List<Future<String>> futures = new ArrayList<>(taskCount);
+                for (int i = 0; i < taskCount; i++) {
+                    futures.add(executor.submit(() -> pool.reflectionToString(testObject)));
+                }
+                for (Future<String> future : futures) {
+                    assertEquals(expected, assertDoesNotThrow(() -> future.get()));
+                }
+            } finally {
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            }
+
+            // because the pool is as large as the number of concurrent threads, new styles are only rarely created
+            assertThat(createdStyles.get(), lessThan(taskCount / 100));
+        }
+
+        @Test
+        @DisplayName("more concurrent borrowers than max size")
+        void testMoreConcurrentBorrowersThanMaxSize() throws InterruptedException {
+            int concurrency = 8;
+            int maxSize = 3;
+            StylePool pool = defaultStyle().snapshot().pool(maxSize);
+
+            // all threads borrow a style before any of them releases it
+            CyclicBarrier borrowed = new CyclicBarrier(concurrency);
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                List<Future<ObfuscatingToStringStyle>> futures = new ArrayList<>(concurrency);
+                for (int i = 0; i < concurrency; i++) {
+                    futures.add(executor.submit(() -> {
+                        ObfuscatingToStringStyle style = pool.borrow();
+                        borrowed.await(10, TimeUnit.SECONDS);
+                        pool.release(style);
+                        return style;
+                    }));
+                }
+                Set<ObfuscatingToStringStyle> styles = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Future<ObfuscatingToStringStyle> future : futures) {
+                    styles.add(assertDoesNotThrow(() -> future.get()));
+                }
+                // no style was borrowed by more than one thread at the same time
+                assertEquals(concurrency, styles.size());
+
+                // only as many styles as the max size were retained, and all of them were borrowed before
+                assertEquals(maxSize, pool.size());
+                for (int i = 0; i < maxSize; i++) {
+                    assertTrue(styles.contains(pool.borrow()));
+                }
+                assertEquals(0, pool.size());
+                assertFalse(styles.contains(pool.borrow()));
+            } finally {
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            }
+        }
+
+        @Test
+        @DisplayName("release after failure")
+        void testReleaseAfterFailure() {
+            FailingValue failing = new FailingValue();
+            ValueHolder outer = new ValueHolder(new ValueHolder(failing));
+
+            Snapshot snapshot = logfmtRecursiveStyle(c -> c != FailingValue.class).snapshot();
+            StylePool pool = snapshot.pool(1);
+
+            ObfuscatingToStringStyle style = pool.borrow();
+            assertThrows(IllegalStateException.class, () -> style.reflectionToString(outer));
+            pool.release(style);
+
+            failing.fail = false;
+
+            // the style is reused, and the state that the failure left behind has been reset
+            assertSame(style, pool.borrow());
+            assertEquals(snapshot.build().reflectionToString(outer), style.reflectionToString(outer));
+            assertEquals("value.value=value", style.reflectionToString(outer));
+        }
+    }
+
+    @Nested
+    @DisplayName("lazy")
+    class Lazy {
+
+        @Test
+        @DisplayName("from snapshot")
+        void testFromSnapshot() {
+            AtomicInteger createdStyles = new AtomicInteger();
+            Builder builder = Builder.create(CustomStyle::new, snapshot -> {
+                createdStyles.incrementAndGet();
+                return new CustomStyle(snapshot);
+            }).withField("password", fixedLength(3));
+
+            CountingObject object = new CountingObject();
+            LazyToString lazy = builder.snapshot().lazy(object);
+
+            assertEquals(0, createdStyles.get());
+            assertEquals(0, object.value.count.get());
+
+            String expected = builder.build().reflectionToString(object);
+            assertThat(expected, containsString("password=***"));
+            assertEquals(1, object.value.count.get());
+
+            assertEquals(expected, lazy.toString());
+            assertEquals(expected, lazy.toString());
+            assertEquals(1, createdStyles.get());
+            assertEquals(2, object.value.count.get());
+
+            assertEquals("<null>", builder.snapshot().lazy(null).toString());
+        }
+
+        @Test
+        @DisplayName("from pool")
+        void testFromPool() {
+            Builder builder = defaultStyle().withField("password", fixedLength(3));
+            StylePool pool = builder.snapshot().pool(1);
+
+            CountingObject object = new CountingObject();
+            LazyToString lazy = pool.lazy(object);
+
+            assertEquals(0, object.value.count.get());
+            assertEquals(0, pool.size());
+
+            String expected = builder.build().reflectionToString(object);
+
+            assertEquals(expected, lazy.toString());
+            assertEquals(expected, lazy.toString());
+            assertEquals(2, object.value.count.get());
+            assertEquals(1, pool.size());
+        }
+
+        @Test
+        @DisplayName("many threads")
+        void testManyThreads() throws InterruptedException {
+            int concurrency = 32;
+            int taskCount = 1000;
+            Snapshot snapshot = defaultStyle().withField("password", fixedLength(3)).snapshot();
+
+            CountingObject object = new CountingObject();
+            LazyToString lazy = snapshot.lazy(object);
+            String expected = snapshot.build().reflectionToString(object);
+
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                List<Future<String>> futures = new ArrayList<>(taskCount);
+                for (int i = 0; i < taskCount; i++) {
+                    futures.add(executor.submit(lazy::toString));
+                }
+                for (Future<String> future : futures) {
+                    assertEquals(expected, assertDoesNotThrow(() -> future.get()));
+                }
+            } finally {
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            }
+
+            // once available, the string representation is not created again; before that, each concurrent thread may have created it
+            assertThat(object.value.count.get(), lessThanOrEqualTo(concurrency + 1));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class CountingObject {
+
+        private final String name = "name";
+        private final String password = "secret";
+        private final AtomicCountingValue value = new AtomicCountingValue();
+    }
+
+    private static final class AtomicCountingValue {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            count.incrementAndGet();
+            return "value";
+        }
+    }
+
+    private static final class CustomStyle extends ObfuscatingToStringStyle {
+
+        private static final long serialVersionUID = 1L;
+
+        private CustomStyle(Builder builder) {
+            super(builder);
+        }
+
+        private CustomStyle(Snapshot snapshot) {
+            super(snapshot);
+        }
+    }
+
     @Nested
     @DisplayName("Builder")
     class BuilderTest {
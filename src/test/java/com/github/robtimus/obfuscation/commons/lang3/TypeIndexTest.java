@@ -0,0 +1,115 @@
+/*
+ * TypeIndexTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("nls")
+class TypeIndexTest {
+
+    @Test
+    @DisplayName("empty")
+    void testEmpty() {
+        TypeIndex<String> index = TypeIndex.compile(Collections.emptyMap());
+
+        assertTrue(index.isEmpty());
+        assertNull(index.get(Object.class));
+        assertNull(index.get(String.class));
+    }
+
+    @Test
+    @DisplayName("classes")
+    void testClasses() {
+        Map<Class<?>, String> values = new LinkedHashMap<>();
+        values.put(Number.class, "1");
+        values.put(Integer.class, "2");
+
+        TypeIndex<String> index = TypeIndex.compile(values);
+
+        assertFalse(index.isEmpty());
+        assertEquals("1", index.get(Number.class));
+        assertEquals("2", index.get(Integer.class));
+        assertEquals("1", index.get(Long.class));
+        assertNull(index.get(String.class));
+        assertNull(index.get(Object.class));
+        // cached results
+        assertEquals("2", index.get(Integer.class));
+        assertNull(index.get(String.class));
+    }
+
+    @Test
+    @DisplayName("super classes before interfaces")
+    void testSuperClassesBeforeInterfaces() {
+        Map<Class<?>, String> values = new LinkedHashMap<>();
+        values.put(List.class, "1");
+        values.put(AbstractList.class, "2");
+
+        TypeIndex<String> index = TypeIndex.compile(values);
+
+        assertEquals("2", index.get(ArrayList.class));
+        assertEquals("1", index.get(List.class));
+        assertNull(index.get(HashSet.class));
+    }
+
+    @Test
+    @DisplayName("interfaces breadth first")
+    void testInterfacesBreadthFirst() {
+        Map<Class<?>, String> values = new LinkedHashMap<>();
+        values.put(Collection.class, "1");
+        values.put(List.class, "2");
+        values.put(RandomAccess.class, "3");
+
+        TypeIndex<String> index = TypeIndex.compile(values);
+
+        // ArrayList implements List and RandomAccess directly, and Collection only through List
+        assertEquals("2", index.get(ArrayList.class));
+        assertEquals("1", index.get(HashSet.class));
+    }
+
+    @Test
+    @DisplayName("arrays")
+    void testArrays() {
+        Map<Class<?>, String> values = new LinkedHashMap<>();
+        values.put(Object[].class, "1");
+        values.put(CharSequence[].class, "2");
+        values.put(char[].class, "3");
+
+        TypeIndex<String> index = TypeIndex.compile(values);
+
+        assertEquals("1", index.get(Object[].class));
+        assertEquals("1", index.get(Integer[].class));
+        assertEquals("2", index.get(CharSequence[].class));
+        assertEquals("3", index.get(char[].class));
+        assertNull(index.get(int[].class));
+        assertNull(index.get(Object.class));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Utf8ByteBufferWriterTest.java
+ * Copyright 2026 Rob Spoor
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.robtimus.obfuscation.commons.lang3;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.github.robtimus.obfuscation.commons.lang3.ObfuscatingToStringStyle.ByteBufferFullHandler;
+
+@SuppressWarnings("nls")
+class Utf8ByteBufferWriterTest {
+
+    private static final String VALUE = "ascii éñ €中 😀🎉 end";
+
+    @Test
+    @DisplayName("heap buffer")
+    void testHeapBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        assertSame(buffer, write(VALUE, buffer, b -> {
+            throw new AssertionError("buffer should not be full");
+        }));
+        assertEncoded(VALUE, buffer);
+    }
+
+    @Test
+    @DisplayName("heap buffer with array offset")
+    void testHeapBufferWithArrayOffset() throws IOException {
+        byte[] array = new byte[100];
+        ByteBuffer buffer = ByteBuffer.wrap(array, 10, 90).slice();
+        write(VALUE, buffer, ByteBufferFullHandler.growing());
+
+        byte[] expected = VALUE.getBytes(StandardCharsets.UTF_8);
+        byte[] actual = new byte[expected.length];
+        System.arraycopy(array, 10, actual, 0, actual.length);
+        assertArrayEquals(expected, actual);
+        assertEquals(0, array[9]);
+    }
+
+    @Test
+    @DisplayName("direct buffer")
+    void testDirectBuffer() throws IOException {
+        ByteBuffer buffer = write(VALUE, ByteBuffer.allocateDirect(100), ByteBufferFullHandler.growing());
+        assertTrue(buffer.isDirect());
+        assertEncoded(VALUE, buffer);
+    }
+
+    @Test
+    @DisplayName("growing")
+    void testGrowing() throws IOException {
+        ByteBuffer buffer = write(VALUE, ByteBuffer.allocate(1), ByteBufferFullHandler.growing());
+        assertEquals(32, buffer.capacity());
+        assertEncoded(VALUE, buffer);
+
+        buffer = write(VALUE, ByteBuffer.allocateDirect(0), ByteBufferFullHandler.growing());
+        assertTrue(buffer.isDirect());
+        assertEncoded(VALUE, buffer);
+    }
+
+    @Test
+    @DisplayName("flushing")
+    void testFlushing() throws IOException {
+        for (int capacity = 1; capacity <= 5; capacity++) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ByteBuffer buffer = write(VALUE, ByteBuffer.allocate(capacity), b -> {
+                output.write(b.array(), 0, b.position());
+                b.clear();
+                return b;
+            });
+            output.write(buffer.array(), 0, buffer.position());
+            assertArrayEquals(VALUE.getBytes(StandardCharsets.UTF_8), output.toByteArray());
+        }
+    }
+
+    @Test
+    @DisplayName("surrogates split over writes")
+    void testSurrogatesSplitOverWrites() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        Utf8ByteBufferWriter writer = new Utf8ByteBufferWriter(buffer, ByteBufferFullHandler.growing());
+        char[] chars = VALUE.toCharArray();
+        for (char c : chars) {
+            writer.write(new char[] { c }, 0, 1);
+        }
+        assertSame(buffer, writer.finish());
+        assertEncoded(VALUE, buffer);
+    }
+
+    @Test
+    @DisplayName("unpaired surrogates")
+    void testUnpairedSurrogates() throws IOException {
+        assertEncoded("a?b?c", write("a\ud83db\ude00c", ByteBuffer.allocate(100), ByteBufferFullHandler.growing()));
+        assertEncoded("??", write("\ud83d\ud83d", ByteBuffer.allocate(100), ByteBufferFullHandler.growing()));
+        assertEncoded("a?", write("a\ud83d", ByteBuffer.allocate(100), ByteBufferFullHandler.growing()));
+        assertEncoded("?", write("\ude00", ByteBuffer.allocate(100), ByteBufferFullHandler.growing()));
+    }
+
+    @Test
+    @DisplayName("write String")
+    void testWriteString() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        Utf8ByteBufferWriter writer = new Utf8ByteBufferWriter(buffer, ByteBufferFullHandler.growing());
+        writer.write(VALUE);
+        writer.write('!');
+        assertSame(buffer, writer.finish());
+        assertEncoded(VALUE + "!", buffer);
+    }
+
+    @Test
+    @DisplayName("handler without remaining space")
+    void testHandlerWithoutRemainingSpace() {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        assertThrows(BufferOverflowException.class, () -> write(VALUE, buffer, b -> b));
+    }
+
+    @Test
+    @DisplayName("read-only buffer")
+    void testReadOnlyBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(100).asReadOnlyBuffer();
+        assertThrows(ReadOnlyBufferException.class, () -> write(VALUE, buffer, ByteBufferFullHandler.growing()));
+    }
+
+    private ByteBuffer write(String value, ByteBuffer buffer, ByteBufferFullHandler fullHandler) throws IOException {
+        Utf8ByteBufferWriter writer = new Utf8ByteBufferWriter(buffer, fullHandler);
+        char[] chars = value.toCharArray();
+        writer.write(chars, 0, chars.length);
+        return writer.finish();
+    }
+
+    private void assertEncoded(String expected, ByteBuffer buffer) {
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bytes);
+    }
+}